@@ -0,0 +1,42 @@
+package just.inventory.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in ({@code app.db-admission.enabled}) limiter for running request handlers on
+ * virtual threads: without it the number of concurrent requests is no longer bounded by
+ * Tomcat's thread pool, and everything beyond the Hikari pool size would fail on the
+ * pool's connection timeout. Turned on together with virtual threads by the
+ * {@code virtual} profile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db-admission.enabled", havingValue = "true")
+public class ConnectionAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionAdmissionDataSourcePostProcessor(Environment environment,
+                                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionAdmissionDataSource)) {
+                    // A quarter of the pool is left for threads that borrow a second connection
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    int permits = environment.getProperty("app.db-admission.permits", Integer.class,
+                            Math.max(1, poolSize - poolSize / 4));
+                    long timeout = environment.getProperty("app.db-admission.timeout", Long.class, 60000L);
+                    return new ConnectionAdmissionDataSource(dataSource, permits, timeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
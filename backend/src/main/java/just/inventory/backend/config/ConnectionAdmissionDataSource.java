@@ -0,0 +1,140 @@
+package just.inventory.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the connection pool. A fair semaphore with one permit
+ * per admitted thread is taken before the thread's first borrow and given back when its
+ * last connection is closed, so with thousands of virtual threads the excess callers
+ * wait in FIFO order for up to {@code timeout} instead of racing the pool and failing on
+ * its much shorter {@code connection-timeout}.
+ *
+ * The permit is per thread, not per connection: a thread that already holds one (e.g. a
+ * REQUIRES_NEW transaction borrowing alongside its caller) takes further connections
+ * without queueing, since waiting there could only wait on itself. Those extra
+ * connections come out of the pool headroom left above the permit count.
+ */
+public class ConnectionAdmissionDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    // Connections currently borrowed by the thread under its permit
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public ConnectionAdmissionDataSource(DataSource target, int maxConnections, long timeoutMillis, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("inventory.db.admission.wait")
+                .description("Time spent waiting for a database connection slot")
+                .register(meterRegistry);
+        Gauge.builder("inventory.db.admission.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads queued for a database connection slot")
+                .register(meterRegistry);
+        Gauge.builder("inventory.db.admission.available", permits, Semaphore::availablePermits)
+                .description("Free database connection slots")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admitted(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admitted(() -> super.getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection slot", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(
+                    "Timed out after " + timeoutMillis + "ms waiting for a database connection slot");
+        }
+    }
+
+    private Connection admitted(ConnectionSupplier supplier) throws SQLException {
+        // Captured so a connection closed on another thread still settles its owner's count
+        AtomicInteger holds = held.get();
+        if (holds.getAndIncrement() == 0) {
+            try {
+                acquire();
+            } catch (SQLException e) {
+                holds.decrementAndGet();
+                throw e;
+            }
+        }
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            release(holds);
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            release(holds);
+                        }
+                        return null;
+                    }
+                    // Identity of the proxy itself, never of the pooled connection behind it
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(connection)) {
+                        return connection;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private void release(AtomicInteger holds) {
+        if (holds.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
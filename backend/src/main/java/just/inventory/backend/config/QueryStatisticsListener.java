@@ -0,0 +1,30 @@
+package just.inventory.backend.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds every JDBC execution seen by the datasource proxy into the current
+ * {@link RequestStatistics}. A batch counts as one round trip; its time is split
+ * evenly across the statements in it.
+ */
+class QueryStatisticsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = execInfo.getElapsedTime() / queryInfoList.size();
+        for (QueryInfo queryInfo : queryInfoList) {
+            RequestStatistics.queryExecuted(queryInfo.getQuery(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package just.inventory.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how many JDBC statements, entity loads and collection fetches each API
+ * request caused, plus the executed query count and database time, tagged by the
+ * matched endpoint pattern.
+ *
+ * Requests that run more than {@code app.sql-budget.max-queries} queries are logged with
+ * their most repeated SQL shape, which is usually the N+1 culprit. With
+ * {@code app.sql-budget.expose-headers} on (the {@code dev} profile) the counts are also
+ * sent back as {@code X-Query-Count} and {@code X-Query-Time-Ms}, taken when the response
+ * starts to be written.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxQueries;
+    private final boolean exposeHeaders;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.sql-budget.max-queries:30}") int maxQueries,
+                                @Value("${app.sql-budget.expose-headers:false}") boolean exposeHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.maxQueries = maxQueries;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, exposeHeaders ? new QueryHeaderResponse(response, statistics) : response);
+        } finally {
+            RequestStatistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        summary("inventory.request.statements", "JDBC statements prepared per request", uri, method)
+                .record(statistics.getStatements());
+        summary("inventory.request.entity.loads", "Entities loaded per request", uri, method)
+                .record(statistics.getEntityLoads());
+        summary("inventory.request.collection.fetches", "Lazy collections fetched per request", uri, method)
+                .record(statistics.getCollectionFetches());
+        summary("inventory.request.queries", "JDBC queries executed per request", uri, method)
+                .record(statistics.getQueries());
+        Timer.builder("inventory.request.query.time")
+                .description("Database time spent per request")
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(statistics.getQueryTimeMillis(), TimeUnit.MILLISECONDS);
+
+        if (maxQueries > 0 && statistics.getQueries() > maxQueries) {
+            Map.Entry<String, Integer> shape = statistics.getMostRepeatedShape();
+            log.warn("{} {} ran {} queries in {} ms (budget {}); most repeated ({}x): {}",
+                    method, uri, statistics.getQueries(), statistics.getQueryTimeMillis(), maxQueries,
+                    shape != null ? shape.getValue() : 0, shape != null ? shape.getKey() : "-");
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String uri, String method) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the query headers right before the first byte (or error/redirect) goes out,
+     * while headers can still be set.
+     */
+    private static final class QueryHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+        private boolean written;
+
+        QueryHeaderResponse(HttpServletResponse response, RequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(statistics.getQueries()));
+            setHeader(QUERY_TIME_HEADER, String.valueOf(statistics.getQueryTimeMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
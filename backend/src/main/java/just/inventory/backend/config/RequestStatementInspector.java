@@ -0,0 +1,17 @@
+package just.inventory.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares into the per-request {@link RequestStatistics}.
+ * Registered through {@code hibernate.session_factory.statement_inspector}; the SQL is
+ * passed through unchanged.
+ */
+public class RequestStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementPrepared();
+        return sql;
+    }
+}
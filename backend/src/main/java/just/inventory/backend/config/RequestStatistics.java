@@ -0,0 +1,119 @@
+package just.inventory.backend.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Per-request database counters. {@link RequestStatementInspector} and
+ * {@link RequestStatisticsListeners} bump the Hibernate ones, {@link QueryStatisticsListener}
+ * records every JDBC execution (including native and {@code JdbcTemplate} queries) with
+ * its time and SQL shape, and {@link RequestMetricsFilter} opens and publishes them
+ * around each HTTP request.
+ *
+ * Outside a request the counters can be opened by hand with {@link #begin()}, e.g. to
+ * check how many queries a service call costs.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private long statements;
+    private long entityLoads;
+    private long collectionFetches;
+    private long queries;
+    private long queryTimeMillis;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    public static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    static void queryExecuted(String sql, long elapsedMillis) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.queries++;
+            statistics.queryTimeMillis += elapsedMillis;
+            statistics.shapes.merge(shape(sql), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * SQL with literals and IN lists collapsed, so the same query issued for different
+     * rows (the N+1 pattern) counts as one shape.
+     */
+    static String shape(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getQueryTimeMillis() {
+        return queryTimeMillis;
+    }
+
+    /**
+     * The SQL shape executed most often during the request, or {@code null} if none ran.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedShape() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
@@ -1,9 +1,11 @@
 package just.inventory.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import just.inventory.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -39,6 +41,8 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable()) // Disable CSRF for REST API
             .authorizeHttpRequests(authorize -> authorize
+                // Async results (e.g. barcode rendering) are dispatched again after the original request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 // Public endpoints
                 .requestMatchers(
                     "/swagger-ui/**",
@@ -48,6 +52,9 @@ public class SecurityConfig {
                     "/h2-console/**",
                     "/api/auth/**"
                 ).permitAll()
+                // Liveness for load balancers; metrics only for admins (Prometheus scrapes with an admin token)
+                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Authenticated endpoints
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().permitAll()
@@ -95,6 +102,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList(frontendUrl, "http://localhost:3000")); // Allow frontend origin from application.yaml
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(RequestMetricsFilter.QUERY_COUNT_HEADER, RequestMetricsFilter.QUERY_TIME_HEADER,
+                HttpHeaders.ETAG));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,172 @@
+package just.inventory.backend.controller;
+
+import just.inventory.backend.dto.AuditFindingView;
+import just.inventory.backend.dto.AuditScanRequest;
+import just.inventory.backend.dto.AuditScanResult;
+import just.inventory.backend.model.AuditSession;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.AuditService;
+import just.inventory.backend.service.AuditSessionNotFoundException;
+import just.inventory.backend.service.InvalidAuditRequestException;
+import just.inventory.backend.service.OfficeHierarchy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Stock-takes: open a session for an office, post scanned barcodes in batches, then
+ * reconcile to get the missing, unexpected and misplaced items.
+ */
+@RestController
+@RequestMapping("/api/audits")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostMapping
+    public ResponseEntity<?> openSession(@RequestBody OpenSessionRequest request) {
+        User currentUser = getCurrentUser();
+        Long officeId = request.getOfficeId() != null ? request.getOfficeId()
+                : currentUser.getOffice() != null ? currentUser.getOffice().getId() : null;
+        if (officeId == null) {
+            return ResponseEntity.badRequest().body("officeId is required");
+        }
+        if (!canAudit(currentUser, officeId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("You can only audit your own office and the offices below it");
+        }
+        try {
+            AuditSession session = auditService.openSession(officeId, currentUser.getId());
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}").buildAndExpand(session.getId()).toUri();
+            return ResponseEntity.created(location).body(session);
+        } catch (InvalidAuditRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/office/{officeId}")
+    public ResponseEntity<?> getSessionsForOffice(@PathVariable Long officeId) {
+        if (!canAudit(getCurrentUser(), officeId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to view this office's stock-takes");
+        }
+        return ResponseEntity.ok(auditService.getSessionsForOffice(officeId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSession(@PathVariable Long id) {
+        try {
+            AuditSession session = auditService.getSession(id);
+            if (!canAudit(getCurrentUser(), session.getOfficeId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to view this stock-take");
+            }
+            return ResponseEntity.ok(session);
+        } catch (AuditSessionNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * A batch of scanned barcodes; safe to re-send and to send out of order
+     */
+    @PostMapping("/{id}/scans")
+    public ResponseEntity<?> addScans(@PathVariable Long id, @RequestBody AuditScanRequest request) {
+        try {
+            if (!canAudit(getCurrentUser(), auditService.getSession(id).getOfficeId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to scan for this stock-take");
+            }
+            AuditScanResult result = auditService.addScans(id, request.getBarcodes());
+            return ResponseEntity.ok(result);
+        } catch (AuditSessionNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidAuditRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/reconcile")
+    public ResponseEntity<?> reconcile(@PathVariable Long id) {
+        try {
+            if (!canAudit(getCurrentUser(), auditService.getSession(id).getOfficeId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to reconcile this stock-take");
+            }
+            return ResponseEntity.ok(auditService.reconcile(id));
+        } catch (AuditSessionNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidAuditRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        try {
+            if (!canAudit(getCurrentUser(), auditService.getSession(id).getOfficeId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to cancel this stock-take");
+            }
+            return ResponseEntity.ok(auditService.cancel(id));
+        } catch (AuditSessionNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidAuditRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/findings")
+    public ResponseEntity<?> getFindings(
+            @PathVariable Long id,
+            @RequestParam(required = false) AuditSession.FindingKind kind,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "200") int size) {
+        try {
+            if (!canAudit(getCurrentUser(), auditService.getSession(id).getOfficeId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to view this stock-take");
+            }
+            List<AuditFindingView> findings = auditService.getFindings(id, kind, page, size);
+            return ResponseEntity.ok(findings);
+        } catch (AuditSessionNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private boolean canAudit(User user, Long officeId) {
+        return "ADMIN".equals(user.getRole().getName())
+                || (user.getOffice() != null && officeHierarchy.isInSubtree(user.getOffice().getId(), officeId));
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    // DTO
+    public static class OpenSessionRequest {
+        // Defaults to the user's own office
+        private Long officeId;
+
+        public Long getOfficeId() {
+            return officeId;
+        }
+
+        public void setOfficeId(Long officeId) {
+            this.officeId = officeId;
+        }
+    }
+}
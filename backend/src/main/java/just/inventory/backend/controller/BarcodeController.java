@@ -3,7 +3,9 @@ package just.inventory.backend.controller;
 import com.google.zxing.WriterException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import just.inventory.backend.service.BarcodeRenderExecutor;
 import just.inventory.backend.service.BarcodeService;
+import just.inventory.backend.service.RenderQueueFullException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,6 +18,8 @@ import java.io.OutputStream;
 import java.net.Socket;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/barcodes")
@@ -25,154 +29,67 @@ public class BarcodeController {
     @Autowired
     private BarcodeService barcodeService;
 
+    @Autowired
+    private BarcodeRenderExecutor barcodeRenderExecutor;
+
     @GetMapping("/generate/{barcodeText}")
     @Operation(summary = "Generate barcode image", description = "Generate a Code128 barcode image for the given text")
-    public ResponseEntity<byte[]> generateBarcode(
+    public CompletableFuture<ResponseEntity<byte[]>> generateBarcode(
             @PathVariable String barcodeText,
             @RequestParam(defaultValue = "400") int width,
             @RequestParam(defaultValue = "100") int height) {
-        try {
-            byte[] barcodeImage = barcodeService.generateBarcodeImage(barcodeText, width, height);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("inline", "barcode.png");
-            
-            return new ResponseEntity<>(barcodeImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return render(() -> barcodeService.generateBarcodeImage(barcodeText, width, height), MediaType.IMAGE_PNG, "inline", "barcode.png");
     }
 
     @GetMapping("/qrcode/{barcodeText}")
     @Operation(summary = "Generate QR code", description = "Generate a QR code image for the given text")
-    public ResponseEntity<byte[]> generateQRCode(
+    public CompletableFuture<ResponseEntity<byte[]>> generateQRCode(
             @PathVariable String barcodeText,
             @RequestParam(defaultValue = "200") int width,
             @RequestParam(defaultValue = "200") int height) {
-        try {
-            byte[] qrImage = barcodeService.generateQRCode(barcodeText, width, height);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("inline", "qrcode.png");
-            
-            return new ResponseEntity<>(qrImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return render(() -> barcodeService.generateQRCode(barcodeText, width, height), MediaType.IMAGE_PNG, "inline", "qrcode.png");
     }
 
     @GetMapping("/label/{itemInstanceId}")
     @Operation(summary = "Generate barcode label", description = "Generate a complete barcode label with item information")
-    public ResponseEntity<byte[]> generateBarcodeLabel(@PathVariable Long itemInstanceId) {
-        try {
-            byte[] labelImage = barcodeService.generateBarcodeLabel(itemInstanceId);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("attachment", "barcode-label-" + itemInstanceId + ".png");
-            
-            return new ResponseEntity<>(labelImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateBarcodeLabel(@PathVariable Long itemInstanceId) {
+        return render(() -> barcodeService.generateBarcodeLabel(itemInstanceId), MediaType.IMAGE_PNG, "attachment", "barcode-label-" + itemInstanceId + ".png");
     }
 
     @GetMapping("/simple-label/{itemInstanceId}")
     @Operation(summary = "Generate simple barcode label", description = "Generate a simplified vertical barcode label (6x4 inches) with item name, office, and purchase date only")
-    public ResponseEntity<byte[]> generateSimpleBarcodeLabel(@PathVariable Long itemInstanceId) {
-        try {
-            byte[] labelImage = barcodeService.generateSimpleBarcodeLabel(itemInstanceId);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("attachment", "barcode-" + itemInstanceId + ".png");
-            
-            return new ResponseEntity<>(labelImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateSimpleBarcodeLabel(@PathVariable Long itemInstanceId) {
+        return render(() -> barcodeService.generateSimpleBarcodeLabel(itemInstanceId), MediaType.IMAGE_PNG, "attachment", "barcode-" + itemInstanceId + ".png");
     }
 
     @PostMapping("/labels")
     @Operation(summary = "Generate multiple barcode labels", description = "Generate barcode labels for multiple item instances")
-    public ResponseEntity<byte[]> generateBarcodeLabels(@RequestBody List<Long> itemInstanceIds) {
-        try {
-            byte[] labelsImage = barcodeService.generateBarcodeLabels(itemInstanceIds);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("attachment", "barcode-labels.png");
-            
-            return new ResponseEntity<>(labelsImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateBarcodeLabels(@RequestBody List<Long> itemInstanceIds) {
+        return render(() -> barcodeService.generateBarcodeLabels(itemInstanceIds), MediaType.IMAGE_PNG, "attachment", "barcode-labels.png");
     }
 
     @PostMapping("/simple-labels")
     @Operation(summary = "Generate multiple simple barcode labels", description = "Generate simplified vertical barcode labels (6x4 inches) for multiple item instances")
-    public ResponseEntity<byte[]> generateSimpleBarcodeLabels(@RequestBody List<Long> itemInstanceIds) {
-        try {
-            byte[] labelsImage = barcodeService.generateSimpleBarcodeLabels(itemInstanceIds);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("attachment", "barcode-labels.png");
-            
-            return new ResponseEntity<>(labelsImage, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateSimpleBarcodeLabels(@RequestBody List<Long> itemInstanceIds) {
+        return render(() -> barcodeService.generateSimpleBarcodeLabels(itemInstanceIds), MediaType.IMAGE_PNG, "attachment", "barcode-labels.png");
     }
 
     @PostMapping("/labels-pdf")
     @Operation(summary = "Generate barcode labels as PDF", description = "Generate barcode labels for multiple item instances as a PDF file optimized for 6x4 inch thermal printing")
-    public ResponseEntity<byte[]> generateBarcodeLabelsPDF(@RequestBody List<Long> itemInstanceIds) {
-        try {
-            byte[] pdfBytes = barcodeService.generateBarcodeLabelsPDF(itemInstanceIds);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "barcode-labels.pdf");
-            
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateBarcodeLabelsPDF(@RequestBody List<Long> itemInstanceIds) {
+        return render(() -> barcodeService.generateBarcodeLabelsPDF(itemInstanceIds), MediaType.APPLICATION_PDF, "attachment", "barcode-labels.pdf");
     }
 
     @GetMapping("/escpos/{itemInstanceId}")
     @Operation(summary = "Generate ESC/POS commands", description = "Generate ESC/POS commands for direct thermal printer printing")
-    public ResponseEntity<byte[]> generateESCPOS(@PathVariable Long itemInstanceId) {
-        try {
-            byte[] escposCommands = barcodeService.generateESCPOSCommands(itemInstanceId);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", "print-" + itemInstanceId + ".bin");
-            
-            return new ResponseEntity<>(escposCommands, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateESCPOS(@PathVariable Long itemInstanceId) {
+        return render(() -> barcodeService.generateESCPOSCommands(itemInstanceId), MediaType.APPLICATION_OCTET_STREAM, "attachment", "print-" + itemInstanceId + ".bin");
     }
 
     @PostMapping("/escpos-multiple")
     @Operation(summary = "Generate ESC/POS commands for multiple labels", description = "Generate ESC/POS commands for printing multiple barcode labels")
-    public ResponseEntity<byte[]> generateESCPOSMultiple(@RequestBody List<Long> itemInstanceIds) {
-        try {
-            byte[] escposCommands = barcodeService.generateESCPOSCommandsMultiple(itemInstanceIds);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", "print-labels.bin");
-            
-            return new ResponseEntity<>(escposCommands, headers, HttpStatus.OK);
-        } catch (WriterException | IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<byte[]>> generateESCPOSMultiple(@RequestBody List<Long> itemInstanceIds) {
+        return render(() -> barcodeService.generateESCPOSCommandsMultiple(itemInstanceIds), MediaType.APPLICATION_OCTET_STREAM, "attachment", "print-labels.bin");
     }
 
     @PostMapping("/print-network")
@@ -220,4 +137,33 @@ public class BarcodeController {
             ));
         }
     }
+
+    /**
+     * Runs the rendering on the {@link BarcodeRenderExecutor} and answers 429 with
+     * Retry-After when its queue is full.
+     */
+    private CompletableFuture<ResponseEntity<byte[]>> render(BarcodeRenderExecutor.RenderTask<byte[]> task,
+                                                           MediaType contentType, String disposition, String filename) {
+        CompletableFuture<byte[]> rendering;
+        try {
+            rendering = barcodeRenderExecutor.submit(task);
+        } catch (RenderQueueFullException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build());
+        }
+        return rendering.handle((bytes, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof WriterException || cause instanceof IOException) {
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                }
+                throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(contentType);
+            headers.setContentDispositionFormData(disposition, filename);
+            return new ResponseEntity<>(bytes, headers, HttpStatus.OK);
+        });
+    }
 }
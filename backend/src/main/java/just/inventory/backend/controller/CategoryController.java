@@ -1,5 +1,6 @@
 package just.inventory.backend.controller;
 
+import just.inventory.backend.dto.CategoryView;
 import just.inventory.backend.model.Category;
 import just.inventory.backend.service.CategoryService;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +22,8 @@ public class CategoryController {
 
     @GetMapping
     @Operation(summary = "Get all categories")
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
+    public ResponseEntity<List<CategoryView>> getAllCategories() {
+        List<CategoryView> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
 
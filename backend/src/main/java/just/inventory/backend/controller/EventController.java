@@ -0,0 +1,50 @@
+package just.inventory.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.WorkflowEventHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private WorkflowEventHub workflowEventHub;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Server-Sent Events for requests and distributions involving the user's office.
+     * Each event names what changed ({@code request} or {@code distribution}, with id and
+     * status); {@code reset} means events were missed and the client should refetch.
+     * Needs the usual bearer token, so browsers have to use a fetch-based SSE client
+     * rather than {@code EventSource}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (currentUser.getOffice() == null) {
+            return ResponseEntity.badRequest().body("User is not assigned to an office");
+        }
+
+        // Keep reverse proxies (nginx) from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return ResponseEntity.ok(workflowEventHub.subscribe(currentUser.getOffice().getId(), lastEventId));
+    }
+}
@@ -0,0 +1,190 @@
+package just.inventory.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import just.inventory.backend.dto.CreateExportRequest;
+import just.inventory.backend.model.ExportJob;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.ExportJobService;
+import just.inventory.backend.service.OfficeHierarchy;
+import just.inventory.backend.service.PurchaseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostMapping
+    public ResponseEntity<?> createExport(@RequestBody CreateExportRequest request) {
+        User currentUser = getCurrentUser();
+        if (request.getType() == null || request.getTargetId() == null) {
+            return ResponseEntity.badRequest().body("type and targetId are required");
+        }
+
+        Long officeId = request.getType() == ExportJob.Type.PURCHASE_LABELS_PDF
+                ? purchaseService.getPurchaseById(request.getTargetId()).getOffice().getId()
+                : request.getTargetId();
+        if (!isAdmin(currentUser) && (currentUser.getOffice() == null
+                || !officeHierarchy.isInSubtree(currentUser.getOffice().getId(), officeId))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("You can only export data for your own office");
+        }
+
+        ExportJob job = exportJobService.createJob(request.getType(), request.getTargetId(), currentUser.getId());
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getMyExports() {
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(exportJobService.getJobsForUser(currentUser.getId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getExport(@PathVariable Long id) {
+        User currentUser = getCurrentUser();
+        ExportJob job = exportJobService.getJob(id);
+        if (!canAccess(currentUser, job)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("You can only view your own exports");
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Copies the artifact from the export directory to the response in buffer-sized
+     * chunks, so the file is never held in memory. A single {@code Range: bytes=start-end}
+     * is honoured so interrupted downloads can resume; a multi-range request gets the
+     * whole file with 200, which RFC 9110 allows in place of a multipart/byteranges body.
+     */
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable Long id,
+                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                         HttpServletResponse response) throws IOException {
+        User currentUser = getCurrentUser();
+        ExportJob job = exportJobService.getJob(id);
+        if (!canAccess(currentUser, job)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "You can only download your own exports");
+            return;
+        }
+        Path artifact = exportJobService.getArtifact(job);
+        if (artifact == null) {
+            // Not finished yet or expired
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Export is not available for download");
+            return;
+        }
+
+        try (InputStream in = Files.newInputStream(artifact)) {
+            long size = Files.size(artifact);
+            long start = 0;
+            long end = size - 1;
+            if (range != null && range.indexOf(',') < 0) {
+                long[] bounds = parseRange(range, size);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+
+            long length = end - start + 1;
+            response.setContentType(job.getContentType());
+            response.setContentLengthLong(length);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(job.getFileName()).build().toString());
+
+            if (length > 0) {
+                StreamUtils.copyRange(in, response.getOutputStream(), start, end);
+            }
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * Parses a single byte range into inclusive bounds; returns {@code null} if it is
+     * malformed or cannot be satisfied.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || size == 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length());
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start < 0 || start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean canAccess(User user, ExportJob job) {
+        return user.getId().equals(job.getRequestedById()) || isAdmin(user);
+    }
+
+    private boolean isAdmin(User user) {
+        return "ADMIN".equals(user.getRole().getName());
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
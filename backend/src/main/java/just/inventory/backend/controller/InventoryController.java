@@ -1,11 +1,17 @@
 package just.inventory.backend.controller;
 
-import just.inventory.backend.model.Inventory;
+import just.inventory.backend.dto.InventoryView;
+import just.inventory.backend.dto.ItemInstanceView;
+import just.inventory.backend.dto.StatusChangeRequest;
+import just.inventory.backend.dto.StatusChangeResult;
 import just.inventory.backend.model.ItemInstance;
 import just.inventory.backend.model.User;
 import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.InstanceStatusService;
 import just.inventory.backend.service.InventoryService;
+import just.inventory.backend.service.OfficeHierarchy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,8 +30,16 @@ public class InventoryController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private InstanceStatusService instanceStatusService;
+
     @GetMapping("/office/{officeId}")
-    public ResponseEntity<?> getInventoryByOffice(@PathVariable Long officeId) {
+    public ResponseEntity<?> getInventoryByOffice(@PathVariable Long officeId,
+                                                  @RequestParam(required = false) Integer page,
+                                                  @RequestParam(required = false) Integer size) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
         User currentUser = userRepository.findByUsername(username)
@@ -38,7 +52,7 @@ public class InventoryController {
                 .body("You can only view inventory for your own office");
         }
         
-        Inventory inventory = inventoryService.getInventoryByOfficeId(officeId);
+        InventoryView inventory = inventoryService.getInventoryView(officeId, page, size);
         return ResponseEntity.ok(inventory);
     }
 
@@ -56,7 +70,7 @@ public class InventoryController {
                 .body("You can only view inventory for your own office");
         }
         
-        List<ItemInstance> instances = inventoryService.getItemInstancesByOfficeId(officeId);
+        List<ItemInstanceView> instances = inventoryService.getItemInstanceViewsByOfficeId(officeId);
         return ResponseEntity.ok(instances);
     }
 
@@ -78,6 +92,53 @@ public class InventoryController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/office/{officeId}/rollup")
+    public ResponseEntity<?> getInventoryRollup(@PathVariable Long officeId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // Check if the office is the user's own office or one of its sub-offices, or user is admin
+        if (!officeHierarchy.isInSubtree(currentUser.getOffice().getId(), officeId) && 
+            !"ADMIN".equals(currentUser.getRole().getName())) {
+            return ResponseEntity.status(403)
+                .body("You can only view inventory for your own office and its sub-offices");
+        }
+        
+        try {
+            Map<String, Object> rollup = inventoryService.getInventoryRollupByOfficeId(officeId);
+            return ResponseEntity.ok(rollup);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Bulk status change (repair, damaged, lost, disposed, back to available) of instances
+     * held by the office or its sub-offices, named by barcode or id
+     */
+    @PostMapping("/office/{officeId}/status-changes")
+    public ResponseEntity<?> changeStatus(@PathVariable Long officeId, @RequestBody StatusChangeRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!"ADMIN".equals(currentUser.getRole().getName()) && (currentUser.getOffice() == null
+                || !officeHierarchy.isInSubtree(currentUser.getOffice().getId(), officeId))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("You can only change items of your own office and its sub-offices");
+        }
+
+        try {
+            StatusChangeResult result = instanceStatusService.changeStatus(officeId, request, currentUser.getId());
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/items/{id}")
     public ResponseEntity<?> getItemInstanceById(@PathVariable Long id) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -104,7 +165,7 @@ public class InventoryController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemInstance> instances = inventoryService.getItemInstancesByOfficeId(currentUser.getOffice().getId());
+        List<ItemInstanceView> instances = inventoryService.getItemInstanceViewsByOfficeId(currentUser.getOffice().getId());
         return ResponseEntity.ok(instances);
     }
 
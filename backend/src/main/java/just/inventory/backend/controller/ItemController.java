@@ -1,5 +1,6 @@
 package just.inventory.backend.controller;
 
+import just.inventory.backend.dto.ItemView;
 import just.inventory.backend.model.Item;
 import just.inventory.backend.service.ItemService;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +22,28 @@ public class ItemController {
 
     @GetMapping
     @Operation(summary = "Get all items")
-    public ResponseEntity<List<Item>> getAllItems() {
-        List<Item> items = itemService.getAllItems();
+    public ResponseEntity<List<ItemView>> getAllItems() {
+        List<ItemView> items = itemService.getAllItems();
+        return ResponseEntity.ok(items);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search items", description = "Ranked trigram search over item name and description, optionally filtered by category and unit")
+    public ResponseEntity<List<ItemView>> searchItems(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long unitId,
+            @RequestParam(required = false) Integer limit) {
+        List<ItemView> items = itemService.searchItems(query, categoryId, unitId, limit);
+        return ResponseEntity.ok(items);
+    }
+
+    @GetMapping("/typeahead")
+    @Operation(summary = "Item name typeahead", description = "Prefix matches on item names served from the in-memory catalogue")
+    public ResponseEntity<List<ItemView>> typeahead(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        List<ItemView> items = itemService.typeahead(prefix, limit);
         return ResponseEntity.ok(items);
     }
 
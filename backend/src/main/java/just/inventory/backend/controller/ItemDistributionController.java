@@ -1,8 +1,10 @@
 package just.inventory.backend.controller;
 
+import just.inventory.backend.dto.ItemTransactionView;
 import just.inventory.backend.model.ItemTransaction;
 import just.inventory.backend.model.User;
 import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.ConcurrentUpdateException;
 import just.inventory.backend.service.ItemDistributionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -53,6 +55,9 @@ public class ItemDistributionController {
             );
             
             return new ResponseEntity<>(transactions, HttpStatus.CREATED);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(e.getMessage());
@@ -73,13 +78,13 @@ public class ItemDistributionController {
                 .body("You can only view transaction history for your own office");
         }
         
-        List<ItemTransaction> history = distributionService.getTransactionHistory(officeId);
+        List<ItemTransactionView> history = distributionService.getTransactionHistory(officeId);
         return ResponseEntity.ok(history);
     }
 
     @GetMapping("/item/{itemInstanceId}/history")
     public ResponseEntity<?> getItemTransactionHistory(@PathVariable Long itemInstanceId) {
-        List<ItemTransaction> history = distributionService.getItemTransactionHistory(itemInstanceId);
+        List<ItemTransactionView> history = distributionService.getItemTransactionHistory(itemInstanceId);
         return ResponseEntity.ok(history);
     }
 
@@ -90,7 +95,7 @@ public class ItemDistributionController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemTransaction> history = distributionService.getTransactionHistory(currentUser.getOffice().getId());
+        List<ItemTransactionView> history = distributionService.getTransactionHistory(currentUser.getOffice().getId());
         return ResponseEntity.ok(history);
     }
 
@@ -101,7 +106,7 @@ public class ItemDistributionController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemTransaction> pending = distributionService.getPendingDistributions(currentUser.getOffice().getId());
+        List<ItemTransactionView> pending = distributionService.getPendingDistributions(currentUser.getOffice().getId());
         return ResponseEntity.ok(pending);
     }
 
@@ -121,6 +126,9 @@ public class ItemDistributionController {
         try {
             ItemTransaction transaction = distributionService.confirmDistribution(transactionId, currentUser);
             return ResponseEntity.ok(transaction);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(e.getMessage());
@@ -145,6 +153,9 @@ public class ItemDistributionController {
             ItemTransaction transaction = distributionService.rejectDistribution(
                 transactionId, currentUser, request.getReason());
             return ResponseEntity.ok(transaction);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(e.getMessage());
@@ -1,9 +1,14 @@
 package just.inventory.backend.controller;
 
+import just.inventory.backend.dto.AllocationPlan;
+import just.inventory.backend.dto.ItemRequestView;
 import just.inventory.backend.model.ItemRequest;
 import just.inventory.backend.model.User;
 import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.AllocationPlanner;
+import just.inventory.backend.service.ConcurrentUpdateException;
 import just.inventory.backend.service.ItemRequestService;
+import just.inventory.backend.service.PlanChangedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +28,9 @@ public class ItemRequestController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AllocationPlanner allocationPlanner;
+
     @PostMapping
     public ResponseEntity<?> createItemRequest(@RequestBody ItemRequest itemRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -56,13 +64,13 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemRequest>> getAllItemRequests() {
+    public ResponseEntity<List<ItemRequestView>> getAllItemRequests() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getRequestsByOffice(currentUser.getOffice().getId());
+        List<ItemRequestView> requests = itemRequestService.getRequestsByOffice(currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
 
@@ -85,8 +93,8 @@ public class ItemRequestController {
     }
 
     @GetMapping("/office/{officeId}")
-    public ResponseEntity<List<ItemRequest>> getRequestsByOffice(@PathVariable Long officeId) {
-        List<ItemRequest> requests = itemRequestService.getRequestsByOffice(officeId);
+    public ResponseEntity<List<ItemRequestView>> getRequestsByOffice(@PathVariable Long officeId) {
+        List<ItemRequestView> requests = itemRequestService.getRequestsByOffice(officeId);
         return ResponseEntity.ok(requests);
     }
 
@@ -145,12 +153,89 @@ public class ItemRequestController {
             ItemRequest fulfilled = itemRequestService.fulfillRequest(
                 id, currentUser.getId(), fulfillmentRequest.getQuantity());
             return ResponseEntity.ok(fulfilled);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(e.getMessage());
         }
     }
 
+    /**
+     * How the office's available stock would be shared out over all its open approved
+     * requests; nothing is reserved. The ETag names this plan for executing it
+     */
+    @GetMapping("/allocation-plan")
+    public ResponseEntity<?> previewAllocation(@RequestParam(required = false) AllocationPlan.Policy policy) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Check if user is admin
+        if (!"ADMIN".equals(currentUser.getRole().getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("Only admins can fulfill requests");
+        }
+
+        AllocationPlan plan = allocationPlanner.preview(currentUser.getOffice().getId(), policy);
+        return ResponseEntity.ok()
+                .eTag(toEtag(plan.token()))
+                .body(plan);
+    }
+
+    /**
+     * Fulfils all open approved requests of the user's office at once, as far as stock allows.
+     * Carries out the previewed plan whose ETag is sent in If-Match, or fails with 412 if the
+     * plan has changed since
+     */
+    @PostMapping("/allocation-plan/execute")
+    public ResponseEntity<?> executeAllocation(
+            @RequestParam(required = false) AllocationPlan.Policy policy,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Check if user is admin
+        if (!"ADMIN".equals(currentUser.getRole().getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("Only admins can fulfill requests");
+        }
+
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                .body("Preview the allocation plan and send its ETag in If-Match");
+        }
+
+        try {
+            AllocationPlan plan = allocationPlanner.execute(currentUser.getOffice().getId(), policy,
+                    fromEtag(ifMatch), currentUser);
+            return ResponseEntity.ok(plan);
+        } catch (PlanChangedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(e.getMessage());
+        }
+    }
+
+    private String toEtag(String token) {
+        return "\"plan-" + token + "\"";
+    }
+
+    private String fromEtag(String etag) {
+        String token = etag.trim();
+        if (token.startsWith("W/")) {
+            token = token.substring(2);
+        }
+        token = token.replace("\"", "");
+        return token.startsWith("plan-") ? token.substring("plan-".length()) : token;
+    }
+
     @PutMapping("/{id}/reject")
     public ResponseEntity<?> rejectRequest(
             @PathVariable Long id,
@@ -186,7 +271,7 @@ public class ItemRequestController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getPendingRequestsForOffice(
+        List<ItemRequestView> requests = itemRequestService.getPendingRequestsForOffice(
             currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
@@ -198,7 +283,7 @@ public class ItemRequestController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getRequestsByOffice(
+        List<ItemRequestView> requests = itemRequestService.getRequestsByOffice(
             currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
@@ -210,7 +295,7 @@ public class ItemRequestController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getApprovedRequestsForOffice(
+        List<ItemRequestView> requests = itemRequestService.getApprovedRequestsForOffice(
             currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
@@ -222,7 +307,7 @@ public class ItemRequestController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getFulfilledRequestsForOffice(
+        List<ItemRequestView> requests = itemRequestService.getFulfilledRequestsForOffice(
             currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
@@ -234,7 +319,7 @@ public class ItemRequestController {
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<ItemRequest> requests = itemRequestService.getHistoryForOffice(
+        List<ItemRequestView> requests = itemRequestService.getHistoryForOffice(
             currentUser.getOffice().getId());
         return ResponseEntity.ok(requests);
     }
@@ -266,6 +351,9 @@ public class ItemRequestController {
             ItemRequest confirmed = itemRequestService.confirmReceipt(
                 id, currentUser.getId(), confirmationRequest.getRemarks());
             return ResponseEntity.ok(confirmed);
+        } catch (ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(e.getMessage());
@@ -0,0 +1,44 @@
+package just.inventory.backend.controller;
+
+import just.inventory.backend.dto.CountersView;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.InboxCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/me")
+public class MeController {
+
+    @Autowired
+    private InboxCounters inboxCounters;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Badge counts for the sidebar and dashboard in one small response, instead of
+     * loading the incoming, approved, fulfilled and pending-distribution lists
+     */
+    @GetMapping("/counters")
+    public ResponseEntity<CountersView> getCounters() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        CountersView counters = currentUser.getOffice() != null
+                ? inboxCounters.getCounters(currentUser.getOffice().getId())
+                : new CountersView(0, 0, 0, 0);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(counters);
+    }
+}
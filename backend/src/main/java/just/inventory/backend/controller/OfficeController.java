@@ -2,6 +2,8 @@ package just.inventory.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import just.inventory.backend.dto.OfficeTreeNode;
+import just.inventory.backend.dto.OfficeView;
 import just.inventory.backend.model.Office;
 import just.inventory.backend.service.OfficeService;
 import lombok.RequiredArgsConstructor;
@@ -20,11 +22,17 @@ public class OfficeController {
 
     @GetMapping
     @Operation(summary = "Get all offices")
-    public ResponseEntity<List<Office>> getAllOffices() {
-        List<Office> offices = officeService.getAllOffices();
+    public ResponseEntity<List<OfficeView>> getAllOffices() {
+        List<OfficeView> offices = officeService.getAllOffices();
         return ResponseEntity.ok(offices);
     }
 
+    @GetMapping("/tree")
+    @Operation(summary = "Get the office hierarchy", description = "Returns the whole office tree in one response, or only the subtree below rootId")
+    public ResponseEntity<List<OfficeTreeNode>> getOfficeTree(@RequestParam(required = false) Long rootId) {
+        return ResponseEntity.ok(officeService.getOfficeTree().toNodes(rootId));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get office by ID")
     public ResponseEntity<Office> getOfficeById(@PathVariable Long id) {
@@ -35,8 +43,8 @@ public class OfficeController {
 
     @GetMapping("/children/{parentId}")
     @Operation(summary = "Get child offices by parent ID")
-    public ResponseEntity<List<Office>> getChildOffices(@PathVariable Long parentId) {
-        List<Office> childOffices = officeService.getChildOffices(parentId);
+    public ResponseEntity<List<OfficeView>> getChildOffices(@PathVariable Long parentId) {
+        List<OfficeView> childOffices = officeService.getChildOffices(parentId);
         return ResponseEntity.ok(childOffices);
     }
 
@@ -0,0 +1,43 @@
+package just.inventory.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import just.inventory.backend.dto.ReferenceDataResponse;
+import just.inventory.backend.service.ReferenceDataCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@RequiredArgsConstructor
+@Tag(name = "Reference Data", description = "Cached catalogue of items, categories, units and offices")
+public class ReferenceDataController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    @GetMapping
+    @Operation(summary = "Get the reference data snapshot", description = "Returns items, categories, units and offices in one response. Send If-None-Match to revalidate.")
+    public ResponseEntity<ReferenceDataResponse> getSnapshot(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = toEtag(referenceDataCache.getVersion());
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        ReferenceDataResponse snapshot = referenceDataCache.getSnapshot();
+        return ResponseEntity.ok()
+                .eTag(toEtag(snapshot.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot);
+    }
+
+    private String toEtag(long version) {
+        return "\"ref-" + version + "\"";
+    }
+}
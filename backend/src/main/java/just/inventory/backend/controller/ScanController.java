@@ -0,0 +1,65 @@
+package just.inventory.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import just.inventory.backend.dto.ScanIngestResult;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.ScanIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk scan uploads from handheld scanners, instead of one tracking call per scan.
+ * The body is read as a stream, never buffered whole.
+ */
+@RestController
+@RequestMapping("/api/scans")
+public class ScanController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ScanIngestService scanIngestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * One {@code {"barcode", "timestamp", "deviceId", "action"}} object per line
+     */
+    @PostMapping(consumes = NDJSON)
+    public ResponseEntity<?> ingestNdjson(HttpServletRequest request) throws IOException {
+        ScanIngestResult result = scanIngestService.ingestNdjson(request.getInputStream(), getCurrentUserId());
+        return respond(result);
+    }
+
+    /**
+     * Binary frames, see {@link ScanIngestService} for the layout
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> ingestBinary(HttpServletRequest request) throws IOException {
+        ScanIngestResult result = scanIngestService.ingestBinary(request.getInputStream(), getCurrentUserId());
+        return respond(result);
+    }
+
+    private ResponseEntity<?> respond(ScanIngestResult result) {
+        // Accepted scans are stored either way; the error tells the client where to resume
+        return result.error() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUser.getId();
+    }
+}
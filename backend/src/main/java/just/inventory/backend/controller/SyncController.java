@@ -0,0 +1,57 @@
+package just.inventory.backend.controller;
+
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.ChangeLog;
+import just.inventory.backend.service.OfficeHierarchy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Changes to requests, distributions, instances and purchases of an office (the
+     * user's own by default) after sequence {@code since}, oldest first. Start from 0 and
+     * keep passing back {@code next}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long officeId,
+            @RequestParam(defaultValue = "500") int limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Long userOfficeId = currentUser.getOffice() != null ? currentUser.getOffice().getId() : null;
+        Long targetOfficeId = officeId != null ? officeId : userOfficeId;
+        if (targetOfficeId == null) {
+            return ResponseEntity.badRequest().body("officeId is required");
+        }
+        boolean admin = "ADMIN".equals(currentUser.getRole().getName());
+        if (!admin && (userOfficeId == null || !officeHierarchy.isInSubtree(userOfficeId, targetOfficeId))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("You can only sync your own office and the offices below it");
+        }
+        return ResponseEntity.ok(changeLog.getChanges(targetOfficeId, Math.max(since, 0), limit));
+    }
+}
@@ -1,5 +1,6 @@
 package just.inventory.backend.controller;
 
+import just.inventory.backend.dto.UnitView;
 import just.inventory.backend.model.Unit;
 import just.inventory.backend.service.UnitService;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +22,8 @@ public class UnitController {
 
     @GetMapping
     @Operation(summary = "Get all units")
-    public ResponseEntity<List<Unit>> getAllUnits() {
-        List<Unit> units = unitService.getAllUnits();
+    public ResponseEntity<List<UnitView>> getAllUnits() {
+        List<UnitView> units = unitService.getAllUnits();
         return ResponseEntity.ok(units);
     }
 
@@ -1,6 +1,6 @@
 package just.inventory.backend.controller;
 
-import just.inventory.backend.model.User;
+import just.inventory.backend.dto.UserView;
 import just.inventory.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +14,9 @@ public class UserController {
     private UserRepository userRepository;
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserView> getUserById(@PathVariable Long id) {
         return userRepository.findById(id)
-                .map(user -> ResponseEntity.ok(user))
+                .map(user -> ResponseEntity.ok(UserView.of(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
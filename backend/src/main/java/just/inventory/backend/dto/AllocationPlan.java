@@ -0,0 +1,38 @@
+package just.inventory.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * How a parent office's available stock is (or was, when {@code executed}) shared out
+ * over its open approved requests. Lines are in priority order per item; a line with
+ * {@code allocated} 0 gets nothing this round. A previewed plan carries a {@code token}
+ * over its policy and lines, which executing it has to present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AllocationPlan(Long officeId, Policy policy, boolean executed, String token,
+                             long allocated, List<ItemAllocation> items, List<Line> lines) {
+
+    /**
+     * Who goes first when an item is short: the oldest requests, the smallest ones (most
+     * requests completed), or everyone in proportion to what they still need.
+     */
+    public enum Policy {
+        OLDEST_FIRST,
+        SMALLEST_FIRST,
+        PROPORTIONAL
+    }
+
+    public record ItemAllocation(Long itemId, String itemName, long available, long demanded, long allocated) {
+    }
+
+    /**
+     * {@code transactionIds} are the pending distributions created for the line, only
+     * set on an executed plan.
+     */
+    public record Line(Long requestId, Long requestingOfficeId, Long itemId, LocalDateTime requestedDate,
+                       long remaining, long allocated, List<Long> transactionIds) {
+    }
+}
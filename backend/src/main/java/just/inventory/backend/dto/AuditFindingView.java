@@ -0,0 +1,13 @@
+package just.inventory.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import just.inventory.backend.model.AuditSession;
+
+/**
+ * One discrepancy of a reconciled stock-take. {@code itemInstanceId}, {@code officeId}
+ * (where the instance is recorded) and {@code status} are absent for unknown barcodes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditFindingView(AuditSession.FindingKind kind, String barcode, Long itemInstanceId,
+                               Long officeId, String status) {
+}
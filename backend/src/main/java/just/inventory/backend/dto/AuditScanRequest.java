@@ -0,0 +1,11 @@
+package just.inventory.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AuditScanRequest {
+    // Any order; barcodes already received for the session are ignored
+    private List<String> barcodes;
+}
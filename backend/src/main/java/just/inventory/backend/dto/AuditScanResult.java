@@ -0,0 +1,8 @@
+package just.inventory.backend.dto;
+
+/**
+ * Outcome of one scan batch: {@code accepted} barcodes were new to the session,
+ * {@code scanned} is the session's running total of distinct barcodes.
+ */
+public record AuditScanResult(int received, int accepted, long scanned) {
+}
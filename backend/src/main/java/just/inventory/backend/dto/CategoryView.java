@@ -0,0 +1,10 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.Category;
+
+public record CategoryView(Long id, String name, String description) {
+
+    public static CategoryView of(Category category) {
+        return category == null ? null : new CategoryView(category.getId(), category.getName(), category.getDescription());
+    }
+}
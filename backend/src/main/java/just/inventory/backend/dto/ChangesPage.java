@@ -0,0 +1,19 @@
+package just.inventory.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of {@code /api/sync/changes}: the changes for an office after {@code since},
+ * oldest first. Pass {@code next} as {@code since} for the following page (or the next
+ * sync); {@code hasMore} says whether to ask again right away.
+ */
+public record ChangesPage(Long officeId, long since, long next, boolean hasMore, List<Change> changes) {
+
+    /**
+     * {@code action} is the new status, {@code CREATED}, or {@code REMOVED} for an instance
+     * that moved to another office; clients refetch the entity by id when they need it.
+     */
+    public record Change(long seq, String entity, Long id, String action, LocalDateTime at) {
+    }
+}
@@ -0,0 +1,7 @@
+package just.inventory.backend.dto;
+
+/**
+ * Inbox badge counts of the current user's office, for {@code /api/me/counters}.
+ */
+public record CountersView(long incoming, long approved, long fulfilled, long pendingDistributions) {
+}
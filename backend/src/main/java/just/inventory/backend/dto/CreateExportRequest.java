@@ -0,0 +1,11 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ExportJob;
+import lombok.Data;
+
+@Data
+public class CreateExportRequest {
+    private ExportJob.Type type;
+    // Purchase id for label exports, office id for the CSV exports
+    private Long targetId;
+}
@@ -0,0 +1,15 @@
+package just.inventory.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An item instance as embedded in requests and transactions; {@code item} is left out
+ * where the enclosing view already names the item.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InstanceRef(Long id, String barcode, NamedRef item) {
+
+    public static InstanceRef of(Long id, String barcode, NamedRef item) {
+        return id == null ? null : new InstanceRef(id, barcode, item);
+    }
+}
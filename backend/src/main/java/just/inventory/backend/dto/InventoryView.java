@@ -0,0 +1,25 @@
+package just.inventory.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import just.inventory.backend.model.ItemInstance;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventory header of an office: totals and per-status counts computed in the database,
+ * plus an optional window of instances when the caller asks for a page. The instance
+ * collection of the entity is never loaded.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InventoryView(
+        Long id,
+        OfficeRef office,
+        long totalItems,
+        double totalValue,
+        Map<ItemInstance.ItemStatus, Long> statusCounts,
+        InstancePage instances) {
+
+    public record InstancePage(int page, int size, long totalElements, int totalPages, List<ItemInstanceView> content) {
+    }
+}
@@ -0,0 +1,36 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ItemInstance;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an item instance for stock lists: the item with its category and unit,
+ * and the owning office, without the inventory or transaction graph.
+ */
+public record ItemInstanceView(
+        Long id,
+        String barcode,
+        ItemRef item,
+        OfficeRef ownerOffice,
+        ItemInstance.ItemStatus status,
+        String serialNumber,
+        LocalDateTime purchaseDate,
+        Double purchasePrice,
+        LocalDateTime warrantyExpiry,
+        String remarks,
+        LocalDateTime createdAt) {
+
+    public ItemInstanceView(Long id, String barcode,
+                            Long itemId, String itemName, String itemDescription,
+                            Long categoryId, String categoryName, Long unitId, String unitName,
+                            Long ownerOfficeId, String ownerOfficeName, String ownerOfficeCode,
+                            ItemInstance.ItemStatus status, String serialNumber,
+                            LocalDateTime purchaseDate, Double purchasePrice, LocalDateTime warrantyExpiry,
+                            String remarks, LocalDateTime createdAt) {
+        this(id, barcode,
+                new ItemRef(itemId, itemName, itemDescription, NamedRef.of(categoryId, categoryName), NamedRef.of(unitId, unitName)),
+                OfficeRef.of(ownerOfficeId, ownerOfficeName, ownerOfficeCode),
+                status, serialNumber, purchaseDate, purchasePrice, warrantyExpiry, remarks, createdAt);
+    }
+}
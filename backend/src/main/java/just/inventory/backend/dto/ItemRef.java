@@ -0,0 +1,4 @@
+package just.inventory.backend.dto;
+
+public record ItemRef(Long id, String name, String description, NamedRef category, NamedRef unit) {
+}
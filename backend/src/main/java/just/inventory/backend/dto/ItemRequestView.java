@@ -0,0 +1,76 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ItemRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an item request for list endpoints. Keeps the JSON shape of the entity
+ * for the fields clients use, with referenced offices, users and items reduced to refs.
+ *
+ * The flat constructor is the target of the JPQL constructor expression in
+ * {@code ItemRequestRepository.VIEW_SELECT}, so a whole list is one query.
+ */
+public record ItemRequestView(
+        Long id,
+        NamedRef item,
+        OfficeRef requestingOffice,
+        OfficeRef parentOffice,
+        UserRef requestedBy,
+        UserRef approvedBy,
+        UserRef confirmedBy,
+        InstanceRef fulfilledItemInstance,
+        Double requestedQuantity,
+        Double approvedQuantity,
+        Double fulfilledQuantity,
+        ItemRequest.RequestStatus status,
+        String reason,
+        String remarks,
+        String confirmationRemarks,
+        LocalDateTime requestedDate,
+        LocalDateTime approvedDate,
+        LocalDateTime rejectedDate,
+        LocalDateTime fulfilledDate,
+        LocalDateTime confirmedDate) {
+
+    public ItemRequestView(Long id,
+                           Long itemId, String itemName,
+                           Long requestingOfficeId, String requestingOfficeName, String requestingOfficeCode,
+                           Long parentOfficeId, String parentOfficeName, String parentOfficeCode,
+                           Long requestedById, String requestedByUsername, String requestedByName,
+                           Long approvedById, String approvedByUsername, String approvedByName,
+                           Long confirmedById, String confirmedByUsername, String confirmedByName,
+                           Long fulfilledInstanceId, String fulfilledInstanceBarcode,
+                           Double requestedQuantity, Double approvedQuantity, Double fulfilledQuantity,
+                           ItemRequest.RequestStatus status, String reason, String remarks, String confirmationRemarks,
+                           LocalDateTime requestedDate, LocalDateTime approvedDate, LocalDateTime rejectedDate,
+                           LocalDateTime fulfilledDate, LocalDateTime confirmedDate) {
+        this(id,
+                NamedRef.of(itemId, itemName),
+                OfficeRef.of(requestingOfficeId, requestingOfficeName, requestingOfficeCode),
+                OfficeRef.of(parentOfficeId, parentOfficeName, parentOfficeCode),
+                UserRef.of(requestedById, requestedByUsername, requestedByName),
+                UserRef.of(approvedById, approvedByUsername, approvedByName),
+                UserRef.of(confirmedById, confirmedByUsername, confirmedByName),
+                InstanceRef.of(fulfilledInstanceId, fulfilledInstanceBarcode, null),
+                requestedQuantity, approvedQuantity, fulfilledQuantity,
+                status, reason, remarks, confirmationRemarks,
+                requestedDate, approvedDate, rejectedDate, fulfilledDate, confirmedDate);
+    }
+
+    public static ItemRequestView of(ItemRequest request) {
+        return new ItemRequestView(request.getId(),
+                NamedRef.of(request.getItem().getId(), request.getItem().getName()),
+                OfficeRef.of(request.getRequestingOffice()),
+                OfficeRef.of(request.getParentOffice()),
+                UserRef.of(request.getRequestedBy()),
+                UserRef.of(request.getApprovedBy()),
+                UserRef.of(request.getConfirmedBy()),
+                request.getFulfilledItemInstance() == null ? null
+                        : InstanceRef.of(request.getFulfilledItemInstance().getId(), request.getFulfilledItemInstance().getBarcode(), null),
+                request.getRequestedQuantity(), request.getApprovedQuantity(), request.getFulfilledQuantity(),
+                request.getStatus(), request.getReason(), request.getRemarks(), request.getConfirmationRemarks(),
+                request.getRequestedDate(), request.getApprovedDate(), request.getRejectedDate(),
+                request.getFulfilledDate(), request.getConfirmedDate());
+    }
+}
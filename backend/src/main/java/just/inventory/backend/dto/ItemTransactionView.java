@@ -0,0 +1,45 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ItemTransaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an item transaction for the distribution history endpoints. The linked
+ * request is reduced to its id; the instance carries its barcode and item.
+ */
+public record ItemTransactionView(
+        Long id,
+        InstanceRef itemInstance,
+        OfficeRef fromOffice,
+        OfficeRef toOffice,
+        Long itemRequestId,
+        UserRef user,
+        UserRef confirmedBy,
+        ItemTransaction.TransactionType transactionType,
+        ItemTransaction.TransactionStatus status,
+        Double quantity,
+        String remarks,
+        LocalDateTime transactionDate,
+        LocalDateTime confirmedDate) {
+
+    public ItemTransactionView(Long id,
+                               Long instanceId, String instanceBarcode, Long itemId, String itemName,
+                               Long fromOfficeId, String fromOfficeName, String fromOfficeCode,
+                               Long toOfficeId, String toOfficeName, String toOfficeCode,
+                               Long itemRequestId,
+                               Long userId, String userUsername, String userName,
+                               Long confirmedById, String confirmedByUsername, String confirmedByName,
+                               ItemTransaction.TransactionType transactionType, ItemTransaction.TransactionStatus status,
+                               Double quantity, String remarks,
+                               LocalDateTime transactionDate, LocalDateTime confirmedDate) {
+        this(id,
+                InstanceRef.of(instanceId, instanceBarcode, NamedRef.of(itemId, itemName)),
+                OfficeRef.of(fromOfficeId, fromOfficeName, fromOfficeCode),
+                OfficeRef.of(toOfficeId, toOfficeName, toOfficeCode),
+                itemRequestId,
+                UserRef.of(userId, userUsername, userName),
+                UserRef.of(confirmedById, confirmedByUsername, confirmedByName),
+                transactionType, status, quantity, remarks, transactionDate, confirmedDate);
+    }
+}
@@ -0,0 +1,15 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.Item;
+
+/**
+ * A catalogue item with its category and unit, as listed and searched; same JSON as the
+ * entity without its instance collection behind it.
+ */
+public record ItemView(Long id, String name, String description, CategoryView category, UnitView unit) {
+
+    public static ItemView of(Item item) {
+        return new ItemView(item.getId(), item.getName(), item.getDescription(),
+                CategoryView.of(item.getCategory()), UnitView.of(item.getUnit()));
+    }
+}
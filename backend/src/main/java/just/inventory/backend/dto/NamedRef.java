@@ -0,0 +1,11 @@
+package just.inventory.backend.dto;
+
+/**
+ * Id and name of a referenced entity (item, category, unit) inside a read model.
+ */
+public record NamedRef(Long id, String name) {
+
+    public static NamedRef of(Long id, String name) {
+        return id == null ? null : new NamedRef(id, name);
+    }
+}
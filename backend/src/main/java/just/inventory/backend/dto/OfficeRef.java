@@ -0,0 +1,14 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.Office;
+
+public record OfficeRef(Long id, String name, String code) {
+
+    public static OfficeRef of(Long id, String name, String code) {
+        return id == null ? null : new OfficeRef(id, name, code);
+    }
+
+    public static OfficeRef of(Office office) {
+        return office == null ? null : new OfficeRef(office.getId(), office.getName(), office.getCode());
+    }
+}
@@ -0,0 +1,17 @@
+package just.inventory.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class OfficeTreeNode {
+    private Long id;
+    private String name;
+    private String nameBn;
+    private String type;
+    private String code;
+    private Integer order;
+    private Boolean isActive;
+    private Integer depth;
+    private List<OfficeTreeNode> children;
+}
@@ -0,0 +1,16 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.Office;
+
+/**
+ * An office as listed; the parent is reduced to a reference instead of the whole
+ * parent entity.
+ */
+public record OfficeView(Long id, String name, String nameBn, String type, String code, String description,
+                         Integer order, Boolean isActive, OfficeRef parent) {
+
+    public static OfficeView of(Office office) {
+        return new OfficeView(office.getId(), office.getName(), office.getNameBn(), office.getType(), office.getCode(),
+                office.getDescription(), office.getOrder(), office.getIsActive(), OfficeRef.of(office.getParent()));
+    }
+}
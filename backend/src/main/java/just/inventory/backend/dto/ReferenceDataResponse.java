@@ -0,0 +1,13 @@
+package just.inventory.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class ReferenceDataResponse {
+    private Long version;
+    private List<ItemView> items;
+    private List<CategoryView> categories;
+    private List<UnitView> units;
+    private List<OfficeView> offices;
+}
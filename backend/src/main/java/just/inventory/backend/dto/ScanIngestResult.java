@@ -0,0 +1,20 @@
+package just.inventory.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Bulk acknowledgement of a scan upload. Every accepted scan is stored; when
+ * {@code error} is set the upload stopped at record {@code received} and the client
+ * should resend from there.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ScanIngestResult(long received, long accepted, long rejected, List<Rejection> rejections, String error) {
+
+    /**
+     * {@code index} is the 0-based position of the record in the upload.
+     */
+    public record Rejection(long index, String barcode, String reason) {
+    }
+}
@@ -0,0 +1,8 @@
+package just.inventory.backend.dto;
+
+/**
+ * One line of an NDJSON scan upload. {@code timestamp} is epoch milliseconds on the
+ * device (defaults to the time of receipt), {@code action} defaults to SEEN.
+ */
+public record ScanRecord(String barcode, Long timestamp, String deviceId, String action) {
+}
@@ -0,0 +1,15 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ItemInstance;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class StatusChangeRequest {
+    private ItemInstance.ItemStatus status;
+    // Either or both; an instance named twice is changed once
+    private List<String> barcodes;
+    private List<Long> instanceIds;
+    private String remarks;
+}
@@ -0,0 +1,18 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.ItemInstance;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status change: {@code changed} instances moved to {@code status},
+ * every other requested barcode or id is listed in {@code rejections}.
+ */
+public record StatusChangeResult(ItemInstance.ItemStatus status, int requested, int changed, List<Rejection> rejections) {
+
+    /**
+     * {@code instanceId} and {@code currentStatus} are null when nothing matched the reference.
+     */
+    public record Rejection(String reference, Long instanceId, ItemInstance.ItemStatus currentStatus, String reason) {
+    }
+}
@@ -0,0 +1,10 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.Unit;
+
+public record UnitView(Long id, String name, String description) {
+
+    public static UnitView of(Unit unit) {
+        return unit == null ? null : new UnitView(unit.getId(), unit.getName(), unit.getDescription());
+    }
+}
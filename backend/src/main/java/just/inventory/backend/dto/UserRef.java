@@ -0,0 +1,18 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.User;
+
+/**
+ * A user as embedded in other read models; {@code name} is the full name, as in the
+ * {@link User} entity's JSON.
+ */
+public record UserRef(Long id, String username, String name) {
+
+    public static UserRef of(Long id, String username, String name) {
+        return id == null ? null : new UserRef(id, username, name);
+    }
+
+    public static UserRef of(User user) {
+        return user == null ? null : new UserRef(user.getId(), user.getUsername(), user.getFullName());
+    }
+}
@@ -0,0 +1,14 @@
+package just.inventory.backend.dto;
+
+import just.inventory.backend.model.User;
+
+/**
+ * Public profile of a user; never carries the password hash.
+ */
+public record UserView(Long id, String name, String username, String email, String role, OfficeRef office) {
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getFullName(), user.getUsername(), user.getEmail(),
+                user.getRoleName(), OfficeRef.of(user.getOffice()));
+    }
+}
@@ -0,0 +1,69 @@
+package just.inventory.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stock-take of one office. Scanned barcodes are collected in {@code audit_scans}
+ * while the session is OPEN; reconciling compares them with the office's instances,
+ * stores the discrepancies in {@code audit_findings} and fills in the counts.
+ */
+@Entity
+@Table(name = "audit_sessions")
+@Data
+@NoArgsConstructor
+public class AuditSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "office_id", nullable = false)
+    private Long officeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "opened_by_user_id", nullable = false)
+    private Long openedById;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime openedAt;
+
+    private LocalDateTime closedAt;
+
+    // Set by the reconciliation
+    private Long expectedCount;
+
+    private Long scannedCount;
+
+    private Long missingCount;
+
+    private Long unexpectedCount;
+
+    private Long wrongOfficeCount;
+
+    private Long wrongStatusCount;
+
+    @PrePersist
+    protected void onCreate() {
+        openedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        OPEN,
+        RECONCILED,
+        CANCELLED
+    }
+
+    public enum FindingKind {
+        MISSING,        // Expected in the office but not scanned
+        UNEXPECTED,     // Scanned but no instance has this barcode
+        WRONG_OFFICE,   // Scanned here but recorded in another office
+        WRONG_STATUS    // Scanned here but recorded as lost or disposed
+    }
+}
@@ -0,0 +1,83 @@
+package just.inventory.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A background export. The row is the queue entry, the progress report and the
+ * pointer to the finished artifact in the shared export directory.
+ */
+@Entity
+@Table(name = "export_jobs")
+@Data
+@NoArgsConstructor
+public class ExportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Bumped by the claim and the stale re-queue too, so a worker cannot finish a job it lost
+    @Version
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Office or purchase id, depending on the type
+    private Long targetId;
+
+    @Column(name = "requested_by_user_id", nullable = false)
+    private Long requestedById;
+
+    @Column(nullable = false)
+    private Long progress = 0L;
+
+    private Long total;
+
+    private String fileName;
+
+    private String contentType;
+
+    private Long fileSize;
+
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum Type {
+        PURCHASE_LABELS_PDF,    // Labels for every instance created by a purchase (target: purchase)
+        INVENTORY_CSV,          // Stock of an office and its sub-offices (target: office)
+        TRANSACTION_AUDIT_CSV   // Transactions in or out of an office and its sub-offices (target: office)
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        EXPIRED     // Artifact removed by the retention sweep
+    }
+}
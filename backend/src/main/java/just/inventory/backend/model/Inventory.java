@@ -3,7 +3,9 @@ package just.inventory.backend.model;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 
@@ -22,6 +24,10 @@ public class Inventory {
     @JsonIgnore
     private Office office;
 
+    // Can hold an office's entire stock; read it through the paged views instead
     @OneToMany(mappedBy = "inventory", cascade = CascadeType.ALL)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<ItemInstance> itemInstances;
 }
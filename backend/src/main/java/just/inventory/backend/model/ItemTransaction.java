@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
@@ -17,6 +18,10 @@ public class ItemTransaction {
     @Schema(hidden = true)
     private Long id;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "item_instance_id", nullable = false)
     private ItemInstance itemInstance;
@@ -59,6 +64,9 @@ public class ItemTransaction {
     @Column(nullable = false, updatable = false)
     private LocalDateTime transactionDate;
 
+    // Pending distributions release their instance after this (see ReservationSweeper)
+    private LocalDateTime expiresAt;
+
     @PrePersist
     protected void onCreate() {
         transactionDate = LocalDateTime.now();
@@ -81,6 +89,7 @@ public class ItemTransaction {
         PENDING,       // Awaiting confirmation from receiving office
         CONFIRMED,     // Confirmed and completed
         REJECTED,      // Rejected by receiving office
-        CANCELLED      // Cancelled by sending office
+        CANCELLED,     // Cancelled by sending office
+        EXPIRED        // Not confirmed before the reservation expired
     }
 }
@@ -22,7 +22,9 @@ public class User {
     @Column(nullable = false, unique = true)
     private String username;
 
+    // Accepted on writes (e.g. the data REST endpoints) but never serialized
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,16 @@
+package just.inventory.backend.repository;
+
+import just.inventory.backend.model.AuditSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AuditSessionRepository extends JpaRepository<AuditSession, Long> {
+
+    Optional<AuditSession> findByOfficeIdAndStatus(Long officeId, AuditSession.Status status);
+
+    List<AuditSession> findByOfficeIdOrderByOpenedAtDesc(Long officeId);
+}
@@ -0,0 +1,49 @@
+package just.inventory.backend.repository;
+
+import just.inventory.backend.model.ExportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+
+    List<ExportJob> findByRequestedByIdOrderByCreatedAtDesc(Long requestedById);
+
+    @Query("SELECT j.id FROM ExportJob j WHERE j.status = :status ORDER BY j.createdAt")
+    List<Long> findIdsByStatus(@Param("status") ExportJob.Status status);
+
+    List<ExportJob> findByStatusAndExpiresAtBefore(ExportJob.Status status, LocalDateTime before);
+
+    /**
+     * Moves a queued job to RUNNING; returns 0 if another worker got there first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.status = :running, j.startedAt = :now, j.updatedAt = :now, " +
+            "j.version = j.version + 1 WHERE j.id = :id AND j.status = :queued")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now,
+              @Param("queued") ExportJob.Status queued, @Param("running") ExportJob.Status running);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.progress = :progress, j.total = :total, j.updatedAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("progress") long progress, @Param("total") Long total,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Re-queues running jobs whose worker stopped sending heartbeats.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.status = :queued, j.version = j.version + 1 " +
+            "WHERE j.status = :running AND j.updatedAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("running") ExportJob.Status running, @Param("queued") ExportJob.Status queued);
+}
@@ -2,12 +2,30 @@ package just.inventory.backend.repository;
 
 import just.inventory.backend.model.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import java.util.Optional;
 
 @RepositoryRestResource
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     Optional<Inventory> findByOfficeId(Long officeId);
-    
+
+    /**
+     * Inventory id and office name without loading either entity (and so without the
+     * office's eager associations or the inventory's instance collection).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT inv.id AS inventoryId, o.id AS officeId, o.name AS officeName, o.code AS officeCode " +
+            "FROM Inventory inv JOIN inv.office o WHERE o.id = :officeId")
+    Optional<HeaderRow> findHeaderByOfficeId(@Param("officeId") Long officeId);
+
+    interface HeaderRow {
+        Long getInventoryId();
+        Long getOfficeId();
+        String getOfficeName();
+        String getOfficeCode();
+    }
 }
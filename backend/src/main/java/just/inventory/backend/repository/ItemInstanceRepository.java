@@ -1,9 +1,14 @@
 package just.inventory.backend.repository;
 
+import just.inventory.backend.dto.ItemInstanceView;
 import just.inventory.backend.model.ItemInstance;
 import just.inventory.backend.model.ItemInstance.ItemStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +38,56 @@ public interface ItemInstanceRepository extends JpaRepository<ItemInstance, Long
     Long countByItemIdAndInventoryId(Long itemId, Long inventoryId);
     
     Long countByOwnerOfficeIdAndStatus(Long officeId, ItemStatus status);
+
+    /**
+     * Item/status counts and purchase value for an office and all of its descendants,
+     * resolved through the office_closure table in a single grouped query.
+     */
+    @RestResource(exported = false)
+    @Query(value = "SELECT ii.item_id AS \"itemId\", i.name AS \"itemName\", ii.status AS \"status\", " +
+            "COUNT(*) AS \"quantity\", COALESCE(SUM(ii.purchase_price), 0) AS \"totalValue\" " +
+            "FROM office_closure c " +
+            "JOIN item_instances ii ON ii.owner_office_id = c.descendant_id " +
+            "JOIN items i ON i.id = ii.item_id " +
+            "WHERE c.ancestor_id = :officeId " +
+            "GROUP BY ii.item_id, i.name, ii.status", nativeQuery = true)
+    List<RollupRow> rollupBySubtree(@Param("officeId") Long officeId);
+
+    // Read model for stock lists: one query, category and unit outer-joined
+    String VIEW_SELECT = "SELECT new just.inventory.backend.dto.ItemInstanceView(ii.id, ii.barcode, " +
+            "i.id, i.name, i.description, c.id, c.name, un.id, un.name, " +
+            "o.id, o.name, o.code, " +
+            "ii.status, ii.serialNumber, ii.purchaseDate, ii.purchasePrice, ii.warrantyExpiry, ii.remarks, ii.createdAt) " +
+            "FROM ItemInstance ii " +
+            "JOIN ii.item i JOIN ii.ownerOffice o LEFT JOIN i.category c LEFT JOIN i.unit un ";
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ii.inventory.office.id = :officeId ORDER BY i.name, ii.id")
+    List<ItemInstanceView> findViewsByInventoryOfficeId(@Param("officeId") Long officeId);
+
+    /**
+     * One window of an inventory's instances; no count query, the caller already has the total.
+     */
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ii.inventory.id = :inventoryId ORDER BY i.name, ii.id")
+    List<ItemInstanceView> findViewsByInventoryId(@Param("inventoryId") Long inventoryId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("SELECT ii.status AS status, COUNT(ii) AS quantity, COALESCE(SUM(ii.purchasePrice), 0) AS totalValue " +
+            "FROM ItemInstance ii WHERE ii.inventory.id = :inventoryId GROUP BY ii.status")
+    List<StatusCountRow> countByInventoryIdGroupByStatus(@Param("inventoryId") Long inventoryId);
+
+    interface StatusCountRow {
+        ItemStatus getStatus();
+        Long getQuantity();
+        Double getTotalValue();
+    }
+
+    interface RollupRow {
+        Long getItemId();
+        String getItemName();
+        String getStatus();
+        Long getQuantity();
+        Double getTotalValue();
+    }
 }
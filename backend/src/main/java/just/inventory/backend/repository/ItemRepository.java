@@ -1,11 +1,44 @@
 package just.inventory.backend.repository;
 
 import just.inventory.backend.model.Item;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.List;
 
 @RepositoryRestResource
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    
-}
\ No newline at end of file
+    /**
+     * Category and unit come in the same query; without the graph each distinct one is a
+     * separate select after the item list.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "unit"})
+    List<Item> findAll();
+
+    /**
+     * Ranked catalogue search backed by the pg_trgm GIN indexes on name and description.
+     * Matches substrings (pattern is an escaped ILIKE pattern) and near-misses (trigram
+     * similarity); name matches outrank description matches.
+     */
+    @RestResource(exported = false)
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE (i.name ILIKE :pattern OR i.description ILIKE :pattern OR i.name % :query) " +
+            "AND (CAST(:categoryId AS BIGINT) IS NULL OR i.category_id = :categoryId) " +
+            "AND (CAST(:unitId AS BIGINT) IS NULL OR i.unit_id = :unitId) " +
+            "ORDER BY (i.name ILIKE :prefix) DESC, " +
+            "GREATEST(similarity(i.name, :query), similarity(COALESCE(i.description, ''), :query) * 0.5) DESC, " +
+            "i.name " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Item> search(@Param("query") String query,
+                      @Param("pattern") String pattern,
+                      @Param("prefix") String prefix,
+                      @Param("categoryId") Long categoryId,
+                      @Param("unitId") Long unitId,
+                      @Param("limit") int limit);
+}
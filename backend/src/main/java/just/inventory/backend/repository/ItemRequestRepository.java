@@ -1,9 +1,14 @@
 package just.inventory.backend.repository;
 
+import just.inventory.backend.dto.ItemRequestView;
 import just.inventory.backend.model.ItemRequest;
 import just.inventory.backend.model.ItemRequest.RequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+import java.util.Collection;
 import java.util.List;
 
 @RepositoryRestResource
@@ -20,4 +25,34 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findByParentOfficeIdAndStatus(Long officeId, RequestStatus status);
     
     List<ItemRequest> findByRequestingOfficeIdAndStatus(Long officeId, RequestStatus status);
+
+    // Read models for the list endpoints: one query per list, optional references outer-joined
+    String VIEW_SELECT = "SELECT new just.inventory.backend.dto.ItemRequestView(r.id, " +
+            "i.id, i.name, ro.id, ro.name, ro.code, po.id, po.name, po.code, " +
+            "rb.id, rb.username, rb.fullName, ab.id, ab.username, ab.fullName, cb.id, cb.username, cb.fullName, " +
+            "fi.id, fi.barcode, " +
+            "r.requestedQuantity, r.approvedQuantity, r.fulfilledQuantity, " +
+            "r.status, r.reason, r.remarks, r.confirmationRemarks, " +
+            "r.requestedDate, r.approvedDate, r.rejectedDate, r.fulfilledDate, r.confirmedDate) " +
+            "FROM ItemRequest r " +
+            "JOIN r.item i JOIN r.requestingOffice ro JOIN r.parentOffice po JOIN r.requestedBy rb " +
+            "LEFT JOIN r.approvedBy ab LEFT JOIN r.confirmedBy cb LEFT JOIN r.fulfilledItemInstance fi ";
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ro.id = :officeId ORDER BY r.requestedDate DESC")
+    List<ItemRequestView> findViewsByRequestingOfficeId(@Param("officeId") Long officeId);
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ro.id = :officeId AND r.status IN :statuses ORDER BY r.requestedDate DESC")
+    List<ItemRequestView> findViewsByRequestingOfficeIdAndStatusIn(@Param("officeId") Long officeId,
+                                                                    @Param("statuses") Collection<RequestStatus> statuses);
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE po.id = :officeId AND r.status = :status ORDER BY r.requestedDate DESC")
+    List<ItemRequestView> findViewsByParentOfficeIdAndStatus(@Param("officeId") Long officeId,
+                                                             @Param("status") RequestStatus status);
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ro.id = :officeId OR po.id = :officeId ORDER BY r.requestedDate DESC")
+    List<ItemRequestView> findViewsByOfficeId(@Param("officeId") Long officeId);
 }
@@ -1,8 +1,12 @@
 package just.inventory.backend.repository;
 
+import just.inventory.backend.dto.ItemTransactionView;
 import just.inventory.backend.model.ItemTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import java.util.List;
 
 @RepositoryRestResource
@@ -25,4 +29,30 @@ public interface ItemTransactionRepository extends JpaRepository<ItemTransaction
     List<ItemTransaction> findByFromOfficeIdAndStatus(Long fromOfficeId, ItemTransaction.TransactionStatus status);
     
     List<ItemTransaction> findByItemRequestId(Long itemRequestId);
+
+    // Read models for the history endpoints: one query per list, optional references outer-joined
+    String VIEW_SELECT = "SELECT new just.inventory.backend.dto.ItemTransactionView(t.id, " +
+            "ii.id, ii.barcode, i.id, i.name, " +
+            "fo.id, fo.name, fo.code, tof.id, tof.name, tof.code, " +
+            "t.itemRequest.id, " +
+            "u.id, u.username, u.fullName, cb.id, cb.username, cb.fullName, " +
+            "t.transactionType, t.status, t.quantity, t.remarks, t.transactionDate, t.confirmedDate) " +
+            "FROM ItemTransaction t " +
+            "JOIN t.itemInstance ii JOIN ii.item i JOIN t.user u " +
+            "LEFT JOIN t.fromOffice fo LEFT JOIN t.toOffice tof LEFT JOIN t.confirmedBy cb ";
+
+    // Includes the status-change audit rows, which are recorded from and to the owning office
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE (fo.id = :officeId OR tof.id = :officeId) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<ItemTransactionView> findViewsByOfficeId(@Param("officeId") Long officeId);
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE ii.id = :itemInstanceId ORDER BY t.transactionDate, t.id")
+    List<ItemTransactionView> findViewsByItemInstanceId(@Param("itemInstanceId") Long itemInstanceId);
+
+    @RestResource(exported = false)
+    @Query(VIEW_SELECT + "WHERE tof.id = :officeId AND t.status = :status ORDER BY t.transactionDate, t.id")
+    List<ItemTransactionView> findViewsByToOfficeIdAndStatus(@Param("officeId") Long officeId,
+                                                             @Param("status") ItemTransaction.TransactionStatus status);
 }
@@ -2,10 +2,63 @@ package just.inventory.backend.repository;
 
 import just.inventory.backend.model.Office;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import java.util.List;
 
 @RepositoryRestResource
 public interface OfficeRepository extends JpaRepository<Office, Long> {
     List<Office> findByParentId(Long parentId);
-} 
\ No newline at end of file
+
+    // Read-only over REST: writes go through OfficeService, which maintains office_closure and the caches
+
+    @Override
+    @RestResource(exported = false)
+    <S extends Office> S save(S entity);
+
+    @Override
+    @RestResource(exported = false)
+    void deleteById(Long id);
+
+    @Override
+    @RestResource(exported = false)
+    void delete(Office entity);
+
+    // Closure table maintenance (office_closure holds every ancestor/descendant pair, self included)
+
+    @Modifying
+    @RestResource(exported = false)
+    @Query(value = "INSERT INTO office_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestor_id, :officeId, depth + 1 FROM office_closure WHERE descendant_id = :parentId " +
+            "UNION ALL SELECT :officeId, :officeId, 0", nativeQuery = true)
+    void insertClosure(@Param("officeId") Long officeId, @Param("parentId") Long parentId);
+
+    /**
+     * Detach a subtree from all of its former ancestors, keeping the links inside the subtree.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query(value = "DELETE FROM office_closure " +
+            "WHERE descendant_id IN (SELECT descendant_id FROM office_closure WHERE ancestor_id = :officeId) " +
+            "AND ancestor_id NOT IN (SELECT descendant_id FROM office_closure WHERE ancestor_id = :officeId)",
+            nativeQuery = true)
+    void detachClosureSubtree(@Param("officeId") Long officeId);
+
+    /**
+     * Link every node of a detached subtree to the new parent and all of its ancestors.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query(value = "INSERT INTO office_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 " +
+            "FROM office_closure above CROSS JOIN office_closure below " +
+            "WHERE above.descendant_id = :parentId AND below.ancestor_id = :officeId", nativeQuery = true)
+    void attachClosureSubtree(@Param("officeId") Long officeId, @Param("parentId") Long parentId);
+
+    @RestResource(exported = false)
+    @Query(value = "SELECT descendant_id FROM office_closure WHERE ancestor_id = :officeId", nativeQuery = true)
+    List<Long> findSubtreeIds(@Param("officeId") Long officeId);
+}
@@ -0,0 +1,341 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import just.inventory.backend.dto.AllocationPlan;
+import just.inventory.backend.dto.AllocationPlan.Policy;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.ItemTransaction;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.ItemRequestRepository;
+import just.inventory.backend.repository.ItemTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fulfils all open approved requests of a parent office in one go instead of one
+ * {@code /fulfill} call (and one stock scan) per request.
+ *
+ * Planning reads the open requests and the available stock per item with two queries
+ * and shares each item out in memory according to a {@link Policy}. The preview hands
+ * out a token over the plan's lines; executing re-plans with the requests locked and
+ * only goes ahead if the token still matches, so what is carried out is exactly what
+ * was previewed. It then reserves the instances with one set-based update per plan
+ * (failing if a concurrent distribution took some of them), inserts all pending
+ * distributions with one statement and bumps the fulfilled quantities with another,
+ * all in one transaction.
+ */
+@Service
+public class AllocationPlanner {
+
+    private static final int MAX_REMARKS_LENGTH = 500;
+
+    private static final String REQUESTS_SQL = "SELECT r.id, r.item_id, i.name AS item_name, r.requesting_office_id, " +
+            "r.approved_quantity, COALESCE(r.fulfilled_quantity, 0) AS fulfilled_quantity, r.status, r.requested_date, r.reason " +
+            "FROM item_requests r JOIN items i ON i.id = r.item_id " +
+            "WHERE r.parent_office_id = ? AND r.status IN ('APPROVED', 'PARTIALLY_FULFILLED') AND r.approved_quantity IS NOT NULL " +
+            "ORDER BY r.id";
+
+    private static final String AVAILABLE_SQL = "SELECT item_id, COUNT(*) AS n FROM item_instances " +
+            "WHERE owner_office_id = ? AND status = 'AVAILABLE' AND item_id = ANY(?::bigint[]) GROUP BY item_id";
+
+    // Up to n available instances per item, skipping those a concurrent distribution is reserving
+    private static final String RESERVE_SQL = "WITH picked AS (" +
+            "  SELECT p.id FROM unnest(?::bigint[], ?::int[]) AS w(item_id, n) " +
+            "  CROSS JOIN LATERAL (SELECT ii.id FROM item_instances ii " +
+            "    WHERE ii.owner_office_id = ? AND ii.item_id = w.item_id AND ii.status = 'AVAILABLE' " +
+            "    ORDER BY ii.id LIMIT w.n FOR UPDATE SKIP LOCKED) p" +
+            ") " +
+            "UPDATE item_instances ii SET status = 'IN_USE', version = ii.version + 1 FROM picked " +
+            "WHERE ii.id = picked.id RETURNING ii.id, ii.item_id";
+
+    private static final String DISTRIBUTE_SQL = "INSERT INTO item_transactions (item_instance_id, from_office_id, to_office_id, " +
+            "item_request_id, user_id, transaction_type, status, quantity, remarks, transaction_date, expires_at, version) " +
+            "SELECT x.instance_id, ?, x.to_office_id, x.request_id, ?, 'DISTRIBUTION', 'PENDING', 1, x.remarks, ?, ?, 0 " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::varchar[]) AS x(instance_id, request_id, to_office_id, remarks) " +
+            "RETURNING id, item_request_id";
+
+    private static final String FULFIL_SQL = "UPDATE item_requests r SET " +
+            "fulfilled_quantity = COALESCE(r.fulfilled_quantity, 0) + x.quantity, " +
+            "status = CASE WHEN COALESCE(r.fulfilled_quantity, 0) + x.quantity >= r.approved_quantity " +
+            "  THEN 'FULFILLED' ELSE 'PARTIALLY_FULFILLED' END, " +
+            "fulfilled_date = ?, version = r.version + 1 " +
+            "FROM unnest(?::bigint[], ?::int[]) AS x(id, quantity) WHERE r.id = x.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemTransactionRepository itemTransactionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.allocation.policy:OLDEST_FIRST}")
+    private Policy defaultPolicy;
+
+    @Value("${app.reservations.ttl:72h}")
+    private Duration reservationTtl;
+
+    @Timed(value = "inventory.allocation", extraTags = {"operation", "preview"})
+    @Transactional(readOnly = true)
+    public AllocationPlan preview(Long officeId, Policy policy) {
+        Policy effective = policy != null ? policy : defaultPolicy;
+        return toPlan(officeId, effective, false, draft(officeId, effective, REQUESTS_SQL), Map.of());
+    }
+
+    /**
+     * Carries out the previewed plan with the given {@code token}; returns the plan as
+     * executed, with the pending distributions created per request. Throws
+     * {@link PlanChangedException} if the requests or stock no longer give that plan.
+     */
+    @Timed(value = "inventory.allocation", extraTags = {"operation", "execute"})
+    @Transactional
+    public AllocationPlan execute(Long officeId, Policy policy, String token, User fulfilledBy) {
+        Policy effective = policy != null ? policy : defaultPolicy;
+        // A concurrent /fulfill of one of these requests waits, then fails its version check and retries
+        List<ItemDraft> drafts = draft(officeId, effective, REQUESTS_SQL + " FOR UPDATE OF r");
+        if (!token(effective, drafts).equals(token)) {
+            throw new PlanChangedException("The allocation plan has changed since it was previewed");
+        }
+
+        List<Long> wantedItems = new ArrayList<>();
+        List<Integer> wantedCounts = new ArrayList<>();
+        for (ItemDraft draft : drafts) {
+            long total = draft.allocated();
+            if (total > 0) {
+                wantedItems.add(draft.itemId);
+                wantedCounts.add((int) total);
+            }
+        }
+        if (wantedItems.isEmpty()) {
+            return toPlan(officeId, effective, true, drafts, Map.of());
+        }
+
+        Map<Long, Deque<Long>> reserved = new HashMap<>();
+        jdbcTemplate.query(RESERVE_SQL, rs -> {
+            reserved.computeIfAbsent(rs.getLong("item_id"), id -> new ArrayDeque<>()).add(rs.getLong("id"));
+        }, wantedItems.toArray(new Long[0]), wantedCounts.toArray(new Integer[0]), officeId);
+
+        List<Long> instanceIds = new ArrayList<>();
+        List<Long> requestIds = new ArrayList<>();
+        List<Long> toOffices = new ArrayList<>();
+        List<String> remarks = new ArrayList<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Map<Long, ItemRequest.RequestStatus> previous = new HashMap<>();
+        for (ItemDraft draft : drafts) {
+            Deque<Long> stock = reserved.getOrDefault(draft.itemId, new ArrayDeque<>());
+            if (stock.size() < draft.allocated()) {
+                // Some of the counted stock went to a concurrent distribution; rolls back the reservations
+                throw new PlanChangedException("Not enough " + draft.itemName + " left to execute the plan");
+            }
+            for (int i = 0; i < draft.queue.size(); i++) {
+                long share = draft.shares[i];
+                if (share == 0) {
+                    continue;
+                }
+                Demand demand = draft.queue.get(i);
+                String remark = "Fulfilling request #" + demand.requestId() + " (" + share + " of " + demand.approved() +
+                        ", batch allocation): " + demand.reason();
+                if (remark.length() > MAX_REMARKS_LENGTH) {
+                    remark = remark.substring(0, MAX_REMARKS_LENGTH);
+                }
+                for (long n = 0; n < share; n++) {
+                    instanceIds.add(stock.poll());
+                    requestIds.add(demand.requestId());
+                    toOffices.add(demand.officeId());
+                    remarks.add(remark);
+                }
+                quantities.put(demand.requestId(), (int) share);
+                previous.put(demand.requestId(), demand.status());
+            }
+        }
+
+        if (instanceIds.isEmpty()) {
+            return toPlan(officeId, effective, true, drafts, Map.of());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Long>> transactionIds = new HashMap<>();
+        List<Long> allTransactionIds = new ArrayList<>();
+        jdbcTemplate.query(DISTRIBUTE_SQL, rs -> {
+            long id = rs.getLong("id");
+            transactionIds.computeIfAbsent(rs.getLong("item_request_id"), r -> new ArrayList<>()).add(id);
+            allTransactionIds.add(id);
+        }, officeId, fulfilledBy.getId(), Timestamp.valueOf(now), Timestamp.valueOf(now.plus(reservationTtl)),
+                instanceIds.toArray(new Long[0]), requestIds.toArray(new Long[0]),
+                toOffices.toArray(new Long[0]), remarks.toArray(new String[0]));
+        jdbcTemplate.update(FULFIL_SQL, Timestamp.valueOf(now),
+                quantities.keySet().toArray(new Long[0]), quantities.values().toArray(new Integer[0]));
+
+        // Nothing of these was loaded in this transaction, so the entities reflect the statements above
+        WorkflowChangeEvent change = new WorkflowChangeEvent();
+        for (ItemRequest request : itemRequestRepository.findAllById(quantities.keySet())) {
+            change.request(request, previous.get(request.getId()));
+        }
+        for (ItemTransaction transaction : itemTransactionRepository.findAllById(allTransactionIds)) {
+            change.distribution(transaction, null).instance(transaction.getItemInstance());
+        }
+        eventPublisher.publishEvent(change);
+
+        return toPlan(officeId, effective, true, drafts, transactionIds);
+    }
+
+    /**
+     * Open requests grouped by item in priority order, each item shared out over them.
+     */
+    private List<ItemDraft> draft(Long officeId, Policy policy, String requestsSql) {
+        Map<Long, ItemDraft> byItem = new LinkedHashMap<>();
+        jdbcTemplate.query(requestsSql, rs -> {
+            long itemId = rs.getLong("item_id");
+            String itemName = rs.getString("item_name");
+            Demand demand = new Demand(rs.getLong("id"), rs.getLong("requesting_office_id"),
+                    rs.getDouble("approved_quantity"), rs.getDouble("fulfilled_quantity"),
+                    ItemRequest.RequestStatus.valueOf(rs.getString("status")),
+                    rs.getTimestamp("requested_date").toLocalDateTime(), rs.getString("reason"));
+            if (demand.remaining() > 0) {
+                byItem.computeIfAbsent(itemId, id -> new ItemDraft(id, itemName)).queue.add(demand);
+            }
+        }, officeId);
+        if (byItem.isEmpty()) {
+            return List.of();
+        }
+
+        jdbcTemplate.query(AVAILABLE_SQL, rs -> {
+            byItem.get(rs.getLong("item_id")).available = rs.getLong("n");
+        }, officeId, byItem.keySet().toArray(new Long[0]));
+
+        Comparator<Demand> byAge = Comparator.comparing(Demand::requestedDate).thenComparing(Demand::requestId);
+        Comparator<Demand> order = policy == Policy.SMALLEST_FIRST
+                ? Comparator.comparingLong(Demand::remaining).thenComparing(byAge)
+                : byAge;
+        List<ItemDraft> drafts = new ArrayList<>(byItem.values());
+        for (ItemDraft draft : drafts) {
+            draft.queue.sort(order);
+            draft.shares = allocate(draft.queue, draft.available, policy);
+        }
+        drafts.sort(Comparator.comparing((ItemDraft d) -> d.itemName).thenComparing(d -> d.itemId));
+        return drafts;
+    }
+
+    /**
+     * Shares {@code supply} over {@code queue}; never gives a request more than it still
+     * needs. Proportional shares are rounded down and the remainder goes out in queue
+     * order, like everything under the other policies.
+     */
+    private static long[] allocate(List<Demand> queue, long supply, Policy policy) {
+        long[] shares = new long[queue.size()];
+        long left = supply;
+        if (policy == Policy.PROPORTIONAL) {
+            long demanded = queue.stream().mapToLong(Demand::remaining).sum();
+            if (demanded > supply) {
+                for (int i = 0; i < shares.length; i++) {
+                    shares[i] = queue.get(i).remaining() * supply / demanded;
+                    left -= shares[i];
+                }
+            }
+        }
+        for (int i = 0; i < shares.length && left > 0; i++) {
+            long extra = Math.min(queue.get(i).remaining() - shares[i], left);
+            shares[i] += extra;
+            left -= extra;
+        }
+        return shares;
+    }
+
+    private static AllocationPlan toPlan(Long officeId, Policy policy, boolean executed, List<ItemDraft> drafts,
+                                         Map<Long, List<Long>> transactionIds) {
+        List<AllocationPlan.ItemAllocation> items = new ArrayList<>();
+        List<AllocationPlan.Line> lines = new ArrayList<>();
+        long allocated = 0;
+        for (ItemDraft draft : drafts) {
+            long demanded = 0;
+            for (int i = 0; i < draft.queue.size(); i++) {
+                Demand demand = draft.queue.get(i);
+                demanded += demand.remaining();
+                lines.add(new AllocationPlan.Line(demand.requestId(), demand.officeId(), draft.itemId,
+                        demand.requestedDate(), demand.remaining(), draft.shares[i],
+                        executed ? transactionIds.getOrDefault(demand.requestId(), List.of()) : null));
+            }
+            items.add(new AllocationPlan.ItemAllocation(draft.itemId, draft.itemName, draft.available, demanded,
+                    draft.allocated()));
+            allocated += draft.allocated();
+        }
+        return new AllocationPlan(officeId, policy, executed, executed ? null : token(policy, drafts),
+                allocated, items, lines);
+    }
+
+    /**
+     * Digest of who gets how much under which policy. Available counts are left out, so
+     * stock moving elsewhere in the office does not invalidate a plan it cannot affect.
+     */
+    private static String token(Policy policy, List<ItemDraft> drafts) {
+        StringBuilder plan = new StringBuilder(policy.name());
+        for (ItemDraft draft : drafts) {
+            for (int i = 0; i < draft.queue.size(); i++) {
+                Demand demand = draft.queue.get(i);
+                plan.append('|').append(demand.requestId()).append(':').append(draft.itemId)
+                        .append(':').append(demand.remaining()).append(':').append(draft.shares[i]);
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(plan.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Demand(long requestId, long officeId, double approved, double fulfilled,
+                  ItemRequest.RequestStatus status, LocalDateTime requestedDate, String reason) {
+
+        // Whole instances still owed
+        long remaining() {
+            return (long) Math.floor(approved - fulfilled);
+        }
+    }
+
+    private static final class ItemDraft {
+
+        final long itemId;
+        final String itemName;
+        final List<Demand> queue = new ArrayList<>();
+        long available;
+        long[] shares;
+
+        ItemDraft(long itemId, String itemName) {
+            this.itemId = itemId;
+            this.itemName = itemName;
+        }
+
+        long allocated() {
+            long total = 0;
+            for (long share : shares) {
+                total += share;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import just.inventory.backend.dto.AuditFindingView;
+import just.inventory.backend.dto.AuditScanResult;
+import just.inventory.backend.model.AuditSession;
+import just.inventory.backend.repository.AuditSessionRepository;
+import just.inventory.backend.repository.OfficeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stock-take sessions. Scans are plain inserts keyed by (session, barcode), so batches
+ * can arrive in any order and be re-sent after a timeout. Reconciliation is one
+ * set-based statement: an anti-join of the office's instances against the scans finds
+ * what is missing, and an outer join of the scans against all instances finds what
+ * should not be there.
+ */
+@Service
+public class AuditService {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Instances an office is expected to physically hold
+    private static final String EXPECTED = "ii.owner_office_id = ? AND ii.status NOT IN ('LOST', 'DISPOSED')";
+
+    private static final String SCAN_SQL = "INSERT INTO audit_scans (session_id, barcode, scanned_at) " +
+            "SELECT ?, b, ? FROM unnest(?::varchar[]) AS b ON CONFLICT DO NOTHING";
+
+    private static final String RECONCILE_SQL = "INSERT INTO audit_findings " +
+            "(session_id, kind, barcode, item_instance_id, office_id, instance_status) " +
+            "SELECT ?, 'MISSING', ii.barcode, ii.id, ii.owner_office_id, ii.status FROM item_instances ii " +
+            "WHERE " + EXPECTED + " " +
+            "AND NOT EXISTS (SELECT 1 FROM audit_scans s WHERE s.session_id = ? AND s.barcode = ii.barcode) " +
+            "UNION ALL " +
+            "SELECT s.session_id, CASE WHEN ii.id IS NULL THEN 'UNEXPECTED' " +
+            "  WHEN ii.owner_office_id <> ? THEN 'WRONG_OFFICE' ELSE 'WRONG_STATUS' END, " +
+            "  s.barcode, ii.id, ii.owner_office_id, ii.status " +
+            "FROM audit_scans s LEFT JOIN item_instances ii ON ii.barcode = s.barcode " +
+            "WHERE s.session_id = ? AND (ii.id IS NULL OR ii.owner_office_id <> ? OR ii.status IN ('LOST', 'DISPOSED'))";
+
+    @Autowired
+    private AuditSessionRepository auditSessionRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public AuditSession openSession(Long officeId, Long openedById) {
+        if (!officeRepository.existsById(officeId)) {
+            throw new InvalidAuditRequestException("Office not found");
+        }
+        if (auditSessionRepository.findByOfficeIdAndStatus(officeId, AuditSession.Status.OPEN).isPresent()) {
+            throw new InvalidAuditRequestException("A stock-take is already open for this office");
+        }
+        AuditSession session = new AuditSession();
+        session.setOfficeId(officeId);
+        session.setOpenedById(openedById);
+        session.setStatus(AuditSession.Status.OPEN);
+        try {
+            return auditSessionRepository.saveAndFlush(session);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against another open on the same office
+            throw new InvalidAuditRequestException("A stock-take is already open for this office");
+        }
+    }
+
+    public AuditSession getSession(Long id) {
+        return auditSessionRepository.findById(id)
+                .orElseThrow(() -> new AuditSessionNotFoundException(id));
+    }
+
+    public List<AuditSession> getSessionsForOffice(Long officeId) {
+        return auditSessionRepository.findByOfficeIdOrderByOpenedAtDesc(officeId);
+    }
+
+    /**
+     * Adds a batch of scanned barcodes. Holds a share lock on the session so a
+     * concurrent reconcile waits for the batch instead of missing it.
+     */
+    @Timed(value = "inventory.audit", extraTags = {"operation", "scan"})
+    @Transactional
+    public AuditScanResult addScans(Long sessionId, List<String> barcodes) {
+        requireOpen(sessionId, "FOR SHARE");
+
+        Set<String> distinct = new LinkedHashSet<>();
+        if (barcodes != null) {
+            for (String barcode : barcodes) {
+                if (barcode != null && !barcode.isBlank()) {
+                    distinct.add(barcode.trim());
+                }
+            }
+        }
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new InvalidAuditRequestException("At most " + MAX_BATCH_SIZE + " barcodes per batch");
+        }
+
+        int accepted = distinct.isEmpty() ? 0 : jdbcTemplate.update(SCAN_SQL, sessionId,
+                Timestamp.valueOf(LocalDateTime.now()), distinct.toArray(new String[0]));
+        Long scanned = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_scans WHERE session_id = ?", Long.class, sessionId);
+        return new AuditScanResult(barcodes != null ? barcodes.size() : 0, accepted, scanned != null ? scanned : 0);
+    }
+
+    /**
+     * Compares the scans with the office's instances, records the discrepancies and
+     * closes the session.
+     */
+    @Timed(value = "inventory.audit", extraTags = {"operation", "reconcile"})
+    @Transactional
+    public AuditSession reconcile(Long sessionId) {
+        requireOpen(sessionId, "FOR UPDATE");
+        AuditSession session = getSession(sessionId);
+        Long officeId = session.getOfficeId();
+
+        jdbcTemplate.update(RECONCILE_SQL, sessionId, officeId, sessionId, officeId, sessionId, officeId);
+
+        session.setMissingCount(0L);
+        session.setUnexpectedCount(0L);
+        session.setWrongOfficeCount(0L);
+        session.setWrongStatusCount(0L);
+        jdbcTemplate.query("SELECT kind, COUNT(*) AS n FROM audit_findings WHERE session_id = ? GROUP BY kind", rs -> {
+            long count = rs.getLong("n");
+            switch (AuditSession.FindingKind.valueOf(rs.getString("kind"))) {
+                case MISSING -> session.setMissingCount(count);
+                case UNEXPECTED -> session.setUnexpectedCount(count);
+                case WRONG_OFFICE -> session.setWrongOfficeCount(count);
+                case WRONG_STATUS -> session.setWrongStatusCount(count);
+            }
+        }, sessionId);
+        session.setExpectedCount(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_instances ii WHERE " + EXPECTED, Long.class, officeId));
+        session.setScannedCount(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_scans WHERE session_id = ?", Long.class, sessionId));
+
+        session.setStatus(AuditSession.Status.RECONCILED);
+        session.setClosedAt(LocalDateTime.now());
+        return auditSessionRepository.save(session);
+    }
+
+    @Transactional
+    public AuditSession cancel(Long sessionId) {
+        requireOpen(sessionId, "FOR UPDATE");
+        AuditSession session = getSession(sessionId);
+        session.setStatus(AuditSession.Status.CANCELLED);
+        session.setClosedAt(LocalDateTime.now());
+        jdbcTemplate.update("DELETE FROM audit_scans WHERE session_id = ?", sessionId);
+        return auditSessionRepository.save(session);
+    }
+
+    /**
+     * A page of findings of a reconciled session, optionally of one kind, by kind and barcode
+     */
+    public List<AuditFindingView> getFindings(Long sessionId, AuditSession.FindingKind kind, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long offset = (long) Math.max(page, 0) * pageSize;
+
+        List<Object> args = new ArrayList<>();
+        args.add(sessionId);
+        String sql = "SELECT kind, barcode, item_instance_id, office_id, instance_status FROM audit_findings WHERE session_id = ?";
+        if (kind != null) {
+            sql += " AND kind = ?";
+            args.add(kind.name());
+        }
+        sql += " ORDER BY kind, barcode LIMIT ? OFFSET ?";
+        args.add(pageSize);
+        args.add(offset);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AuditFindingView(
+                AuditSession.FindingKind.valueOf(rs.getString("kind")),
+                rs.getString("barcode"),
+                rs.getObject("item_instance_id", Long.class),
+                rs.getObject("office_id", Long.class),
+                rs.getString("instance_status")), args.toArray());
+    }
+
+    private void requireOpen(Long sessionId, String lock) {
+        List<String> status = jdbcTemplate.queryForList(
+                "SELECT status FROM audit_sessions WHERE id = ? " + lock, String.class, sessionId);
+        if (status.isEmpty()) {
+            throw new AuditSessionNotFoundException(sessionId);
+        }
+        if (!AuditSession.Status.OPEN.name().equals(status.get(0))) {
+            throw new InvalidAuditRequestException("Audit session is not open");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package just.inventory.backend.service;
+
+/**
+ * The stock-take session does not exist.
+ */
+public class AuditSessionNotFoundException extends RuntimeException {
+
+    public AuditSessionNotFoundException(Long sessionId) {
+        super("Audit session not found: " + sessionId);
+    }
+}
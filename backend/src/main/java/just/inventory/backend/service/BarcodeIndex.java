@@ -0,0 +1,613 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import just.inventory.backend.model.ItemInstance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Barcode to instance (id, owner office, status) lookup for the scan paths, served
+ * from memory so unknown barcodes are rejected without a database round trip.
+ *
+ * The index is an open-addressing hash table over the barcodes' UTF-8 bytes, with the
+ * keys packed into one byte arena and the values in parallel primitive arrays: 70 to 90
+ * bytes per barcode depending on where the table is between resizes (84 on the perf-data
+ * set), instead of the few hundred a map of strings and records costs.
+ * Disposed and deleted instances are not indexed, so their barcodes read as unknown.
+ * Readers use optimistic reads of a {@link StampedLock}; writers take the write lock.
+ *
+ * It is streamed from {@code item_instances} at startup and whenever the
+ * {@link CacheInvalidationBus} (re)connects, and reloaded periodically as a safety net
+ * for writes that bypass the services. In between, the workflows report changed
+ * instances: this node applies them after commit, and every node reloads the ids
+ * announced as {@code instance} invalidations. Until the first load finishes, misses
+ * fall back to the database.
+ */
+@Slf4j
+@Service
+public class BarcodeIndex {
+
+    public record Entry(long instanceId, long officeId, ItemInstance.ItemStatus status) {
+    }
+
+    public static final String INSTANCE = "instance";
+
+    private static final String LOAD_SQL = "SELECT barcode, id, owner_office_id, status FROM item_instances";
+    private static final int FETCH_SIZE = 5000;
+    // Ids per invalidation notification, well below the 8000 byte payload limit
+    private static final int IDS_PER_NOTIFICATION = 500;
+    private static final ItemInstance.ItemStatus[] STATUSES = ItemInstance.ItemStatus.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.barcode-index.enabled:true}")
+    private boolean enabled;
+
+    private final StampedLock lock = new StampedLock();
+    private Table table = new Table(16);
+    private volatile boolean loaded;
+
+    // Reloads run on one background thread; changes arriving during a full load are replayed after it
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "barcode-index-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean fullReloadQueued = new AtomicBoolean();
+    private final AtomicBoolean idReloadQueued = new AtomicBoolean();
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private volatile Set<Long> changedDuringLoad;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("inventory.barcode_index.entries", this, index -> index.stats()[0])
+                .description("Barcodes in the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("inventory.barcode_index.bytes", this, index -> index.stats()[1])
+                .description("Memory held by the in-memory barcode index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("inventory.barcode_index.bytes_per_million", this, index -> {
+                    long[] stats = index.stats();
+                    return stats[0] == 0 ? 0 : stats[1] * 1_000_000.0 / stats[0];
+                })
+                .description("Index memory scaled to a million barcodes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    public Entry lookup(String barcode) {
+        if (barcode == null) {
+            return null;
+        }
+        if (!enabled) {
+            return loadFromDatabase(List.of(barcode)).get(barcode);
+        }
+        Entry entry = find(barcode.getBytes(StandardCharsets.UTF_8));
+        if (entry == null && !loaded) {
+            entry = loadFromDatabase(List.of(barcode)).get(barcode);
+        }
+        return entry;
+    }
+
+    /**
+     * Resolves a batch of barcodes; unknown ones are absent from the result.
+     */
+    public Map<String, Entry> lookup(Collection<String> barcodes) {
+        if (!enabled) {
+            return loadFromDatabase(barcodes);
+        }
+        Map<String, Entry> found = new HashMap<>(barcodes.size() * 2);
+        List<String> misses = new ArrayList<>();
+        for (String barcode : barcodes) {
+            Entry entry = find(barcode.getBytes(StandardCharsets.UTF_8));
+            if (entry != null) {
+                found.put(barcode, entry);
+            } else {
+                misses.add(barcode);
+            }
+        }
+        if (!misses.isEmpty() && !loaded) {
+            found.putAll(loadFromDatabase(misses));
+        }
+        return found;
+    }
+
+    /**
+     * An instance was created, moved or changed status in the current transaction.
+     */
+    public void instanceChanged(ItemInstance instance) {
+        if (!enabled || instance.getId() == null || instance.getBarcode() == null) {
+            return;
+        }
+        cacheInvalidationBus.publish(INSTANCE, instance.getId());
+        byte[] key = instance.getBarcode().getBytes(StandardCharsets.UTF_8);
+        long instanceId = instance.getId();
+        long officeId = instance.getOwnerOffice() != null ? instance.getOwnerOffice().getId() : 0;
+        ItemInstance.ItemStatus status = instance.getStatus();
+        AfterCommit.run(() -> {
+            put(key, instanceId, officeId, status);
+            noteChanged(List.of(instanceId));
+        });
+    }
+
+    /**
+     * An instance was deleted in the current transaction.
+     */
+    public void instanceDeleted(Long instanceId) {
+        if (!enabled || instanceId == null) {
+            return;
+        }
+        cacheInvalidationBus.publish(INSTANCE, instanceId);
+        AfterCommit.run(() -> {
+            remove(instanceId);
+            noteChanged(List.of(instanceId));
+        });
+    }
+
+    /**
+     * Instances created or changed by a batch or set-based statement in the current
+     * transaction.
+     */
+    public void instancesChanged(Collection<Long> instanceIds) {
+        if (!enabled || instanceIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(instanceIds);
+        for (int from = 0; from < ids.size(); from += IDS_PER_NOTIFICATION) {
+            StringJoiner joined = new StringJoiner(",");
+            ids.subList(from, Math.min(from + IDS_PER_NOTIFICATION, ids.size())).forEach(id -> joined.add(id.toString()));
+            cacheInvalidationBus.publish(INSTANCE, joined.toString());
+        }
+        AfterCommit.run(() -> reloadIds(ids));
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isFlush() || (INSTANCE.equals(event.entity()) && CacheInvalidationEvent.ALL.equals(event.id()))) {
+            // Notifications may have been missed while the bus was down
+            scheduleFullReload();
+        } else if (INSTANCE.equals(event.entity())) {
+            List<Long> ids = new ArrayList<>();
+            for (String id : event.id().split(",")) {
+                try {
+                    ids.add(Long.valueOf(id));
+                } catch (NumberFormatException e) {
+                    scheduleFullReload();
+                    return;
+                }
+            }
+            reloadIds(ids);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            scheduleFullReload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.barcode-index.refresh-interval:1h}", initialDelayString = "${app.barcode-index.refresh-interval:1h}")
+    public void refresh() {
+        if (enabled) {
+            scheduleFullReload();
+        }
+    }
+
+    private void scheduleFullReload() {
+        if (fullReloadQueued.compareAndSet(false, true)) {
+            reloader.execute(() -> {
+                fullReloadQueued.set(false);
+                try {
+                    loadAll();
+                } catch (RuntimeException e) {
+                    log.warn("Could not load the barcode index: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Coalesces ids from many notifications into one query per drain
+    private void reloadIds(Collection<Long> ids) {
+        pendingIds.addAll(ids);
+        noteChanged(ids);
+        if (idReloadQueued.compareAndSet(false, true)) {
+            reloader.execute(() -> {
+                idReloadQueued.set(false);
+                List<Long> batch = new ArrayList<>(pendingIds);
+                pendingIds.removeAll(batch);
+                try {
+                    Set<Long> gone = new HashSet<>(batch);
+                    jdbcTemplate.query(LOAD_SQL + " WHERE id = ANY(?)", rs -> {
+                        gone.remove(rs.getLong("id"));
+                        put(rs);
+                    }, (Object) batch.toArray(new Long[0]));
+                    // Deleted since they were announced
+                    gone.forEach(this::remove);
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh {} barcode index entries: {}", batch.size(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void noteChanged(Collection<Long> ids) {
+        Set<Long> during = changedDuringLoad;
+        if (during != null) {
+            during.addAll(ids);
+        }
+    }
+
+    private void loadAll() {
+        long started = System.nanoTime();
+        changedDuringLoad = ConcurrentHashMap.newKeySet();
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_instances", Long.class);
+        Table fresh = new Table((int) Math.min(Math.max(count != null ? count : 0, 16) * 11 / 10, 1 << 26));
+
+        // The driver only streams with a fetch size inside a transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LOAD_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            byte ordinal = statusOrdinal(rs.getString("status"));
+            if (STATUSES[ordinal] != ItemInstance.ItemStatus.DISPOSED) {
+                fresh.put(rs.getString("barcode").getBytes(StandardCharsets.UTF_8), rs.getLong("id"),
+                        rs.getLong("owner_office_id"), ordinal);
+            }
+        }));
+
+        long stamp = lock.writeLock();
+        try {
+            table = fresh;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        loaded = true;
+        // Changes committed while streaming may be missing from the snapshot
+        Set<Long> missed = changedDuringLoad;
+        changedDuringLoad = null;
+        if (!missed.isEmpty()) {
+            reloadIds(missed);
+        }
+        log.info("Loaded {} barcodes into the index in {} ms, {} KiB ({} MiB per million barcodes)",
+                fresh.live(), (System.nanoTime() - started) / 1_000_000, fresh.bytes() / 1024,
+                fresh.live() == 0 ? 0 : fresh.bytes() * 1_000_000 / fresh.live() / (1024 * 1024));
+    }
+
+    private Map<String, Entry> loadFromDatabase(Collection<String> barcodes) {
+        Map<String, Entry> found = new HashMap<>();
+        if (barcodes.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(LOAD_SQL + " WHERE barcode = ANY(?) AND status <> 'DISPOSED'", rs -> {
+            found.put(rs.getString("barcode"), new Entry(rs.getLong("id"), rs.getLong("owner_office_id"),
+                    STATUSES[statusOrdinal(rs.getString("status"))]));
+        }, (Object) new LinkedHashSet<>(barcodes).toArray(new String[0]));
+        return found;
+    }
+
+    private Entry find(byte[] key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Entry entry = table.get(key);
+                if (lock.validate(stamp)) {
+                    return entry;
+                }
+            } catch (RuntimeException e) {
+                // Saw the table mid-resize; retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void put(ResultSet rs) throws SQLException {
+        put(rs.getString("barcode").getBytes(StandardCharsets.UTF_8), rs.getLong("id"),
+                rs.getLong("owner_office_id"), STATUSES[statusOrdinal(rs.getString("status"))]);
+    }
+
+    private void put(byte[] key, long instanceId, long officeId, ItemInstance.ItemStatus status) {
+        if (status == ItemInstance.ItemStatus.DISPOSED) {
+            remove(instanceId);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            table.put(key, instanceId, officeId, (byte) status.ordinal());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void remove(long instanceId) {
+        long stamp = lock.writeLock();
+        try {
+            table.remove(instanceId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long[] stats() {
+        long stamp = lock.readLock();
+        try {
+            return new long[]{table.live(), table.bytes()};
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static byte statusOrdinal(String status) {
+        return (byte) ItemInstance.ItemStatus.valueOf(status).ordinal();
+    }
+
+    /**
+     * Linear-probing table of entry numbers (plus one, 0 = empty); entry {@code i} has
+     * its key at {@code keyOffsets[i]} in the arena and its values at index {@code i}
+     * of the value arrays. A second probing table over the instance ids finds the entry
+     * of an instance whose barcode changed or which went away. Removed entries leave
+     * their key and values behind until the next full load. Not thread-safe on its own.
+     */
+    static final class Table {
+
+        private int[] slots;
+        private int[] idSlots;
+        private int[] hashes;
+        private int[] keyOffsets;
+        private short[] keyLengths;
+        private long[] instanceIds;
+        private long[] officeIds;
+        private byte[] statuses;
+        private byte[] arena;
+        private int arenaUsed;
+        private int size;
+        private int removed;
+        private final IntUnaryOperator keyHash = entry -> hashes[entry];
+        private final IntUnaryOperator idHash = entry -> idHash(instanceIds[entry]);
+
+        Table(int expected) {
+            int capacity = Math.max(expected, 16);
+            slots = new int[tableSizeFor(capacity)];
+            idSlots = new int[slots.length];
+            hashes = new int[capacity];
+            keyOffsets = new int[capacity];
+            keyLengths = new short[capacity];
+            instanceIds = new long[capacity];
+            officeIds = new long[capacity];
+            statuses = new byte[capacity];
+            // Barcodes are typically around 24 bytes
+            arena = new byte[capacity * 24];
+        }
+
+        int live() {
+            return size - removed;
+        }
+
+        Entry get(byte[] key) {
+            int hash = hash(key);
+            int[] slots = this.slots;
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot] - 1;
+                if (entry < 0) {
+                    return null;
+                }
+                if (hashes[entry] == hash && keyEquals(entry, key)) {
+                    return new Entry(instanceIds[entry], officeIds[entry], STATUSES[statuses[entry]]);
+                }
+            }
+        }
+
+        void put(byte[] key, long instanceId, long officeId, byte status) {
+            // The instance was indexed under another barcode
+            int previous = findById(instanceId);
+            if (previous >= 0 && !keyEquals(previous, key)) {
+                removeEntry(previous);
+            }
+
+            int hash = hash(key);
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int entry = slots[slot] - 1;
+                if (hashes[entry] == hash && keyEquals(entry, key)) {
+                    if (instanceIds[entry] != instanceId) {
+                        // The barcode moved to another instance
+                        unlink(idSlots, entry, idHash);
+                        instanceIds[entry] = instanceId;
+                        link(idSlots, entry, idHash);
+                    }
+                    officeIds[entry] = officeId;
+                    statuses[entry] = status;
+                    return;
+                }
+            }
+
+            if (size == instanceIds.length) {
+                growEntries();
+            }
+            if (arenaUsed + key.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaUsed + key.length));
+            }
+            int entry = size++;
+            System.arraycopy(key, 0, arena, arenaUsed, key.length);
+            keyOffsets[entry] = arenaUsed;
+            keyLengths[entry] = (short) key.length;
+            arenaUsed += key.length;
+            hashes[entry] = hash;
+            instanceIds[entry] = instanceId;
+            officeIds[entry] = officeId;
+            statuses[entry] = status;
+            slots[slot] = entry + 1;
+            link(idSlots, entry, idHash);
+
+            // Keep the load factor at or below one half
+            if (size * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+        }
+
+        void remove(long instanceId) {
+            int entry = findById(instanceId);
+            if (entry >= 0) {
+                removeEntry(entry);
+            }
+        }
+
+        long bytes() {
+            return (long) slots.length * Integer.BYTES * 2
+                    + (long) hashes.length * (Integer.BYTES + Integer.BYTES + Short.BYTES + Long.BYTES + Long.BYTES + 1)
+                    + arena.length;
+        }
+
+        private int findById(long instanceId) {
+            int mask = idSlots.length - 1;
+            for (int slot = idHash(instanceId) & mask; ; slot = (slot + 1) & mask) {
+                int entry = idSlots[slot] - 1;
+                if (entry < 0 || instanceIds[entry] == instanceId) {
+                    return entry;
+                }
+            }
+        }
+
+        private void removeEntry(int entry) {
+            unlink(slots, entry, keyHash);
+            unlink(idSlots, entry, idHash);
+            keyLengths[entry] = -1;
+            removed++;
+        }
+
+        private boolean keyEquals(int entry, byte[] key) {
+            int offset = keyOffsets[entry];
+            return keyLengths[entry] == key.length
+                    && Arrays.equals(arena, offset, offset + key.length, key, 0, key.length);
+        }
+
+        private void growEntries() {
+            int capacity = hashes.length * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+            keyLengths = Arrays.copyOf(keyLengths, capacity);
+            instanceIds = Arrays.copyOf(instanceIds, capacity);
+            officeIds = Arrays.copyOf(officeIds, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+
+        private void rehash(int capacity) {
+            int[] rehashed = new int[capacity];
+            int[] rehashedIds = new int[capacity];
+            for (int entry = 0; entry < size; entry++) {
+                if (keyLengths[entry] >= 0) {
+                    link(rehashed, entry, keyHash);
+                    link(rehashedIds, entry, idHash);
+                }
+            }
+            slots = rehashed;
+            idSlots = rehashedIds;
+        }
+
+        private static void link(int[] table, int entry, IntUnaryOperator hashOf) {
+            int mask = table.length - 1;
+            int slot = hashOf.applyAsInt(entry) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+
+        // Empties the entry's slot and re-links the rest of its run, so no probe stops early at the hole
+        private static void unlink(int[] table, int entry, IntUnaryOperator hashOf) {
+            int mask = table.length - 1;
+            int slot = hashOf.applyAsInt(entry) & mask;
+            while (table[slot] != entry + 1) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = 0;
+            for (int next = (slot + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+                int moved = table[next] - 1;
+                table[next] = 0;
+                link(table, moved, hashOf);
+            }
+        }
+
+        private static int tableSizeFor(int entries) {
+            return Integer.highestOneBit(Math.max(entries * 2 - 1, 16)) << 1;
+        }
+
+        static int hash(byte[] key) {
+            // Murmur3 finalizer over the array hash, so sequential barcodes spread across the table
+            return mix(Arrays.hashCode(key));
+        }
+
+        private static int idHash(long instanceId) {
+            return mix(Long.hashCode(instanceId));
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+}
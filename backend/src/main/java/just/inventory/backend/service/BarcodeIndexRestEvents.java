@@ -0,0 +1,32 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ItemInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instances created, edited or deleted through the Spring Data REST endpoints bypass
+ * the services; this reports them to the {@link BarcodeIndex} like the workflows do.
+ */
+@Component
+@RepositoryEventHandler
+public class BarcodeIndexRestEvents {
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void afterSave(ItemInstance instance) {
+        barcodeIndex.instanceChanged(instance);
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(ItemInstance instance) {
+        barcodeIndex.instanceDeleted(instance.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead for CPU-heavy barcode, label and PDF rendering. Work runs on a fixed pool
+ * sized to the CPU count behind a bounded queue, so a large print job waits its turn
+ * here instead of occupying request threads that serve the JSON endpoints. When the
+ * queue is full, submission fails fast with {@link RenderQueueFullException}.
+ *
+ * The pool is exported as {@code executor.*} meters tagged {@code name=barcode.render},
+ * next to {@code inventory.render.queue.wait} and {@code inventory.render.rejected}.
+ */
+@Service
+public class BarcodeRenderExecutor {
+
+    @FunctionalInterface
+    public interface RenderTask<T> {
+        T render() throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    public BarcodeRenderExecutor(MeterRegistry meterRegistry,
+                                 @Value("${app.render.threads:0}") int threads,
+                                 @Value("${app.render.queue-capacity:64}") int queueCapacity,
+                                 @Value("${app.render.retry-after:5}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "barcode-render-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        new ExecutorServiceMetrics(executor, "barcode.render", Tags.empty()).bindTo(meterRegistry);
+        this.queueWait = Timer.builder("inventory.render.queue.wait")
+                .description("Time a rendering job waited for a render thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("inventory.render.rejected")
+                .description("Rendering jobs turned away because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(RenderTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(task.render());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RenderQueueFullException(retryAfterSeconds);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package just.inventory.backend.service;
 
+import io.micrometer.core.annotation.Timed;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
@@ -24,6 +25,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,6 +38,7 @@ public class BarcodeService {
     /**
      * Generate a Code128 barcode image for the given barcode text
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "code128"})
     public byte[] generateBarcodeImage(String barcodeText, int width, int height) throws WriterException, IOException {
         Code128Writer barcodeWriter = new Code128Writer();
         BitMatrix bitMatrix = barcodeWriter.encode(barcodeText, BarcodeFormat.CODE_128, width, height);
@@ -50,6 +53,7 @@ public class BarcodeService {
     /**
      * Generate a QR code image for the given barcode text
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "qr"})
     public byte[] generateQRCode(String barcodeText, int width, int height) throws WriterException, IOException {
         Map<EncodeHintType, Object> hints = new HashMap<>();
         hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
@@ -69,6 +73,7 @@ public class BarcodeService {
      * Generate a simplified vertical barcode label (6x4 inches / 600x400 pixels at 100 DPI)
      * Optimized for thermal printers with minimal info: item name, office, purchase date
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "simple_label"})
     public byte[] generateSimpleBarcodeLabel(Long itemInstanceId) throws WriterException, IOException {
         ItemInstance itemInstance = itemInstanceRepository.findById(itemInstanceId)
                 .orElseThrow(() -> new RuntimeException("Item instance not found"));
@@ -157,6 +162,7 @@ public class BarcodeService {
      * Generate a complete barcode label with item information
      * This creates a printable image with barcode and text
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "label"})
     public byte[] generateBarcodeLabel(Long itemInstanceId) throws WriterException, IOException {
         ItemInstance itemInstance = itemInstanceRepository.findById(itemInstanceId)
                 .orElseThrow(() -> new RuntimeException("Item instance not found"));
@@ -249,6 +255,7 @@ public class BarcodeService {
     /**
      * Generate barcode labels for multiple item instances
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "label_sheet"})
     public byte[] generateBarcodeLabels(java.util.List<Long> itemInstanceIds) throws WriterException, IOException {
         // For multiple labels, create a sheet with multiple labels
         int labelsPerRow = 2;
@@ -287,6 +294,7 @@ public class BarcodeService {
      * Generate ESC/POS commands for direct thermal printer printing
      * Suitable for XPrinter TT62B and similar thermal printers
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "escpos"})
     public byte[] generateESCPOSCommands(Long itemInstanceId) throws WriterException, IOException {
         ItemInstance itemInstance = itemInstanceRepository.findById(itemInstanceId)
                 .orElseThrow(() -> new RuntimeException("Item instance not found"));
@@ -353,6 +361,7 @@ public class BarcodeService {
      * Generate ESC/POS commands for multiple labels
      * Suitable for XPrinter and similar thermal printers
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "escpos_multiple"})
     public byte[] generateESCPOSCommandsMultiple(java.util.List<Long> itemInstanceIds) throws WriterException, IOException {
         ByteArrayOutputStream escpos = new ByteArrayOutputStream();
         
@@ -382,20 +391,33 @@ public class BarcodeService {
      * Generate PDF with multiple barcode labels (vertical layout, 6x4 inches per label)
      * Optimized for printing on thermal barcode printers
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "pdf"})
     public byte[] generateBarcodeLabelsPDF(java.util.List<Long> itemInstanceIds) throws WriterException, IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        
+        writeBarcodeLabelsPDF(itemInstanceIds, outputStream, null);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Stream the label PDF to {@code out}; finished pages are flushed as the next one starts, so long
+     * runs (export jobs) never hold the whole document in memory
+     */
+    public void writeBarcodeLabelsPDF(java.util.List<Long> itemInstanceIds, OutputStream out, ExportWriter.Progress progress)
+            throws WriterException, IOException {
         // Create PDF with 6x4 inch page size (432x288 points)
-        PdfWriter writer = new PdfWriter(outputStream);
+        PdfWriter writer = new PdfWriter(out);
+        // The caller owns the stream
+        writer.setCloseStream(false);
         PdfDocument pdfDoc = new PdfDocument(writer);
         Document document = new Document(pdfDoc, new PageSize(432, 288));
         
         // Remove margins for full bleed printing
         document.setMargins(0, 0, 0, 0);
         
-        for (Long itemInstanceId : itemInstanceIds) {
+        int total = itemInstanceIds.size();
+        for (int i = 0; i < total; i++) {
             // Generate label image
-            byte[] labelBytes = generateSimpleBarcodeLabel(itemInstanceId);
+            byte[] labelBytes = generateSimpleBarcodeLabel(itemInstanceIds.get(i));
             
             // Add to PDF
             Image labelImage = new Image(ImageDataFactory.create(labelBytes));
@@ -407,18 +429,21 @@ public class BarcodeService {
             document.add(labelImage);
             
             // Add new page for next label (except for last one)
-            if (itemInstanceIds.indexOf(itemInstanceId) < itemInstanceIds.size() - 1) {
+            if (i < total - 1) {
                 document.add(new com.itextpdf.layout.element.AreaBreak());
             }
+            if (progress != null) {
+                progress.update(i + 1, (long) total);
+            }
         }
         
         document.close();
-        return outputStream.toByteArray();
     }
 
     /**
      * Generate simplified barcode labels for multiple item instances as PNG sheet
      */
+    @Timed(value = "inventory.barcode.render", extraTags = {"format", "simple_label_sheet"})
     public byte[] generateSimpleBarcodeLabels(java.util.List<Long> itemInstanceIds) throws WriterException, IOException {
         // For multiple labels, create vertical stack
         int labelWidth = 600;
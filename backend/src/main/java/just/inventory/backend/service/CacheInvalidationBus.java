@@ -0,0 +1,92 @@
+package just.inventory.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cross-node cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ *
+ * Publishing issues {@code pg_notify('inventory_cache', '<entity>:<id>')} on the caller's
+ * connection, so Postgres delivers it only once the surrounding transaction commits (and
+ * drops it on rollback). Every node subscribes to the channel on its shared
+ * {@link PostgresListener} and turns each notification into a local
+ * {@link CacheInvalidationEvent}. Whenever that connection drops or is (re)established
+ * every cache is flushed, because notifications sent while it was down are lost.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus implements PostgresListener.Subscriber {
+
+    public static final String CHANNEL = "inventory_cache";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostgresListener postgresListener;
+
+    @Value("${app.cache-invalidation.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Announce that an entity changed. Local caches should already have evicted it;
+     * this makes sure every other node does too once the transaction commits. Inside a
+     * transaction a failure is rethrown, since Postgres has aborted the transaction anyway.
+     */
+    public void publish(String entity, Object id) {
+        if (!enabled) {
+            return;
+        }
+        String payload = entity + ":" + (id != null ? id : CacheInvalidationEvent.ALL);
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, payload);
+        } catch (RuntimeException e) {
+            // A failed statement has already aborted the surrounding transaction; let the caller see why
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            log.warn("Could not publish cache invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (enabled) {
+            postgresListener.subscribe(CHANNEL, this);
+        }
+    }
+
+    @Override
+    public void onListening() {
+        // Anything published while we were not listening is gone, so start from a clean slate
+        eventPublisher.publishEvent(CacheInvalidationEvent.flush());
+    }
+
+    @Override
+    public void onLost() {
+        log.warn("Cache invalidation listener lost its connection, flushing caches");
+        eventPublisher.publishEvent(CacheInvalidationEvent.flush());
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        int separator = payload.indexOf(':');
+        CacheInvalidationEvent event = separator < 0
+                ? new CacheInvalidationEvent(payload, CacheInvalidationEvent.ALL)
+                : new CacheInvalidationEvent(payload.substring(0, separator), payload.substring(separator + 1));
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation handler failed for {}: {}", payload, e.getMessage());
+        }
+    }
+}
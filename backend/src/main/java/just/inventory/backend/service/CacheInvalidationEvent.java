@@ -0,0 +1,23 @@
+package just.inventory.backend.service;
+
+/**
+ * Local application event raised for every cache invalidation received from the
+ * {@link CacheInvalidationBus}, whether it originated on this node or another one.
+ * An entity of {@link #ALL} means "flush everything".
+ */
+public record CacheInvalidationEvent(String entity, String id) {
+
+    public static final String ALL = "*";
+
+    public static CacheInvalidationEvent flush() {
+        return new CacheInvalidationEvent(ALL, ALL);
+    }
+
+    public boolean isFlush() {
+        return ALL.equals(entity);
+    }
+
+    public boolean isFor(String candidate) {
+        return isFlush() || candidate.equals(entity);
+    }
+}
@@ -1,5 +1,6 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.CategoryView;
 import just.inventory.backend.model.Category;
 import just.inventory.backend.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +15,10 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    public List<CategoryView> getAllCategories() {
+        return referenceDataCache.getCategories().stream().map(CategoryView::of).toList();
     }
 
     public Optional<Category> getCategoryById(Long id) {
@@ -25,7 +27,9 @@ public class CategoryService {
 
     @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        referenceDataCache.evictCategories();
+        return saved;
     }
 
     @Transactional
@@ -34,6 +38,7 @@ public class CategoryService {
                 .map(category -> {
                     category.setName(categoryDetails.getName());
                     category.setDescription(categoryDetails.getDescription());
+                    referenceDataCache.evictCategories();
                     return categoryRepository.save(category);
                 });
     }
@@ -43,6 +48,7 @@ public class CategoryService {
         return categoryRepository.findById(id)
                 .map(category -> {
                     categoryRepository.delete(category);
+                    referenceDataCache.evictCategories();
                     return true;
                 })
                 .orElse(false);
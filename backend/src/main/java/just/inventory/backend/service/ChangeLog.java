@@ -0,0 +1,246 @@
+package just.inventory.backend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import just.inventory.backend.dto.ChangesPage;
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.ItemTransaction;
+import just.inventory.backend.model.Office;
+import just.inventory.backend.model.Purchase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only feed of what changed per office ({@code change_log}), read by clients
+ * through {@code /api/sync/changes} to keep local caches current without refetching
+ * whole lists.
+ *
+ * Entries are collected per transaction and appended just before it commits, holding a
+ * transaction-scoped advisory lock until the commit. That makes commit order equal
+ * sequence order, so a client that has seen sequence {@code n} can never later miss an
+ * entry below {@code n} that was still in flight. Several changes to the same entity in
+ * one transaction collapse into the last one.
+ *
+ * The append is the last before-commit step: it runs after the other synchronizations
+ * (the {@link InboxCounters} upserts) and flushes pending entity updates before taking
+ * the lock. A transaction holding the lock therefore takes no further row locks, so
+ * waiting for it can never be part of a deadlock.
+ *
+ * Entries past the retention window are compacted: only the newest per office and
+ * entity is kept, so a client that is far behind (or starts from 0) still ends up with
+ * the current state of everything, just without the intermediate steps.
+ */
+@Slf4j
+@Service
+public class ChangeLog {
+
+    public static final String REQUEST = "request";
+    public static final String DISTRIBUTION = "distribution";
+    public static final String INSTANCE = "instance";
+    public static final String PURCHASE = "purchase";
+
+    // An instance that moved to another office
+    public static final String REMOVED = "REMOVED";
+    public static final String CREATED = "CREATED";
+
+    static final String LEASE = "change-log-compaction";
+
+    // Arbitrary but fixed key of the advisory lock that serializes appends
+    private static final long APPEND_LOCK = 0x6368616e67656c6fL;
+
+    private static final String INSERT_SQL = "INSERT INTO change_log (office_id, entity, entity_id, action, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String COMPACT_SQL = "DELETE FROM change_log WHERE seq IN (" +
+            "SELECT c.seq FROM change_log c WHERE c.changed_at < ? AND EXISTS (" +
+            "  SELECT 1 FROM change_log n WHERE n.office_id = c.office_id AND n.entity = c.entity " +
+            "  AND n.entity_id = c.entity_id AND n.seq > c.seq) " +
+            "LIMIT ?)";
+
+    private static final int COMPACT_BATCH = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Value("${app.sync.max-page-size:2000}")
+    private int maxPageSize;
+
+    @Value("${app.sync.retention:30d}")
+    private Duration retention;
+
+    @Value("${app.sync.lease:12h}")
+    private Duration lease;
+
+    public ChangesPage getChanges(Long officeId, long since, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), maxPageSize);
+        List<ChangesPage.Change> changes = new ArrayList<>(Math.min(pageSize + 1, 256));
+        jdbcTemplate.query("SELECT seq, entity, entity_id, action, changed_at FROM change_log " +
+                        "WHERE office_id = ? AND seq > ? ORDER BY seq LIMIT ?",
+                rs -> {
+                    changes.add(new ChangesPage.Change(rs.getLong("seq"), rs.getString("entity"),
+                            rs.getLong("entity_id"), rs.getString("action"),
+                            rs.getTimestamp("changed_at").toLocalDateTime()));
+                }, officeId, since, pageSize + 1);
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes.remove(pageSize);
+        }
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).seq();
+        return new ChangesPage(officeId, since, next, hasMore, changes);
+    }
+
+    public void requestChanged(ItemRequest request) {
+        String action = request.getStatus().name();
+        record(request.getRequestingOffice(), REQUEST, request.getId(), action);
+        record(request.getParentOffice(), REQUEST, request.getId(), action);
+    }
+
+    public void distributionChanged(ItemTransaction transaction) {
+        String action = transaction.getStatus().name();
+        record(transaction.getFromOffice(), DISTRIBUTION, transaction.getId(), action);
+        record(transaction.getToOffice(), DISTRIBUTION, transaction.getId(), action);
+    }
+
+    /**
+     * An instance changed status in its current office.
+     */
+    public void instanceChanged(ItemInstance instance) {
+        record(instance.getOwnerOffice(), INSTANCE, instance.getId(), instance.getStatus().name());
+    }
+
+    /**
+     * An instance left {@code from} for its current office.
+     */
+    public void instanceMoved(ItemInstance instance, Office from) {
+        record(from, INSTANCE, instance.getId(), REMOVED);
+        instanceChanged(instance);
+    }
+
+    public void purchaseCreated(Purchase purchase) {
+        record(purchase.getOffice(), PURCHASE, purchase.getId(), CREATED);
+    }
+
+    /**
+     * For set-based writers that know the office and entity ids but not the entities
+     * (e.g. the reservation sweeper); appended with the rest of the transaction's entries.
+     */
+    public void record(Long officeId, String entity, Long entityId, String action) {
+        if (officeId == null || entityId == null) {
+            return;
+        }
+        Entry entry = new Entry(officeId, entity, entityId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    append(Map.of(entry, action), LocalDateTime.now()));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        // Re-insert so the entry sorts by its last change
+        pending.entries.remove(entry);
+        pending.entries.put(entry, action);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.compaction-interval:6h}", initialDelayString = "${app.sync.compaction-interval:6h}")
+    public void scheduledCompaction() {
+        if (leaseLock.tryAcquire(LEASE, lease)) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops entries past the retention window that a newer entry for the same office
+     * and entity supersedes, in batches; returns the number removed.
+     */
+    public long compact() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        long removed = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(COMPACT_SQL, cutoff, COMPACT_BATCH);
+            removed += batch;
+        } while (batch == COMPACT_BATCH);
+        if (removed > 0) {
+            log.info("Compacted {} change log entries older than {}", removed, cutoff);
+        }
+        return removed;
+    }
+
+    private void record(Office office, String entity, Long entityId, String action) {
+        if (office != null) {
+            record(office.getId(), entity, entityId, action);
+        }
+    }
+
+    private void append(Map<Entry, String> entries, LocalDateTime changedAt) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {}, APPEND_LOCK);
+        Timestamp timestamp = Timestamp.valueOf(changedAt);
+        List<Object[]> batch = new ArrayList<>(entries.size());
+        entries.forEach((entry, action) ->
+                batch.add(new Object[]{entry.officeId(), entry.entity(), entry.entityId(), action, timestamp}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private record Entry(Long officeId, String entity, Long entityId) {
+    }
+
+    /**
+     * Entries of one transaction, appended just before it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Map<Entry, String> entries = new LinkedHashMap<>();
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entries.isEmpty()) {
+                // Take the entity row locks now rather than in the commit, after the append lock
+                if (entityManager.isJoinedToTransaction()) {
+                    entityManager.flush();
+                }
+                append(entries, LocalDateTime.now());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLog.this);
+        }
+    }
+}
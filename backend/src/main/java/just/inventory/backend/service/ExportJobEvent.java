@@ -0,0 +1,9 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ExportJob;
+
+/**
+ * Published locally when an export job finishes, successfully or not.
+ */
+public record ExportJobEvent(Long jobId, Long requestedById, ExportJob.Status status) {
+}
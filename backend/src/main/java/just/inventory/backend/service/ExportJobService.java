@@ -0,0 +1,282 @@
+package just.inventory.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import just.inventory.backend.model.ExportJob;
+import just.inventory.backend.repository.ExportJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background export jobs.
+ *
+ * The {@code export_jobs} table is the queue: a job is inserted as QUEUED, handed to the
+ * local worker pool once the transaction commits, and claimed with a conditional update
+ * so only one worker (on any node) runs it. A periodic poll picks up jobs nobody
+ * submitted (e.g. queued on a node that went down) and re-queues RUNNING jobs whose
+ * heartbeat went stale; the row's version makes the worker that lost such a job fail
+ * to finish it. Artifacts are written through a {@link FileChannel} to a temp file in
+ * the export directory and moved into place when complete, then removed by the
+ * retention sweep on whichever node holds its lease. With more than one node the
+ * directory must be shared storage (e.g. an NFS volume) so any node can serve the
+ * download.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private List<ExportWriter> writers;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Value("${app.export.directory:${java.io.tmpdir}/inventory-exports}")
+    private Path directory;
+
+    @Value("${app.export.workers:2}")
+    private int workers;
+
+    @Value("${app.export.retention:24h}")
+    private Duration retention;
+
+    @Value("${app.export.stale-after:10m}")
+    private Duration staleAfter;
+
+    @Value("${app.export.progress-interval:1s}")
+    private Duration progressInterval;
+
+    @Value("${app.export.cleanup-lease:30m}")
+    private Duration cleanupLease;
+
+    private final Map<ExportJob.Type, ExportWriter> writersByType = new EnumMap<>(ExportJob.Type.class);
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+    private TransactionTemplate progressTransaction;
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (ExportWriter writer : writers) {
+            writersByType.put(writer.getType(), writer);
+        }
+        Files.createDirectories(directory);
+        // Writers stream inside a read-only transaction; progress must commit on its own to be seen (and allowed)
+        progressTransaction = new TransactionTemplate(transactionManager);
+        progressTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "export-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Transactional
+    public ExportJob createJob(ExportJob.Type type, Long targetId, Long requestedById) {
+        if (type == null || !writersByType.containsKey(type)) {
+            throw new RuntimeException("Unsupported export type: " + type);
+        }
+        ExportJob job = new ExportJob();
+        job.setType(type);
+        job.setTargetId(targetId);
+        job.setRequestedById(requestedById);
+        job.setStatus(ExportJob.Status.QUEUED);
+        ExportJob saved = exportJobRepository.save(job);
+        AfterCommit.run(() -> submit(saved.getId()));
+        return saved;
+    }
+
+    public ExportJob getJob(Long id) {
+        return exportJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Export job not found"));
+    }
+
+    public List<ExportJob> getJobsForUser(Long userId) {
+        return exportJobRepository.findByRequestedByIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * The finished artifact, or {@code null} if the job is not complete or the file is
+     * gone (expired, or the export directory is not shared with the node that wrote it).
+     */
+    public Path getArtifact(ExportJob job) {
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            return null;
+        }
+        Path path = artifactPath(job.getId());
+        return Files.isReadable(path) ? path : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.poll-interval:30s}", initialDelayString = "${app.export.poll-interval:30s}")
+    public void pollQueue() {
+        int requeued = exportJobRepository.requeueStale(LocalDateTime.now().minus(staleAfter),
+                ExportJob.Status.RUNNING, ExportJob.Status.QUEUED);
+        if (requeued > 0) {
+            log.warn("Re-queued {} export job(s) with a stale heartbeat", requeued);
+        }
+        for (Long id : exportJobRepository.findIdsByStatus(ExportJob.Status.QUEUED)) {
+            submit(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval:15m}")
+    public void removeExpired() {
+        if (!leaseLock.tryAcquire("export-cleanup", cleanupLease)) {
+            return;
+        }
+        for (ExportJob job : exportJobRepository.findByStatusAndExpiresAtBefore(ExportJob.Status.COMPLETED, LocalDateTime.now())) {
+            try {
+                Files.deleteIfExists(artifactPath(job.getId()));
+            } catch (IOException e) {
+                log.warn("Could not delete export artifact {}: {}", job.getId(), e.getMessage());
+                continue;
+            }
+            job.setStatus(ExportJob.Status.EXPIRED);
+            exportJobRepository.save(job);
+        }
+    }
+
+    private void submit(Long jobId) {
+        // Already queued or running here; the claim guards against other nodes
+        if (inFlight.add(jobId)) {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        }
+    }
+
+    private void run(Long jobId) {
+        if (exportJobRepository.claim(jobId, LocalDateTime.now(), ExportJob.Status.QUEUED, ExportJob.Status.RUNNING) == 0) {
+            return;
+        }
+        ExportJob job = getJob(jobId);
+        ExportWriter writer = writersByType.get(job.getType());
+        Path target = artifactPath(jobId);
+        // Unique per attempt: a worker that lost a stale job may still be writing its own
+        Path temp = directory.resolve(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                writer.write(job, out, progressReporter(jobId));
+                out.flush();
+                channel.force(false);
+            }
+            job = getJob(jobId);
+            if (job.getStatus() != ExportJob.Status.RUNNING) {
+                log.warn("Export job {} was re-queued while running; discarding this result", jobId);
+                Files.deleteIfExists(temp);
+                return;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setStatus(ExportJob.Status.COMPLETED);
+            job.setFileName(writer.getFileName(job));
+            job.setContentType(writer.getContentType());
+            job.setFileSize(Files.size(target));
+            if (job.getTotal() != null) {
+                job.setProgress(job.getTotal());
+            }
+            finish(job);
+        } catch (Exception e) {
+            log.warn("Export job {} ({}) failed: {}", jobId, job.getType(), e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Orphaned temp file; never served
+            }
+            job = getJob(jobId);
+            if (job.getStatus() != ExportJob.Status.RUNNING) {
+                return;
+            }
+            job.setStatus(ExportJob.Status.FAILED);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            finish(job);
+        }
+    }
+
+    private void finish(ExportJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setCompletedAt(now);
+        job.setUpdatedAt(now);
+        if (job.getStatus() == ExportJob.Status.COMPLETED) {
+            job.setExpiresAt(now.plus(retention));
+        }
+        try {
+            exportJobRepository.save(job);
+        } catch (OptimisticLockingFailureException e) {
+            // Re-queued (and possibly claimed elsewhere) since it was read; that run reports instead
+            log.warn("Export job {} changed while finishing; leaving it to its current worker", job.getId());
+            return;
+        }
+        eventPublisher.publishEvent(new ExportJobEvent(job.getId(), job.getRequestedById(), job.getStatus()));
+    }
+
+    /**
+     * Writes progress at most once per interval; the write doubles as the heartbeat.
+     */
+    private ExportWriter.Progress progressReporter(Long jobId) {
+        long intervalNanos = progressInterval.toNanos();
+        long[] lastWrite = {System.nanoTime()};
+        return (done, total) -> {
+            long now = System.nanoTime();
+            if (now - lastWrite[0] >= intervalNanos) {
+                lastWrite[0] = now;
+                progressTransaction.executeWithoutResult(status ->
+                        exportJobRepository.updateProgress(jobId, done, total, LocalDateTime.now()));
+            }
+        };
+    }
+
+    private Path artifactPath(Long jobId) {
+        return directory.resolve("export-" + jobId);
+    }
+}
@@ -0,0 +1,26 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ExportJob;
+
+import java.io.OutputStream;
+
+/**
+ * Produces the artifact for one {@link ExportJob.Type}. Implementations are Spring beans
+ * picked up by the {@link ExportJobService}; they stream into {@code out} and report
+ * progress as they go.
+ */
+public interface ExportWriter {
+
+    ExportJob.Type getType();
+
+    String getFileName(ExportJob job);
+
+    String getContentType();
+
+    void write(ExportJob job, OutputStream out, Progress progress) throws Exception;
+
+    @FunctionalInterface
+    interface Progress {
+        void update(long done, Long total);
+    }
+}
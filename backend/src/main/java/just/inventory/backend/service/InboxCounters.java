@@ -0,0 +1,243 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import just.inventory.backend.dto.CountersView;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.ItemTransaction;
+import just.inventory.backend.model.Office;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-office inbox badge counts in {@code office_counters}, so the dashboard does not
+ * have to load the request and distribution lists just to count them.
+ *
+ * The workflows report each status change here; the deltas are collected per
+ * transaction and applied right before it commits, in a fixed key order so two
+ * transactions touching the same offices cannot deadlock, and are dropped with it
+ * on rollback (so an optimistic retry never counts twice). Changes made outside the
+ * workflows (the reservation sweeper, Data REST writes) are picked up by the
+ * scheduled {@link #reconcile()}.
+ */
+@Slf4j
+@Service
+public class InboxCounters {
+
+    public enum Name {
+        INCOMING,               // Pending requests waiting for this (parent) office to approve
+        APPROVED,               // Approved requests this office still has to fulfil
+        FULFILLED,              // Fulfilled requests this office has yet to confirm
+        PENDING_DISTRIBUTIONS   // Distributions to this office waiting for confirmation
+    }
+
+    static final String LEASE = "inbox-counters";
+
+    private static final String ADD_SQL = "INSERT INTO office_counters (office_id, counter, value) VALUES (?, ?, ?) " +
+            "ON CONFLICT (office_id, counter) DO UPDATE SET value = office_counters.value + EXCLUDED.value";
+
+    private static final String RECONCILE_SQL = "WITH actual AS (" +
+            "  SELECT parent_office_id AS office_id, 'INCOMING' AS counter, COUNT(*) AS value FROM item_requests " +
+            "    WHERE status = 'PENDING' AND parent_office_id IS NOT NULL GROUP BY parent_office_id " +
+            "  UNION ALL SELECT parent_office_id, 'APPROVED', COUNT(*) FROM item_requests " +
+            "    WHERE status = 'APPROVED' AND parent_office_id IS NOT NULL GROUP BY parent_office_id " +
+            "  UNION ALL SELECT requesting_office_id, 'FULFILLED', COUNT(*) FROM item_requests " +
+            "    WHERE status IN ('FULFILLED', 'PARTIALLY_FULFILLED') AND requesting_office_id IS NOT NULL GROUP BY requesting_office_id " +
+            "  UNION ALL SELECT to_office_id, 'PENDING_DISTRIBUTIONS', COUNT(*) FROM item_transactions " +
+            "    WHERE status = 'PENDING' AND to_office_id IS NOT NULL GROUP BY to_office_id" +
+            "), drift AS (" +
+            "  SELECT COALESCE(a.office_id, c.office_id) AS office_id, COALESCE(a.counter, c.counter) AS counter, " +
+            "    COALESCE(a.value, 0) AS value " +
+            "  FROM actual a FULL JOIN office_counters c ON c.office_id = a.office_id AND c.counter = a.counter " +
+            "  WHERE c.value IS DISTINCT FROM a.value AND NOT (a.value IS NULL AND c.value = 0)" +
+            "), fixed AS (" +
+            "  INSERT INTO office_counters (office_id, counter, value) SELECT office_id, counter, value FROM drift " +
+            "  ON CONFLICT (office_id, counter) DO UPDATE SET value = EXCLUDED.value RETURNING 1" +
+            ") SELECT COUNT(*) FROM fixed";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.counters.lease:30m}")
+    private Duration lease;
+
+    private Counter correctedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        correctedCounter = Counter.builder("inventory.counters.corrected")
+                .description("Inbox counters the reconciliation found out of step and corrected")
+                .register(meterRegistry);
+    }
+
+    public CountersView getCounters(Long officeId) {
+        Map<Name, Long> values = new EnumMap<>(Name.class);
+        jdbcTemplate.query("SELECT counter, value FROM office_counters WHERE office_id = ?", rs -> {
+            values.put(Name.valueOf(rs.getString("counter")), Math.max(rs.getLong("value"), 0));
+        }, officeId);
+        return new CountersView(
+                values.getOrDefault(Name.INCOMING, 0L),
+                values.getOrDefault(Name.APPROVED, 0L),
+                values.getOrDefault(Name.FULFILLED, 0L),
+                values.getOrDefault(Name.PENDING_DISTRIBUTIONS, 0L));
+    }
+
+    /**
+     * Records that {@code request} moved from {@code previous} (null when just created)
+     * to its current status.
+     */
+    public void requestChanged(ItemRequest request, ItemRequest.RequestStatus previous) {
+        ItemRequest.RequestStatus current = request.getStatus();
+        if (previous == current) {
+            return;
+        }
+        add(counterFor(previous), officeFor(request, previous), -1);
+        add(counterFor(current), officeFor(request, current), 1);
+    }
+
+    /**
+     * Records that {@code transaction} moved from {@code previous} (null when just created)
+     * to its current status.
+     */
+    public void distributionChanged(ItemTransaction transaction, ItemTransaction.TransactionStatus previous) {
+        ItemTransaction.TransactionStatus current = transaction.getStatus();
+        if (previous == current || transaction.getToOffice() == null) {
+            return;
+        }
+        Long officeId = transaction.getToOffice().getId();
+        if (previous == ItemTransaction.TransactionStatus.PENDING) {
+            add(Name.PENDING_DISTRIBUTIONS, officeId, -1);
+        }
+        if (current == ItemTransaction.TransactionStatus.PENDING) {
+            add(Name.PENDING_DISTRIBUTIONS, officeId, 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.reconcile-interval:15m}")
+    public void scheduledReconcile() {
+        if (leaseLock.tryAcquire(LEASE, lease)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recounts every counter from the source tables and corrects those that drifted;
+     * returns the number corrected.
+     *
+     * The table lock waits for transactions that are committing counter deltas and holds
+     * off new ones until the recount commits, so the recount never overwrites a delta it
+     * did not see. It only blocks the commit step of the workflows, for one grouped scan.
+     */
+    public long reconcile() {
+        Long corrected = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE office_counters IN SHARE ROW EXCLUSIVE MODE");
+            return jdbcTemplate.queryForObject(RECONCILE_SQL, Long.class);
+        });
+        if (corrected != null && corrected > 0) {
+            correctedCounter.increment(corrected);
+            log.warn("Corrected {} inbox counter(s) that had drifted", corrected);
+        }
+        return corrected != null ? corrected : 0;
+    }
+
+    private static Name counterFor(ItemRequest.RequestStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case PENDING -> Name.INCOMING;
+            case APPROVED -> Name.APPROVED;
+            case FULFILLED, PARTIALLY_FULFILLED -> Name.FULFILLED;
+            default -> null;
+        };
+    }
+
+    private static Long officeFor(ItemRequest request, ItemRequest.RequestStatus status) {
+        Office office = counterFor(status) == Name.FULFILLED ? request.getRequestingOffice() : request.getParentOffice();
+        return office != null ? office.getId() : null;
+    }
+
+    private void add(Name counter, Long officeId, long delta) {
+        if (counter == null || officeId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(ADD_SQL, officeId, counter.name(), delta);
+            return;
+        }
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        deltas.values.merge(new Key(officeId, counter), delta, Long::sum);
+    }
+
+    private record Key(Long officeId, Name counter) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byOffice = officeId.compareTo(other.officeId);
+            return byOffice != 0 ? byOffice : counter.compareTo(other.counter);
+        }
+    }
+
+    /**
+     * Deltas of one transaction, flushed in key order just before it commits.
+     */
+    private final class Deltas implements TransactionSynchronization {
+
+        private final Map<Key, Long> values = new TreeMap<>();
+
+        @Override
+        public int getOrder() {
+            // Ahead of the ChangeLog append, which must take its lock after every row lock
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            List<Object[]> batch = new ArrayList<>();
+            values.forEach((key, delta) -> {
+                if (delta != 0) {
+                    batch.add(new Object[]{key.officeId(), key.counter().name(), delta});
+                }
+            });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADD_SQL, batch);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InboxCounters.this);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import just.inventory.backend.dto.StatusChangeRequest;
+import just.inventory.backend.dto.StatusChangeResult;
+import just.inventory.backend.model.ItemInstance.ItemStatus;
+import just.inventory.backend.model.ItemTransaction.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk status changes of item instances: sending to repair, writing off as damaged,
+ * lost or disposed, and bringing repaired or found items back into stock.
+ *
+ * A change is one statement whatever its size: the named instances are locked in id
+ * order, those held by the office's subtree in an allowed source status are updated
+ * with a version bump, and one confirmed {@link TransactionType} row per changed
+ * instance is written to {@code item_transactions}, from and to the owning office.
+ * The matching {@link ChangeLog} entries are appended when the transaction commits.
+ * IN_USE instances are reserved by a pending distribution and are never changed here;
+ * the distribution has to be rejected or expire first.
+ */
+@Service
+public class InstanceStatusService {
+
+    public static final int MAX_INSTANCES = 10000;
+    public static final int MAX_REMARKS_LENGTH = 400;
+
+    private static final Map<ItemStatus, Set<ItemStatus>> ALLOWED_FROM = new EnumMap<>(ItemStatus.class);
+    private static final Map<ItemStatus, TransactionType> AUDIT_TYPE = new EnumMap<>(ItemStatus.class);
+
+    static {
+        allow(ItemStatus.UNDER_REPAIR, TransactionType.DAMAGED, ItemStatus.AVAILABLE, ItemStatus.DAMAGED);
+        allow(ItemStatus.DAMAGED, TransactionType.DAMAGED, ItemStatus.AVAILABLE, ItemStatus.UNDER_REPAIR);
+        allow(ItemStatus.LOST, TransactionType.LOST, ItemStatus.AVAILABLE, ItemStatus.UNDER_REPAIR, ItemStatus.DAMAGED);
+        allow(ItemStatus.DISPOSED, TransactionType.DISPOSED,
+                ItemStatus.AVAILABLE, ItemStatus.UNDER_REPAIR, ItemStatus.DAMAGED, ItemStatus.LOST);
+        // Repaired or found again
+        allow(ItemStatus.AVAILABLE, TransactionType.RETURN, ItemStatus.UNDER_REPAIR, ItemStatus.LOST);
+    }
+
+    // Returns one row per matched instance with its status before the change
+    private static final String CHANGE_SQL = "WITH locked AS (" +
+            "  SELECT id, barcode, status, owner_office_id FROM item_instances " +
+            "  WHERE id = ANY(?::bigint[]) OR barcode = ANY(?::varchar[]) " +
+            "  ORDER BY id FOR UPDATE" +
+            "), changed AS (" +
+            "  UPDATE item_instances ii SET status = ?, version = ii.version + 1 " +
+            "  FROM locked l WHERE ii.id = l.id AND l.owner_office_id = ANY(?::bigint[]) AND l.status = ANY(?::varchar[]) " +
+            "  RETURNING ii.id, ii.owner_office_id, l.status AS previous" +
+            "), audited AS (" +
+            "  INSERT INTO item_transactions (item_instance_id, from_office_id, to_office_id, user_id, transaction_type, status, quantity, " +
+            "    remarks, confirmed_by_user_id, confirmed_date, transaction_date, version) " +
+            "  SELECT id, owner_office_id, owner_office_id, ?, ?, 'CONFIRMED', 1, " +
+            "    CONCAT(previous, ' -> ', ?::varchar, COALESCE(' | ' || ?::varchar, '')), ?, ?::timestamp, ?::timestamp, 0 FROM changed" +
+            ") " +
+            "SELECT l.id, l.barcode, l.status, l.owner_office_id, c.id IS NOT NULL AS changed " +
+            "FROM locked l LEFT JOIN changed c ON c.id = l.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private InventoryRollupCache inventoryRollupCache;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    private static void allow(ItemStatus target, TransactionType type, ItemStatus... from) {
+        ALLOWED_FROM.put(target, EnumSet.of(from[0], from));
+        AUDIT_TYPE.put(target, type);
+    }
+
+    /**
+     * Moves the instances named by barcode or id to {@code request.status}. Instances
+     * outside the subtree of {@code officeId}, or whose current status does not allow
+     * the transition, are left alone and reported back.
+     */
+    @Timed(value = "inventory.instances", extraTags = {"operation", "status"})
+    @Transactional
+    public StatusChangeResult changeStatus(Long officeId, StatusChangeRequest request, Long userId) {
+        ItemStatus target = request.getStatus();
+        if (target == null) {
+            throw new RuntimeException("status is required");
+        }
+        Set<ItemStatus> allowedFrom = ALLOWED_FROM.get(target);
+        if (allowedFrom == null) {
+            throw new RuntimeException("Instances cannot be set to " + target + " directly");
+        }
+        String remarks = request.getRemarks() != null && !request.getRemarks().isBlank() ? request.getRemarks().trim() : null;
+        if (remarks != null && remarks.length() > MAX_REMARKS_LENGTH) {
+            throw new RuntimeException("Remarks must be at most " + MAX_REMARKS_LENGTH + " characters");
+        }
+
+        Set<String> barcodes = new LinkedHashSet<>();
+        if (request.getBarcodes() != null) {
+            for (String barcode : request.getBarcodes()) {
+                if (barcode != null && !barcode.isBlank()) {
+                    barcodes.add(barcode.trim());
+                }
+            }
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getInstanceIds() != null) {
+            for (Long id : request.getInstanceIds()) {
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        int requested = barcodes.size() + ids.size();
+        if (requested == 0) {
+            throw new RuntimeException("No barcodes or instance ids given");
+        }
+        if (requested > MAX_INSTANCES) {
+            throw new RuntimeException("At most " + MAX_INSTANCES + " instances per request");
+        }
+
+        Set<Long> offices = new HashSet<>(officeHierarchy.getSubtreeIds(officeId));
+        if (offices.isEmpty()) {
+            throw new RuntimeException("Office not found");
+        }
+        String[] sources = allowedFrom.stream().map(Enum::name).toArray(String[]::new);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Map<Long, Row> byId = new HashMap<>();
+        Map<String, Row> byBarcode = new HashMap<>();
+        jdbcTemplate.query(CHANGE_SQL, rs -> {
+            Row row = new Row(rs.getLong("id"), ItemStatus.valueOf(rs.getString("status")),
+                    rs.getLong("owner_office_id"), rs.getBoolean("changed"));
+            byId.put(row.id(), row);
+            byBarcode.put(rs.getString("barcode"), row);
+        }, ids.toArray(new Long[0]), barcodes.toArray(new String[0]), target.name(),
+                offices.toArray(new Long[0]), sources,
+                userId, AUDIT_TYPE.get(target).name(), target.name(), remarks, userId, now, now);
+
+        List<Long> changedIds = new ArrayList<>();
+        Set<Long> changedOffices = new HashSet<>();
+        for (Row row : byId.values()) {
+            if (row.changed()) {
+                changedIds.add(row.id());
+                changedOffices.add(row.officeId());
+                changeLog.record(row.officeId(), ChangeLog.INSTANCE, row.id(), target.name());
+            }
+        }
+        changedOffices.forEach(inventoryRollupCache::stockChanged);
+        barcodeIndex.instancesChanged(changedIds);
+
+        List<StatusChangeResult.Rejection> rejections = new ArrayList<>();
+        for (String barcode : barcodes) {
+            reject(barcode, byBarcode.get(barcode), target, offices, rejections);
+        }
+        for (Long id : ids) {
+            reject(String.valueOf(id), byId.get(id), target, offices, rejections);
+        }
+        return new StatusChangeResult(target, requested, changedIds.size(), rejections);
+    }
+
+    private static void reject(String reference, Row row, ItemStatus target, Set<Long> offices,
+                               List<StatusChangeResult.Rejection> rejections) {
+        if (row == null) {
+            rejections.add(new StatusChangeResult.Rejection(reference, null, null, "Not found"));
+            return;
+        }
+        if (row.changed()) {
+            return;
+        }
+        String reason;
+        if (!offices.contains(row.officeId())) {
+            reason = "Not held by this office or its sub-offices";
+        } else if (row.status() == target) {
+            reason = "Already " + target;
+        } else if (row.status() == ItemStatus.IN_USE) {
+            reason = "Reserved by a pending distribution";
+        } else {
+            reason = "Cannot change from " + row.status() + " to " + target;
+        }
+        rejections.add(new StatusChangeResult.Rejection(reference, row.id(), row.status(), reason));
+    }
+
+    private record Row(long id, ItemStatus status, long officeId, boolean changed) {
+    }
+}
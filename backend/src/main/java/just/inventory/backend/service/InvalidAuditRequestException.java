@@ -0,0 +1,13 @@
+package just.inventory.backend.service;
+
+/**
+ * A stock-take step the current state does not allow: an unknown office, a second open
+ * session for an office, scanning or closing a session that is already closed, or an
+ * oversized batch.
+ */
+public class InvalidAuditRequestException extends RuntimeException {
+
+    public InvalidAuditRequestException(String message) {
+        super(message);
+    }
+}
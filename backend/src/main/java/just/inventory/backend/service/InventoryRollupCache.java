@@ -0,0 +1,101 @@
+package just.inventory.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-subtree cache of inventory roll-ups, keyed by the subtree's root office.
+ *
+ * A stock change in one office invalidates the roll-up of that office and of every
+ * ancestor (O(depth) via the {@link OfficeHierarchy}); siblings stay cached. Changes
+ * are also announced as {@code stock:<officeId>} on the {@link CacheInvalidationBus},
+ * and any change to the office tree itself clears everything.
+ */
+@Service
+public class InventoryRollupCache {
+
+    public static final String STOCK = "stock";
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.inventory.rollup-cache.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, Map<String, Object>> rollups = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Makes the generation check and the put one step against evictions
+    private final Object lock = new Object();
+
+    public Map<String, Object> get(Long officeId, Supplier<Map<String, Object>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Map<String, Object> cached = rollups.get(officeId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        Map<String, Object> loaded = loader.get();
+        // Only keep the result if nothing was invalidated while it was being computed
+        synchronized (lock) {
+            if (generation.get() == loadGeneration) {
+                rollups.put(officeId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Record that the stock held by an office changed. Safe to call inside a transaction:
+     * the roll-ups are dropped now and again after commit.
+     */
+    public void stockChanged(Long officeId) {
+        if (officeId == null) {
+            return;
+        }
+        evictUpwards(officeId);
+        cacheInvalidationBus.publish(STOCK, officeId);
+        AfterCommit.run(() -> evictUpwards(officeId));
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFlush() || "office".equals(event.entity())) {
+            clear();
+        } else if (STOCK.equals(event.entity())) {
+            try {
+                evictUpwards(Long.valueOf(event.id()));
+            } catch (NumberFormatException e) {
+                clear();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            rollups.clear();
+        }
+    }
+
+    private void evictUpwards(Long officeId) {
+        List<Long> ancestorIds = officeHierarchy.getAncestorIds(officeId);
+        synchronized (lock) {
+            generation.incrementAndGet();
+            rollups.remove(officeId);
+            ancestorIds.forEach(rollups::remove);
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.InventoryView;
+import just.inventory.backend.dto.ItemInstanceView;
+import just.inventory.backend.dto.OfficeRef;
 import just.inventory.backend.model.*;
 import just.inventory.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class InventoryService {
 
-    // @Autowired
-    // private InventoryRepository inventoryRepository;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
 
     @Autowired
     private ItemInstanceRepository itemInstanceRepository;
@@ -22,6 +33,12 @@ public class InventoryService {
     @Autowired
     private OfficeRepository officeRepository;
 
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private InventoryRollupCache inventoryRollupCache;
+
     public Inventory getInventoryByOfficeId(Long officeId) {
         Office office = officeRepository.findById(officeId)
                 .orElseThrow(() -> new RuntimeException("Office not found"));
@@ -34,14 +51,60 @@ public class InventoryService {
         return inventory;
     }
 
+    /**
+     * Inventory header with counts; the instance window is only queried when {@code page}
+     * or {@code size} is given. Two queries without a window, three with one.
+     */
+    @Transactional(readOnly = true)
+    public InventoryView getInventoryView(Long officeId, Integer page, Integer size) {
+        InventoryRepository.HeaderRow header = inventoryRepository.findHeaderByOfficeId(officeId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found for office"));
+
+        Map<ItemInstance.ItemStatus, Long> statusCounts = new EnumMap<>(ItemInstance.ItemStatus.class);
+        long totalItems = 0;
+        double totalValue = 0;
+        for (ItemInstanceRepository.StatusCountRow row : itemInstanceRepository.countByInventoryIdGroupByStatus(header.getInventoryId())) {
+            statusCounts.put(row.getStatus(), row.getQuantity());
+            totalItems += row.getQuantity();
+            totalValue += row.getTotalValue();
+        }
+
+        InventoryView.InstancePage instances = null;
+        if (page != null || size != null) {
+            int pageNumber = Math.max(page != null ? page : 0, 0);
+            int pageSize = Math.min(Math.max(size != null ? size : 50, 1), MAX_PAGE_SIZE);
+            List<ItemInstanceView> content = totalItems > (long) pageNumber * pageSize
+                    ? itemInstanceRepository.findViewsByInventoryId(header.getInventoryId(), PageRequest.of(pageNumber, pageSize))
+                    : List.of();
+            int totalPages = (int) ((totalItems + pageSize - 1) / pageSize);
+            instances = new InventoryView.InstancePage(pageNumber, pageSize, totalItems, totalPages, content);
+        }
+
+        return new InventoryView(header.getInventoryId(),
+                new OfficeRef(header.getOfficeId(), header.getOfficeName(), header.getOfficeCode()),
+                totalItems, totalValue, statusCounts, instances);
+    }
+
     public List<ItemInstance> getItemInstancesByOfficeId(Long officeId) {
         Inventory inventory = getInventoryByOfficeId(officeId);
         return itemInstanceRepository.findByInventoryId(inventory.getId());
     }
 
+    /**
+     * Stock list of an office as read models, in a single query
+     */
+    public List<ItemInstanceView> getItemInstanceViewsByOfficeId(Long officeId) {
+        return itemInstanceRepository.findViewsByInventoryOfficeId(officeId);
+    }
+
     public Map<String, Object> getInventorySummaryByOfficeId(Long officeId) {
-        List<ItemInstance> instances = getItemInstancesByOfficeId(officeId);
-        
+        return summarize(officeId, getItemInstancesByOfficeId(officeId));
+    }
+
+    /**
+     * Groups already loaded instances by item and status (no database access)
+     */
+    public Map<String, Object> summarize(Long officeId, List<ItemInstance> instances) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("officeId", officeId);
         summary.put("totalItems", instances.size());
@@ -76,6 +139,55 @@ public class InventoryService {
         return summary;
     }
 
+    /**
+     * Stock of an office and everything below it (e.g. a whole faculty), aggregated in the database
+     */
+    public Map<String, Object> getInventoryRollupByOfficeId(Long officeId) {
+        if (!officeHierarchy.getTree().contains(officeId)) {
+            throw new RuntimeException("Office not found");
+        }
+        return inventoryRollupCache.get(officeId, () -> buildRollup(officeId));
+    }
+
+    private Map<String, Object> buildRollup(Long officeId) {
+        List<ItemInstanceRepository.RollupRow> rows = itemInstanceRepository.rollupBySubtree(officeId);
+
+        Map<Long, Map<String, Object>> byItem = new LinkedHashMap<>();
+        Map<String, Long> overallStatus = new TreeMap<>();
+        long totalItems = 0;
+        double totalValue = 0;
+
+        for (ItemInstanceRepository.RollupRow row : rows) {
+            Map<String, Object> itemSummary = byItem.computeIfAbsent(row.getItemId(), id -> {
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("itemId", id);
+                summary.put("itemName", row.getItemName());
+                summary.put("quantity", 0L);
+                summary.put("totalValue", 0.0);
+                summary.put("statusBreakdown", new TreeMap<String, Long>());
+                return summary;
+            });
+            itemSummary.put("quantity", (Long) itemSummary.get("quantity") + row.getQuantity());
+            itemSummary.put("totalValue", (Double) itemSummary.get("totalValue") + row.getTotalValue());
+            @SuppressWarnings("unchecked")
+            Map<String, Long> statusBreakdown = (Map<String, Long>) itemSummary.get("statusBreakdown");
+            statusBreakdown.merge(row.getStatus(), row.getQuantity(), Long::sum);
+
+            overallStatus.merge(row.getStatus(), row.getQuantity(), Long::sum);
+            totalItems += row.getQuantity();
+            totalValue += row.getTotalValue();
+        }
+
+        Map<String, Object> rollup = new LinkedHashMap<>();
+        rollup.put("officeId", officeId);
+        rollup.put("officeCount", officeHierarchy.getSubtreeIds(officeId).size());
+        rollup.put("totalItems", totalItems);
+        rollup.put("totalValue", totalValue);
+        rollup.put("overallStatusBreakdown", overallStatus);
+        rollup.put("items", new ArrayList<>(byItem.values()));
+        return rollup;
+    }
+
     public ItemInstance getItemInstanceById(Long id) {
         return itemInstanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Item instance not found"));
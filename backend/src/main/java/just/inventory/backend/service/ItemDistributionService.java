@@ -1,10 +1,15 @@
 package just.inventory.backend.service;
 
+import io.micrometer.core.annotation.Timed;
+import just.inventory.backend.dto.ItemTransactionView;
 import just.inventory.backend.model.*;
 import just.inventory.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import java.util.ArrayList;
@@ -22,15 +27,31 @@ public class ItemDistributionService {
     @Autowired
     private ItemTransactionRepository itemTransactionRepository;
 
-    @Transactional
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // How long a pending distribution holds its instance before the sweeper releases it
+    @Value("${app.reservations.ttl:72h}")
+    private Duration reservationTtl;
+
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "distribute"})
     public List<ItemTransaction> distributeItems(Long fromOfficeId, Long toOfficeId, Long itemId, 
                                                    int quantity, User distributedBy, String remarks) {
         return distributeItems(fromOfficeId, toOfficeId, itemId, quantity, distributedBy, remarks, null);
     }
 
-    @Transactional
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "distribute"})
     public List<ItemTransaction> distributeItems(Long fromOfficeId, Long toOfficeId, Long itemId, 
                                                    int quantity, User distributedBy, String remarks, ItemRequest itemRequest) {
+        return optimisticRetry.execute("distribute", () -> doDistributeItems(fromOfficeId, toOfficeId, itemId,
+                quantity, distributedBy, remarks, itemRequest));
+    }
+
+    private List<ItemTransaction> doDistributeItems(Long fromOfficeId, Long toOfficeId, Long itemId,
+                                                      int quantity, User distributedBy, String remarks, ItemRequest itemRequest) {
         // Validate offices
         Office fromOffice = officeRepository.findById(fromOfficeId)
                 .orElseThrow(() -> new RuntimeException("Source office not found"));
@@ -67,12 +88,15 @@ public class ItemDistributionService {
         }
         
         List<ItemTransaction> transactions = new ArrayList<>();
+        WorkflowChangeEvent change = new WorkflowChangeEvent();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
         
         // Create PENDING distribution transactions (items not yet transferred)
         for (ItemInstance item : availableItems) {
             // Mark item as IN_USE (reserved for distribution)
             item.setStatus(ItemInstance.ItemStatus.IN_USE);
             itemInstanceRepository.save(item);
+            change.instance(item);
             
             // Create pending transaction record
             ItemTransaction transaction = new ItemTransaction();
@@ -85,21 +109,33 @@ public class ItemDistributionService {
             transaction.setQuantity(1.0);
             transaction.setRemarks(remarks);
             transaction.setItemRequest(itemRequest);
+            transaction.setExpiresAt(expiresAt);
             
             transactions.add(itemTransactionRepository.save(transaction));
+            change.distribution(transaction, null);
         }
         
+        eventPublisher.publishEvent(change);
+        
         return transactions;
     }
 
-    @Transactional
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "confirm"})
     public ItemTransaction confirmDistribution(Long transactionId, User confirmedBy) {
+        return optimisticRetry.execute("confirm_distribution", () -> doConfirmDistribution(transactionId, confirmedBy));
+    }
+
+    private ItemTransaction doConfirmDistribution(Long transactionId, User confirmedBy) {
         ItemTransaction transaction = itemTransactionRepository.findById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
         if (transaction.getStatus() != ItemTransaction.TransactionStatus.PENDING) {
             throw new RuntimeException("Transaction is not pending confirmation");
         }
+        // Past its expiry the instance is about to be (or already being) released by the sweeper
+        if (transaction.getExpiresAt() != null && transaction.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("The reservation for this distribution has expired");
+        }
         
         // Transfer the item
         ItemInstance item = transaction.getItemInstance();
@@ -115,11 +151,18 @@ public class ItemDistributionService {
         transaction.setConfirmedBy(confirmedBy);
         transaction.setConfirmedDate(LocalDateTime.now());
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent()
+                .instanceMoved(item, transaction.getFromOffice())
+                .distribution(transaction, ItemTransaction.TransactionStatus.PENDING));
         return itemTransactionRepository.save(transaction);
     }
 
-    @Transactional
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "reject"})
     public ItemTransaction rejectDistribution(Long transactionId, User rejectedBy, String reason) {
+        return optimisticRetry.execute("reject_distribution", () -> doRejectDistribution(transactionId, rejectedBy, reason));
+    }
+
+    private ItemTransaction doRejectDistribution(Long transactionId, User rejectedBy, String reason) {
         ItemTransaction transaction = itemTransactionRepository.findById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
@@ -138,29 +181,30 @@ public class ItemDistributionService {
         transaction.setConfirmedDate(LocalDateTime.now());
         transaction.setRemarks(transaction.getRemarks() + " | REJECTED: " + reason);
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent()
+                .instance(item)
+                .distribution(transaction, ItemTransaction.TransactionStatus.PENDING));
         return itemTransactionRepository.save(transaction);
     }
 
-    public List<ItemTransaction> getPendingDistributions(Long officeId) {
-        return itemTransactionRepository.findByToOfficeIdAndStatus(
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "pending"})
+    public List<ItemTransactionView> getPendingDistributions(Long officeId) {
+        return itemTransactionRepository.findViewsByToOfficeIdAndStatus(
             officeId, ItemTransaction.TransactionStatus.PENDING);
     }
 
-    public List<ItemTransaction> getTransactionHistory(Long officeId) {
-        List<ItemTransaction> sent = itemTransactionRepository.findByFromOfficeId(officeId);
-        List<ItemTransaction> received = itemTransactionRepository.findByToOfficeId(officeId);
-        
-        List<ItemTransaction> all = new ArrayList<>();
-        all.addAll(sent);
-        all.addAll(received);
-        
-        return all;
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "history"})
+    public List<ItemTransactionView> getTransactionHistory(Long officeId) {
+        // Sent and received in one query, most recent first
+        return itemTransactionRepository.findViewsByOfficeId(officeId);
     }
 
-    public List<ItemTransaction> getItemTransactionHistory(Long itemInstanceId) {
-        return itemTransactionRepository.findByItemInstanceId(itemInstanceId);
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "item_history"})
+    public List<ItemTransactionView> getItemTransactionHistory(Long itemInstanceId) {
+        return itemTransactionRepository.findViewsByItemInstanceId(itemInstanceId);
     }
 
+    @Timed(value = "inventory.distribution", extraTags = {"operation", "confirm_for_request"})
     @Transactional
     public List<ItemTransaction> confirmDistributionsForRequest(Long itemRequestId, User confirmedBy) {
         List<ItemTransaction> transactions = itemTransactionRepository.findByItemRequestId(itemRequestId);
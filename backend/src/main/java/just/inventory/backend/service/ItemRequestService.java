@@ -1,15 +1,15 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.ItemRequestView;
 import just.inventory.backend.model.*;
 import just.inventory.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ItemRequestService {
@@ -35,6 +35,12 @@ public class ItemRequestService {
     @Autowired
     private ItemDistributionService itemDistributionService;
 
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public ItemRequest createItemRequest(ItemRequest itemRequest) {
         // Validate and set default values
@@ -67,7 +73,9 @@ public class ItemRequestService {
             itemRequest.setRequestedBy(user);
         }
         
-        return itemRequestRepository.save(itemRequest);
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        eventPublisher.publishEvent(new WorkflowChangeEvent().request(saved, null));
+        return saved;
     }
 
     public List<ItemRequest> getAllItemRequests() {
@@ -79,13 +87,17 @@ public class ItemRequestService {
                 .orElseThrow(() -> new RuntimeException("Item request not found"));
     }
 
-    public List<ItemRequest> getRequestsByOffice(Long officeId) {
-        return itemRequestRepository.findByRequestingOfficeId(officeId);
+    public List<ItemRequestView> getRequestsByOffice(Long officeId) {
+        return itemRequestRepository.findViewsByRequestingOfficeId(officeId);
     }
 
-    @Transactional
     public ItemRequest approveRequest(Long requestId, Long approvedByUserId, Double approvedQuantity) {
+        return optimisticRetry.execute("approve_request", () -> doApproveRequest(requestId, approvedByUserId, approvedQuantity));
+    }
+
+    private ItemRequest doApproveRequest(Long requestId, Long approvedByUserId, Double approvedQuantity) {
         ItemRequest request = getItemRequestById(requestId);
+        ItemRequest.RequestStatus previous = request.getStatus();
         User approver = userRepository.findById(approvedByUserId)
                 .orElseThrow(() -> new RuntimeException("Approver not found"));
         
@@ -94,12 +106,17 @@ public class ItemRequestService {
         request.setApprovedQuantity(approvedQuantity);
         request.setApprovedDate(LocalDateTime.now());
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent().request(request, previous));
         return itemRequestRepository.save(request);
     }
 
-    @Transactional
     public ItemRequest fulfillRequest(Long requestId, Long fulfilledByUserId, int quantity) {
+        return optimisticRetry.execute("fulfill_request", () -> doFulfillRequest(requestId, fulfilledByUserId, quantity));
+    }
+
+    private ItemRequest doFulfillRequest(Long requestId, Long fulfilledByUserId, int quantity) {
         ItemRequest request = getItemRequestById(requestId);
+        ItemRequest.RequestStatus previous = request.getStatus();
         
         // Check if request can be fulfilled
         if (request.getStatus() != ItemRequest.RequestStatus.APPROVED && 
@@ -146,12 +163,17 @@ public class ItemRequestService {
         
         request.setFulfilledDate(LocalDateTime.now());
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent().request(request, previous));
         return itemRequestRepository.save(request);
     }
 
-    @Transactional
     public ItemRequest rejectRequest(Long requestId, Long approvedByUserId, String remarks) {
+        return optimisticRetry.execute("reject_request", () -> doRejectRequest(requestId, approvedByUserId, remarks));
+    }
+
+    private ItemRequest doRejectRequest(Long requestId, Long approvedByUserId, String remarks) {
         ItemRequest request = getItemRequestById(requestId);
+        ItemRequest.RequestStatus previous = request.getStatus();
         User approver = userRepository.findById(approvedByUserId)
                 .orElseThrow(() -> new RuntimeException("Approver not found"));
         
@@ -160,27 +182,30 @@ public class ItemRequestService {
         request.setRemarks(remarks);
         request.setRejectedDate(LocalDateTime.now());
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent().request(request, previous));
         return itemRequestRepository.save(request);
     }
 
-    public List<ItemRequest> getPendingRequestsForOffice(Long officeId) {
-        return itemRequestRepository.findByParentOfficeIdAndStatus(officeId, ItemRequest.RequestStatus.PENDING);
+    public List<ItemRequestView> getPendingRequestsForOffice(Long officeId) {
+        return itemRequestRepository.findViewsByParentOfficeIdAndStatus(officeId, ItemRequest.RequestStatus.PENDING);
     }
 
-    public List<ItemRequest> getApprovedRequestsForOffice(Long officeId) {
-        return itemRequestRepository.findByParentOfficeIdAndStatus(officeId, ItemRequest.RequestStatus.APPROVED);
+    public List<ItemRequestView> getApprovedRequestsForOffice(Long officeId) {
+        return itemRequestRepository.findViewsByParentOfficeIdAndStatus(officeId, ItemRequest.RequestStatus.APPROVED);
     }
 
-    public List<ItemRequest> getFulfilledRequestsForOffice(Long officeId) {
-        return itemRequestRepository.findByRequestingOfficeId(officeId).stream()
-                .filter(request -> request.getStatus() == ItemRequest.RequestStatus.FULFILLED ||
-                                   request.getStatus() == ItemRequest.RequestStatus.PARTIALLY_FULFILLED)
-                .collect(Collectors.toList());
+    public List<ItemRequestView> getFulfilledRequestsForOffice(Long officeId) {
+        return itemRequestRepository.findViewsByRequestingOfficeIdAndStatusIn(officeId,
+                List.of(ItemRequest.RequestStatus.FULFILLED, ItemRequest.RequestStatus.PARTIALLY_FULFILLED));
     }
 
-    @Transactional
     public ItemRequest confirmReceipt(Long requestId, Long confirmedByUserId, String remarks) {
+        return optimisticRetry.execute("confirm_receipt", () -> doConfirmReceipt(requestId, confirmedByUserId, remarks));
+    }
+
+    private ItemRequest doConfirmReceipt(Long requestId, Long confirmedByUserId, String remarks) {
         ItemRequest request = getItemRequestById(requestId);
+        ItemRequest.RequestStatus previous = request.getStatus();
         
         // Check if request can be confirmed
         if (request.getStatus() != ItemRequest.RequestStatus.FULFILLED && 
@@ -205,28 +230,14 @@ public class ItemRequestService {
         request.setConfirmedDate(LocalDateTime.now());
         request.setConfirmationRemarks(remarks);
         
+        eventPublisher.publishEvent(new WorkflowChangeEvent().request(request, previous));
         return itemRequestRepository.save(request);
     }
 
-    public List<ItemRequest> getHistoryForOffice(Long officeId) {
-        // Get all requests where office is either requesting or parent office
-        List<ItemRequest> requestingHistory = itemRequestRepository.findByRequestingOfficeId(officeId);
-        List<ItemRequest> parentHistory = itemRequestRepository.findByParentOfficeId(officeId);
-        
-        // Combine both lists and remove duplicates (shouldn't happen, but just in case)
-        List<ItemRequest> allHistory = new ArrayList<>();
-        allHistory.addAll(requestingHistory);
-        
-        // Add parent office requests that aren't already in the list
-        for (ItemRequest request : parentHistory) {
-            if (!requestingHistory.contains(request)) {
-                allHistory.add(request);
-            }
-        }
-        
-        // Sort by requested date, most recent first
-        allHistory.sort((r1, r2) -> r2.getRequestedDate().compareTo(r1.getRequestedDate()));
-        
-        return allHistory;
+    /**
+     * Requests the office sent or received, most recent first
+     */
+    public List<ItemRequestView> getHistoryForOffice(Long officeId) {
+        return itemRequestRepository.findViewsByOfficeId(officeId);
     }
 }
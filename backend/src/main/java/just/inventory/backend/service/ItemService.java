@@ -1,5 +1,6 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.ItemView;
 import just.inventory.backend.model.Item;
 import just.inventory.backend.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +15,36 @@ import java.util.Optional;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ItemTypeaheadIndex itemTypeaheadIndex;
 
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    public List<ItemView> getAllItems() {
+        return referenceDataCache.getItems().stream().map(ItemView::of).toList();
+    }
+
+    public List<ItemView> searchItems(String query, Long categoryId, Long unitId, Integer limit) {
+        String text = query != null ? query.trim() : "";
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        // Escape LIKE wildcards so user input is matched literally
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return itemRepository.search(text, "%" + escaped + "%", escaped + "%", categoryId, unitId, clampLimit(limit))
+                .stream().map(ItemView::of).toList();
+    }
+
+    public List<ItemView> typeahead(String prefix, Integer limit) {
+        return itemTypeaheadIndex.lookup(prefix, clampLimit(limit)).stream().map(ItemView::of).toList();
+    }
+
+    private int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        return Math.min(limit, MAX_SEARCH_LIMIT);
     }
 
     public Optional<Item> getItemById(Long id) {
@@ -25,7 +53,9 @@ public class ItemService {
 
     @Transactional
     public Item createItem(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        referenceDataCache.evictItems();
+        return saved;
     }
 
     @Transactional
@@ -36,6 +66,7 @@ public class ItemService {
                     item.setDescription(itemDetails.getDescription());
                     item.setCategory(itemDetails.getCategory());
                     item.setUnit(itemDetails.getUnit());
+                    referenceDataCache.evictItems();
                     return itemRepository.save(item);
                 });
     }
@@ -45,6 +76,7 @@ public class ItemService {
         return itemRepository.findById(id)
                 .map(item -> {
                     itemRepository.delete(item);
+                    referenceDataCache.evictItems();
                     return true;
                 })
                 .orElse(false);
@@ -1,5 +1,6 @@
 package just.inventory.backend.service;
 
+import io.micrometer.core.annotation.Timed;
 import just.inventory.backend.model.*;
 import just.inventory.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,9 +20,17 @@ public class ItemTrackingService {
     @Autowired
     private PurchaseRepository purchaseRepository;
 
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Timed(value = "inventory.tracking.lookup", extraTags = {"mode", "single"})
     public Map<String, Object> trackItemByBarcode(String barcode) {
-        // Find the item instance
-        ItemInstance itemInstance = itemInstanceRepository.findByBarcode(barcode)
+        // Resolve through the in-memory index: unknown barcodes never reach the database
+        BarcodeIndex.Entry entry = barcodeIndex.lookup(barcode);
+        if (entry == null) {
+            throw new RuntimeException("Item not found with barcode: " + barcode);
+        }
+        ItemInstance itemInstance = itemInstanceRepository.findById(entry.instanceId())
                 .orElseThrow(() -> new RuntimeException("Item not found with barcode: " + barcode));
         
         Map<String, Object> trackingInfo = new LinkedHashMap<>();
@@ -149,6 +158,7 @@ public class ItemTrackingService {
         return trackingInfo;
     }
 
+    @Timed(value = "inventory.tracking.lookup", extraTags = {"mode", "batch"})
     public List<Map<String, Object>> trackMultipleItems(List<String> barcodes) {
         List<Map<String, Object>> results = new ArrayList<>();
         for (String barcode : barcodes) {
@@ -0,0 +1,119 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * In-memory prefix index over the cached item catalogue for typeahead.
+ *
+ * Every item contributes its full name and each word of it as keys; the keys are kept
+ * in one sorted array so a prefix lookup is a binary search followed by a short scan.
+ * The index is rebuilt lazily whenever the cached item set changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItemTypeaheadIndex {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private volatile Snapshot snapshot;
+
+    public List<Item> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return getSnapshot().lookup(key, limit);
+    }
+
+    private Snapshot getSnapshot() {
+        long itemsVersion = referenceDataCache.getItemsVersion();
+        Snapshot current = snapshot;
+        if (current == null || current.version != itemsVersion) {
+            current = Snapshot.build(itemsVersion, referenceDataCache.getItems());
+            snapshot = current;
+        }
+        return current;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final String[] keys;
+        private final Item[] items;
+        // Full-name keys rank above word keys
+        private final boolean[] fullName;
+
+        private Snapshot(long version, String[] keys, Item[] items, boolean[] fullName) {
+            this.version = version;
+            this.keys = keys;
+            this.items = items;
+            this.fullName = fullName;
+        }
+
+        static Snapshot build(long version, List<Item> catalogue) {
+            List<Entry> entries = new ArrayList<>(catalogue.size() * 4);
+            for (Item item : catalogue) {
+                String name = normalize(item.getName());
+                if (name.isEmpty()) {
+                    continue;
+                }
+                entries.add(new Entry(name, item, true));
+                for (String word : name.split("[^\\p{L}\\p{N}]+")) {
+                    if (!word.isEmpty() && !name.startsWith(word)) {
+                        entries.add(new Entry(word, item, false));
+                    }
+                }
+            }
+            entries.sort((a, b) -> a.key().compareTo(b.key()));
+
+            int size = entries.size();
+            String[] keys = new String[size];
+            Item[] items = new Item[size];
+            boolean[] fullName = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                keys[i] = entry.key();
+                items[i] = entry.item();
+                fullName[i] = entry.fullName();
+            }
+            return new Snapshot(version, keys, items, fullName);
+        }
+
+        List<Item> lookup(String prefix, int limit) {
+            int from = Arrays.binarySearch(keys, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+
+            // Two passes over the matching range: full-name matches first, then word matches
+            // (dedupe by id: entity equals/hashCode would walk the lazy associations)
+            Set<Long> seen = new HashSet<>();
+            List<Item> result = new ArrayList<>();
+            for (int pass = 0; pass < 2 && result.size() < limit; pass++) {
+                boolean wantFullName = pass == 0;
+                for (int i = from; i < keys.length && keys[i].startsWith(prefix) && result.size() < limit; i++) {
+                    if (fullName[i] == wantFullName && seen.add(items[i].getId())) {
+                        result.add(items[i]);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private record Entry(String key, Item item, boolean fullName) {
+    }
+}
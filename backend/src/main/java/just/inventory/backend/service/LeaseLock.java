@@ -0,0 +1,43 @@
+package just.inventory.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease-based lock in the {@code scheduler_leases} table for jobs that must run on one
+ * node at a time. A lease is taken (or renewed by its holder) with a single conditional
+ * upsert and simply runs out if the holder dies, so there is nothing to release.
+ * Leases should outlive the job's interval so the holder keeps renewing its own lease.
+ */
+@Component
+public class LeaseLock {
+
+    private static final String ACQUIRE_SQL = "INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE scheduler_leases.owner = EXCLUDED.owner OR scheduler_leases.expires_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String owner = hostName() + ":" + UUID.randomUUID();
+
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update(ACQUIRE_SQL, name, owner, now.plus(lease), now) == 1;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package just.inventory.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Holds the current {@link OfficeTree} snapshot. The tree is rebuilt lazily from the
+ * cached office set whenever that set has been evicted (locally or by another node),
+ * so hierarchy checks never touch the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class OfficeHierarchy {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private volatile OfficeTree tree;
+
+    public OfficeTree getTree() {
+        long officesVersion = referenceDataCache.getOfficesVersion();
+        OfficeTree current = tree;
+        if (current == null || current.getVersion() != officesVersion) {
+            current = OfficeTree.build(officesVersion, referenceDataCache.getOffices());
+            tree = current;
+        }
+        return current;
+    }
+
+    public boolean isInSubtree(Long rootId, Long officeId) {
+        return getTree().isInSubtree(rootId, officeId);
+    }
+
+    public boolean isAncestor(Long ancestorId, Long officeId) {
+        return getTree().isAncestor(ancestorId, officeId);
+    }
+
+    public List<Long> getAncestorIds(Long officeId) {
+        return getTree().getAncestorIds(officeId);
+    }
+
+    public List<Long> getSubtreeIds(Long officeId) {
+        return getTree().getSubtreeIds(officeId);
+    }
+}
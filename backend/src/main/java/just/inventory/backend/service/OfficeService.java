@@ -1,9 +1,11 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.OfficeView;
 import just.inventory.backend.model.Office;
 import just.inventory.backend.repository.OfficeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,27 +15,51 @@ import java.util.Optional;
 public class OfficeService {
 
     private final OfficeRepository officeRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final OfficeHierarchy officeHierarchy;
 
-    public List<Office> getAllOffices() {
-        return officeRepository.findAll();
+    public List<OfficeView> getAllOffices() {
+        return referenceDataCache.getOffices().stream().map(OfficeView::of).toList();
     }
 
     public Optional<Office> getOfficeById(Long id) {
         return officeRepository.findById(id);
     }
 
-    public List<Office> getChildOffices(Long parentId) {
-        return officeRepository.findByParentId(parentId);
+    /**
+     * Served from the cached office set; loading the entities would also load each
+     * office's inventory row.
+     */
+    public List<OfficeView> getChildOffices(Long parentId) {
+        return referenceDataCache.getOffices().stream()
+                .filter(office -> office.getParent() != null && office.getParent().getId().equals(parentId))
+                .map(OfficeView::of)
+                .toList();
     }
 
+    public OfficeTree getOfficeTree() {
+        return officeHierarchy.getTree();
+    }
+
+    @Transactional
     public Office createOffice(Office office) {
-        return officeRepository.save(office);
+        Office saved = officeRepository.save(office);
+        officeRepository.insertClosure(saved.getId(), parentIdOf(saved));
+        referenceDataCache.evictOffices();
+        return saved;
     }
 
+    @Transactional
     public Office updateOffice(Long id, Office officeDetails) {
         Office office = officeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Office not found with id: " + id));
 
+        Long oldParentId = parentIdOf(office);
+        Long newParentId = parentIdOf(officeDetails);
+        if (newParentId != null && officeHierarchy.isInSubtree(id, newParentId)) {
+            throw new RuntimeException("Cannot move an office under itself or one of its sub-offices");
+        }
+
         office.setName(officeDetails.getName());
         office.setNameBn(officeDetails.getNameBn());
         office.setType(officeDetails.getType());
@@ -43,9 +69,20 @@ public class OfficeService {
         office.setIsActive(officeDetails.getIsActive());
         office.setParent(officeDetails.getParent());
 
-        return officeRepository.save(office);
+        Office saved = officeRepository.save(office);
+
+        // Re-hang the whole subtree in the closure table when the parent changes
+        if (!java.util.Objects.equals(oldParentId, newParentId)) {
+            officeRepository.detachClosureSubtree(id);
+            if (newParentId != null) {
+                officeRepository.attachClosureSubtree(id, newParentId);
+            }
+        }
+        referenceDataCache.evictOffices();
+        return saved;
     }
 
+    @Transactional
     public void deleteOffice(Long id) {
         Office office = officeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Office not found with id: " + id));
@@ -53,5 +90,10 @@ public class OfficeService {
         // Soft delete - set isActive to false instead of actually deleting
         office.setIsActive(false);
         officeRepository.save(office);
+        referenceDataCache.evictOffices();
+    }
+
+    private Long parentIdOf(Office office) {
+        return office.getParent() != null ? office.getParent().getId() : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.dto.OfficeTreeNode;
+import just.inventory.backend.model.Office;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the office hierarchy.
+ *
+ * Offices are laid out in depth-first (pre-order) order, so every subtree occupies a
+ * contiguous slice {@code [position, end)}. Subtree membership and ancestor checks are
+ * two integer comparisons; walking up to the root is O(depth). Built once per change of
+ * the office set by {@link OfficeHierarchy} and shared by all readers.
+ */
+public final class OfficeTree {
+
+    private static final Comparator<Office> SIBLING_ORDER = Comparator
+            .comparing((Office o) -> o.getOrder() != null ? o.getOrder() : Integer.MAX_VALUE)
+            .thenComparing(Office::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final long version;
+    private final Office[] offices;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] end;
+    private final int[][] children;
+    private final int[] roots;
+    private final Map<Long, Integer> positionById;
+
+    private OfficeTree(long version, Office[] offices, int[] parent, int[] depth, int[] end,
+                       int[][] children, int[] roots, Map<Long, Integer> positionById) {
+        this.version = version;
+        this.offices = offices;
+        this.parent = parent;
+        this.depth = depth;
+        this.end = end;
+        this.children = children;
+        this.roots = roots;
+        this.positionById = positionById;
+    }
+
+    public static OfficeTree build(long version, List<Office> source) {
+        Map<Long, Office> byId = new HashMap<>();
+        for (Office office : source) {
+            byId.put(office.getId(), office);
+        }
+
+        Map<Long, List<Office>> childrenById = new HashMap<>();
+        List<Office> rootOffices = new ArrayList<>();
+        for (Office office : source) {
+            Long parentId = office.getParent() != null ? office.getParent().getId() : null;
+            if (parentId == null || !byId.containsKey(parentId)) {
+                rootOffices.add(office);
+            } else {
+                childrenById.computeIfAbsent(parentId, k -> new ArrayList<>()).add(office);
+            }
+        }
+        rootOffices.sort(SIBLING_ORDER);
+        childrenById.values().forEach(list -> list.sort(SIBLING_ORDER));
+
+        int size = source.size();
+        // Pre-order walk from the roots; offices caught in a parent cycle are never reached and are left out
+        Builder builder = new Builder(size, childrenById);
+        List<Integer> rootPositions = new ArrayList<>();
+        for (Office root : rootOffices) {
+            rootPositions.add(builder.place(root, -1, 0));
+        }
+
+        int placed = builder.next;
+        return new OfficeTree(
+                version,
+                Arrays.copyOf(builder.offices, placed),
+                Arrays.copyOf(builder.parent, placed),
+                Arrays.copyOf(builder.depth, placed),
+                Arrays.copyOf(builder.end, placed),
+                Arrays.copyOf(builder.children, placed),
+                rootPositions.stream().mapToInt(Integer::intValue).toArray(),
+                Collections.unmodifiableMap(builder.positionById));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return offices.length;
+    }
+
+    public boolean contains(Long officeId) {
+        return officeId != null && positionById.containsKey(officeId);
+    }
+
+    /**
+     * True if {@code officeId} is {@code rootId} itself or anywhere below it.
+     */
+    public boolean isInSubtree(Long rootId, Long officeId) {
+        Integer root = position(rootId);
+        Integer office = position(officeId);
+        return root != null && office != null && root <= office && office < end[root];
+    }
+
+    /**
+     * True if {@code ancestorId} is a strict ancestor of {@code officeId}.
+     */
+    public boolean isAncestor(Long ancestorId, Long officeId) {
+        return !ancestorId.equals(officeId) && isInSubtree(ancestorId, officeId);
+    }
+
+    public Long getParentId(Long officeId) {
+        Integer position = position(officeId);
+        if (position == null || parent[position] < 0) {
+            return null;
+        }
+        return offices[parent[position]].getId();
+    }
+
+    public int getDepth(Long officeId) {
+        Integer position = position(officeId);
+        return position != null ? depth[position] : -1;
+    }
+
+    /**
+     * Ancestors from the direct parent up to the root.
+     */
+    public List<Long> getAncestorIds(Long officeId) {
+        Integer position = position(officeId);
+        if (position == null) {
+            return List.of();
+        }
+        List<Long> ancestors = new ArrayList<>(depth[position]);
+        for (int p = parent[position]; p >= 0; p = parent[p]) {
+            ancestors.add(offices[p].getId());
+        }
+        return ancestors;
+    }
+
+    /**
+     * The office itself followed by all of its descendants, in tree order.
+     */
+    public List<Long> getSubtreeIds(Long officeId) {
+        Integer position = position(officeId);
+        if (position == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(end[position] - position);
+        for (int p = position; p < end[position]; p++) {
+            ids.add(offices[p].getId());
+        }
+        return ids;
+    }
+
+    public List<Long> getChildIds(Long officeId) {
+        Integer position = position(officeId);
+        if (position == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(children[position].length);
+        for (int child : children[position]) {
+            ids.add(offices[child].getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Nested view of the whole tree, or of one subtree when {@code rootId} is given.
+     */
+    public List<OfficeTreeNode> toNodes(Long rootId) {
+        if (rootId != null) {
+            Integer position = position(rootId);
+            return position != null ? List.of(toNode(position)) : List.of();
+        }
+        List<OfficeTreeNode> nodes = new ArrayList<>(roots.length);
+        for (int root : roots) {
+            nodes.add(toNode(root));
+        }
+        return nodes;
+    }
+
+    private OfficeTreeNode toNode(int position) {
+        Office office = offices[position];
+        OfficeTreeNode node = new OfficeTreeNode();
+        node.setId(office.getId());
+        node.setName(office.getName());
+        node.setNameBn(office.getNameBn());
+        node.setType(office.getType());
+        node.setCode(office.getCode());
+        node.setOrder(office.getOrder());
+        node.setIsActive(office.getIsActive());
+        node.setDepth(depth[position]);
+        List<OfficeTreeNode> kids = new ArrayList<>(children[position].length);
+        for (int child : children[position]) {
+            kids.add(toNode(child));
+        }
+        node.setChildren(kids);
+        return node;
+    }
+
+    private Integer position(Long officeId) {
+        return officeId != null ? positionById.get(officeId) : null;
+    }
+
+    private static final class Builder {
+
+        private final Office[] offices;
+        private final int[] parent;
+        private final int[] depth;
+        private final int[] end;
+        private final int[][] children;
+        private final Map<Long, Integer> positionById;
+        private final Map<Long, List<Office>> childrenById;
+        private int next;
+
+        private Builder(int size, Map<Long, List<Office>> childrenById) {
+            this.offices = new Office[size];
+            this.parent = new int[size];
+            this.depth = new int[size];
+            this.end = new int[size];
+            this.children = new int[size][];
+            this.positionById = new HashMap<>(size * 2);
+            this.childrenById = childrenById;
+        }
+
+        private int place(Office office, int parentPosition, int officeDepth) {
+            int position = next++;
+            offices[position] = office;
+            parent[position] = parentPosition;
+            depth[position] = officeDepth;
+            positionById.put(office.getId(), position);
+
+            List<Office> kids = childrenById.getOrDefault(office.getId(), List.of());
+            children[position] = new int[kids.size()];
+            for (int i = 0; i < kids.size(); i++) {
+                children[position][i] = place(kids.get(i), position, officeDepth + 1);
+            }
+            end[position] = next;
+            return position;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retry-on-conflict policy for the request and distribution workflows.
+ *
+ * Each attempt runs in its own transaction; when the commit hits a stale {@code @Version}
+ * the transaction is rolled back and the whole step is re-run in a fresh persistence
+ * context, so its checks see the winner's changes.
+ * Called inside an existing transaction the action simply joins it and the outermost
+ * caller owns the retry. Conflicts are counted per operation.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.optimistic-retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.optimistic-retry.backoff:20ms}")
+    private Duration backoff;
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("inventory.optimistic.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("inventory.optimistic.exhausted", "operation", operation).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw new ConcurrentUpdateException(
+                            "The record was changed by someone else at the same time, please try again", e);
+                }
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        // Linear backoff with full jitter so colliding writers spread out
+        long bound = backoff.toMillis() * attempt;
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package just.inventory.backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The allocation plan no longer matches the one the client previewed; it has to preview
+ * again before executing.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PlanChangedException extends RuntimeException {
+
+    public PlanChangedException(String message) {
+        super(message);
+    }
+}
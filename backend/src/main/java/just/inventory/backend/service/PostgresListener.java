@@ -0,0 +1,172 @@
+package just.inventory.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The node's single PostgreSQL LISTEN connection, shared by every channel (cache
+ * invalidation, workflow events). It is opened with {@link DriverManager} outside the
+ * Hikari pool and polled by one daemon thread, which hands each notification to the
+ * subscriber of its channel.
+ *
+ * Notifications sent while the connection is down are lost, so subscribers are told
+ * when it drops and again once it is listening, to resynchronise. Subscribers register
+ * while the context starts; the connection is only opened if there is at least one.
+ */
+@Slf4j
+@Component
+public class PostgresListener implements SmartLifecycle {
+
+    public interface Subscriber {
+
+        void onNotification(String payload);
+
+        /**
+         * Listening (again); anything sent before this point was missed.
+         */
+        default void onListening() {
+        }
+
+        /**
+         * The connection dropped; notifications are missed until {@link #onListening()}.
+         */
+        default void onLost() {
+        }
+    }
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${app.pg-listener.poll-timeout:10000}")
+    private int pollTimeout;
+
+    @Value("${app.pg-listener.reconnect-delay:5000}")
+    private long reconnectDelay;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public void subscribe(String channel, Subscriber subscriber) {
+        if (running) {
+            throw new IllegalStateException("Subscribe to " + channel + " before the listener starts");
+        }
+        if (subscribers.putIfAbsent(channel, subscriber) != null) {
+            throw new IllegalStateException("Channel " + channel + " already has a subscriber");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running || subscribers.isEmpty()) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "pg-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscribers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                subscribers.forEach((channel, subscriber) -> deliver(channel, subscriber::onListening));
+                log.info("Listening on channels {}", subscribers.keySet());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications == null || notifications.length == 0) {
+                        // Idle: make sure the socket is still alive, a dead one throws here
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        Subscriber subscriber = subscribers.get(notification.getName());
+                        if (subscriber != null) {
+                            deliver(notification.getName(), () -> subscriber.onNotification(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Listener lost its connection: {}", e.getMessage());
+                subscribers.forEach((channel, subscriber) -> deliver(channel, subscriber::onLost));
+                sleepBeforeReconnect();
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    // One failing subscriber must not stop delivery to the others
+    private void deliver(String channel, Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            log.warn("Subscriber of channel {} failed: {}", channel, e.getMessage());
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Already closing down
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ExportJob;
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.Purchase;
+import just.inventory.backend.model.PurchaseItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Label PDF for every instance received in a purchase; the PDF is streamed page by page
+ * into the artifact file.
+ */
+@Component
+public class PurchaseLabelsExport implements ExportWriter {
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private BarcodeService barcodeService;
+
+    @Override
+    public ExportJob.Type getType() {
+        return ExportJob.Type.PURCHASE_LABELS_PDF;
+    }
+
+    @Override
+    public String getFileName(ExportJob job) {
+        return "purchase-" + job.getTargetId() + "-labels.pdf";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/pdf";
+    }
+
+    @Override
+    public void write(ExportJob job, OutputStream out, Progress progress) throws Exception {
+        Purchase purchase = purchaseService.getPurchaseById(job.getTargetId());
+
+        // The same item may appear on several lines of a purchase
+        Set<Long> instanceIds = new LinkedHashSet<>();
+        for (PurchaseItem purchaseItem : purchase.getItems()) {
+            for (ItemInstance instance : purchaseService.getItemInstancesForPurchase(
+                    purchaseItem.getItem().getId(), purchase.getOffice().getId(), purchase)) {
+                instanceIds.add(instance.getId());
+            }
+        }
+        if (instanceIds.isEmpty()) {
+            throw new RuntimeException("No item instances found for this purchase");
+        }
+        progress.update(0, (long) instanceIds.size());
+        barcodeService.writeBarcodeLabelsPDF(new ArrayList<>(instanceIds), out, progress);
+    }
+}
@@ -1,8 +1,11 @@
 package just.inventory.backend.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import just.inventory.backend.model.*;
 import just.inventory.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +29,16 @@ public class PurchaseService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Timed(value = "inventory.purchase", extraTags = {"operation", "create"})
     @Transactional
     public Purchase createPurchase(Purchase purchase) {
         // Fetch and set relationships
@@ -43,6 +56,7 @@ public class PurchaseService {
         
         // Save the purchase header first
         Purchase savedPurchase = purchaseRepository.save(purchase);
+        changeLog.purchaseCreated(savedPurchase);
         
         // Get inventory for this office
         Inventory inventory = savedPurchase.getOffice().getInventory();
@@ -51,6 +65,7 @@ public class PurchaseService {
         }
         
         // Process each purchase item
+        WorkflowChangeEvent change = new WorkflowChangeEvent();
         for (PurchaseItem purchaseItem : purchase.getItems()) {
             // Fetch and set item
             if (purchaseItem.getItem() != null && purchaseItem.getItem().getId() != null) {
@@ -80,9 +95,15 @@ public class PurchaseService {
                 instance.setPurchasePrice(purchaseItem.getUnitPrice());
                 ItemInstance savedInstance = itemInstanceRepository.save(instance);
                 createdInstances.add(savedInstance);
+                change.instance(savedInstance);
             }
+            
+            // Units per second is rate() of this counter on the Prometheus side
+            meterRegistry.counter("inventory.purchase.units").increment(createdInstances.size());
         }
         
+        eventPublisher.publishEvent(change);
+        
         return savedPurchase;
     }
 
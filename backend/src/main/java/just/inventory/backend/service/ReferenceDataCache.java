@@ -0,0 +1,211 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.dto.CategoryView;
+import just.inventory.backend.dto.ItemView;
+import just.inventory.backend.dto.OfficeView;
+import just.inventory.backend.dto.ReferenceDataResponse;
+import just.inventory.backend.dto.UnitView;
+import just.inventory.backend.model.Category;
+import just.inventory.backend.model.Item;
+import just.inventory.backend.model.Office;
+import just.inventory.backend.model.Unit;
+import just.inventory.backend.repository.CategoryRepository;
+import just.inventory.backend.repository.ItemRepository;
+import just.inventory.backend.repository.OfficeRepository;
+import just.inventory.backend.repository.UnitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the reference catalogue (items, categories, units, offices).
+ * Each set is loaded lazily on first read and dropped when one of the owning services
+ * writes to it. Every write also bumps the single row of {@code reference_data_version}
+ * in the writing transaction; that persisted version is the ETag of the combined
+ * snapshot, so it survives restarts and is the same on every node. Evictions are
+ * published on the {@link CacheInvalidationBus} so every other node drops the same
+ * sets and re-reads the version.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final UnitRepository unitRepository;
+    private final OfficeRepository officeRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final long UNKNOWN = -1;
+
+    // Last version read from the database; UNKNOWN until read and again after every eviction
+    private volatile long version = UNKNOWN;
+    private final AtomicLong versionGeneration = new AtomicLong();
+
+    private final CachedList<Item> items = new CachedList<>();
+    private final CachedList<Category> categories = new CachedList<>();
+    private final CachedList<Unit> units = new CachedList<>();
+    private final CachedList<Office> offices = new CachedList<>();
+
+    public List<Item> getItems() {
+        return items.get(itemRepository::findAll);
+    }
+
+    public List<Category> getCategories() {
+        return categories.get(categoryRepository::findAll);
+    }
+
+    public List<Unit> getUnits() {
+        return units.get(unitRepository::findAll);
+    }
+
+    public List<Office> getOffices() {
+        return offices.get(officeRepository::findAll);
+    }
+
+    public long getVersion() {
+        long cached = version;
+        if (cached != UNKNOWN) {
+            return cached;
+        }
+        // Same rule as CachedList: a read that raced with an eviction is returned but not kept
+        long generation = versionGeneration.get();
+        Long loaded = jdbcTemplate.queryForObject("SELECT version FROM reference_data_version WHERE id = 1", Long.class);
+        synchronized (this) {
+            if (versionGeneration.get() == generation) {
+                version = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Changes whenever the item set is evicted; lets derived structures such as the
+     * {@link ItemTypeaheadIndex} know when to rebuild.
+     */
+    public long getItemsVersion() {
+        return items.generation();
+    }
+
+    /**
+     * Changes whenever the office set is evicted; lets derived structures such as the
+     * {@link OfficeHierarchy} tree know when to rebuild.
+     */
+    public long getOfficesVersion() {
+        return offices.generation();
+    }
+
+    public ReferenceDataResponse getSnapshot() {
+        // Read the version first so a concurrent eviction can only make the ETag older, never newer than the data
+        long snapshotVersion = getVersion();
+
+        ReferenceDataResponse snapshot = new ReferenceDataResponse();
+        snapshot.setVersion(snapshotVersion);
+        snapshot.setItems(getItems().stream().map(ItemView::of).toList());
+        snapshot.setCategories(getCategories().stream().map(CategoryView::of).toList());
+        snapshot.setUnits(getUnits().stream().map(UnitView::of).toList());
+        snapshot.setOffices(getOffices().stream().map(OfficeView::of).toList());
+        return snapshot;
+    }
+
+    public void evictItems() {
+        evictAfterCommit("item", items);
+    }
+
+    /**
+     * Items embed their category, so both sets are dropped together.
+     */
+    public void evictCategories() {
+        evictAfterCommit("category", categories, items);
+    }
+
+    /**
+     * Items embed their unit, so both sets are dropped together.
+     */
+    public void evictUnits() {
+        evictAfterCommit("unit", units, items);
+    }
+
+    public void evictOffices() {
+        evictAfterCommit("office", offices);
+    }
+
+    public void evictAll() {
+        evictNow(items, categories, units, offices);
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.isFlush()) {
+            evictAll();
+            return;
+        }
+        switch (event.entity()) {
+            case "item" -> evictNow(items);
+            case "category" -> evictNow(categories, items);
+            case "unit" -> evictNow(units, items);
+            case "office" -> evictNow(offices);
+            default -> { }
+        }
+    }
+
+    private void evictAfterCommit(String entity, CachedList<?>... targets) {
+        // Commits with the write, so no node can pair the new version with the old rows for long
+        jdbcTemplate.update("UPDATE reference_data_version SET version = version + 1 WHERE id = 1");
+        // Evict immediately as well, so readers inside the writing transaction never see the old set
+        evictNow(targets);
+        cacheInvalidationBus.publish(entity, null);
+        // A reader may reload the pre-commit rows in between; drop them again once committed
+        AfterCommit.run(() -> evictNow(targets));
+    }
+
+    private void evictNow(CachedList<?>... targets) {
+        for (CachedList<?> target : targets) {
+            target.clear();
+        }
+        synchronized (this) {
+            version = UNKNOWN;
+            versionGeneration.incrementAndGet();
+        }
+    }
+
+    /**
+     * A single lazily loaded, immutable list. A load that races with an eviction is
+     * returned to its caller but not stored, so stale rows never outlive the eviction.
+     */
+    private static final class CachedList<T> {
+
+        private volatile List<T> value;
+        private final AtomicLong generation = new AtomicLong();
+
+        List<T> get(Supplier<List<T>> loader) {
+            List<T> cached = value;
+            if (cached != null) {
+                return cached;
+            }
+            long loadGeneration = generation.get();
+            List<T> loaded = List.copyOf(loader.get());
+            synchronized (this) {
+                if (generation.get() == loadGeneration) {
+                    value = loaded;
+                }
+            }
+            return loaded;
+        }
+
+        long generation() {
+            return generation.get();
+        }
+
+        synchronized void clear() {
+            value = null;
+            generation.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package just.inventory.backend.service;
+
+/**
+ * Thrown when the {@link BarcodeRenderExecutor} queue is full; the request should be
+ * retried after {@link #getRetryAfterSeconds()}.
+ */
+public class RenderQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RenderQueueFullException(long retryAfterSeconds) {
+        super("Label rendering is busy, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,181 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Releases pending distributions nobody confirmed or rejected before their
+ * {@code expires_at}.
+ *
+ * Each sweep is one set-based statement: the expired transactions are marked EXPIRED,
+ * their reserved instances go back to AVAILABLE, and requests they were fulfilling are
+ * reopened with the quantity taken off again, all with version bumps so in-flight JPA
+ * updates of the same rows fail their optimistic check, and each change is appended
+ * to the {@link ChangeLog}. Rows locked by a concurrent confirm are skipped and picked
+ * up next time. Only the node holding the {@code reservation-sweeper} lease sweeps;
+ * every node refreshes the stock gauges.
+ */
+@Slf4j
+@Service
+public class ReservationSweeper {
+
+    static final String LEASE = "reservation-sweeper";
+
+    // First row (entity null) is the number of expired transactions, then one row per change log entry
+    private static final String SWEEP_SQL = "WITH expired AS (" +
+            "  UPDATE item_transactions t SET status = 'EXPIRED', version = t.version + 1, confirmed_date = ?, " +
+            "    remarks = CONCAT(t.remarks, ' | EXPIRED: not confirmed in time') " +
+            "  WHERE t.id IN (SELECT id FROM item_transactions WHERE status = 'PENDING' AND expires_at < ? " +
+            "    ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "  RETURNING t.id, t.from_office_id, t.to_office_id, t.item_instance_id, t.item_request_id, t.quantity" +
+            "), released AS (" +
+            "  UPDATE item_instances ii SET status = 'AVAILABLE', version = ii.version + 1 " +
+            "  FROM expired e WHERE ii.id = e.item_instance_id AND ii.status = 'IN_USE' " +
+            "  RETURNING ii.id, ii.owner_office_id" +
+            "), reopened AS (" +
+            "  UPDATE item_requests r SET fulfilled_quantity = GREATEST(r.fulfilled_quantity - x.quantity, 0), " +
+            "    status = CASE WHEN r.fulfilled_quantity - x.quantity > 0 THEN 'PARTIALLY_FULFILLED' ELSE 'APPROVED' END, " +
+            "    version = r.version + 1 " +
+            "  FROM (SELECT item_request_id, SUM(quantity) AS quantity FROM expired " +
+            "    WHERE item_request_id IS NOT NULL GROUP BY item_request_id) x " +
+            "  WHERE r.id = x.item_request_id AND r.status IN ('FULFILLED', 'PARTIALLY_FULFILLED') " +
+            "  RETURNING r.id, r.requesting_office_id, r.parent_office_id, r.status" +
+            ") " +
+            "SELECT NULL::varchar AS entity, NULL::bigint AS office_id, NULL::bigint AS entity_id, " +
+            "  NULL::varchar AS action, COUNT(*) AS n FROM expired " +
+            "UNION ALL SELECT 'distribution', from_office_id, id, 'EXPIRED', 1 FROM expired " +
+            "UNION ALL SELECT 'distribution', to_office_id, id, 'EXPIRED', 1 FROM expired " +
+            "UNION ALL SELECT 'instance', owner_office_id, id, 'AVAILABLE', 1 FROM released " +
+            "UNION ALL SELECT 'request', requesting_office_id, id, status, 1 FROM reopened " +
+            "UNION ALL SELECT 'request', parent_office_id, id, status, 1 FROM reopened";
+
+    private static final String RESERVED_SQL = "SELECT COUNT(*) AS reserved, COUNT(*) FILTER (WHERE expires_at < ?) AS overdue " +
+            "FROM item_transactions WHERE status = 'PENDING'";
+
+    private static final String AVAILABLE_SQL = "SELECT COUNT(*) FROM item_instances WHERE status = 'AVAILABLE'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Autowired
+    private InventoryRollupCache inventoryRollupCache;
+
+    @Autowired
+    private InboxCounters inboxCounters;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reservations.lease:10m}")
+    private Duration lease;
+
+    @Value("${app.reservations.sweep-batch:1000}")
+    private int batchSize;
+
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong overdue = new AtomicLong();
+    private final AtomicLong available = new AtomicLong();
+    private Counter expiredCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("inventory.stock.reserved", reserved, AtomicLong::get)
+                .description("Instances held by pending distributions")
+                .register(meterRegistry);
+        Gauge.builder("inventory.stock.reservations.overdue", overdue, AtomicLong::get)
+                .description("Pending distributions past their expiry, waiting for the sweeper")
+                .register(meterRegistry);
+        Gauge.builder("inventory.stock.available", available, AtomicLong::get)
+                .description("Instances available for distribution")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("inventory.reservations.expired")
+                .description("Pending distributions released by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval:5m}", initialDelayString = "${app.reservations.sweep-interval:5m}")
+    public void run() {
+        if (leaseLock.tryAcquire(LEASE, lease)) {
+            sweep();
+        }
+        refreshGauges();
+    }
+
+    /**
+     * One sweep; returns the number of transactions expired.
+     */
+    public long sweep() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long expired = new TransactionTemplate(transactionManager).execute(status -> {
+            long[] count = {0};
+            Set<Long> offices = new HashSet<>();
+            List<Long> instances = new ArrayList<>();
+            jdbcTemplate.query(SWEEP_SQL, rs -> {
+                String entity = rs.getString("entity");
+                if (entity == null) {
+                    count[0] = rs.getLong("n");
+                    return;
+                }
+                long officeId = rs.getLong("office_id");
+                long entityId = rs.getLong("entity_id");
+                // Appended with the workflows' entries when the sweep commits, after its row locks
+                changeLog.record(officeId, entity, entityId, rs.getString("action"));
+                if (ChangeLog.INSTANCE.equals(entity)) {
+                    offices.add(officeId);
+                    instances.add(entityId);
+                }
+            }, now, now, batchSize);
+            offices.forEach(inventoryRollupCache::stockChanged);
+            barcodeIndex.instancesChanged(instances);
+            return count[0];
+        });
+        if (expired > 0) {
+            // The sweep changes statuses behind the workflows' backs; recount the inbox badges
+            inboxCounters.reconcile();
+            expiredCounter.increment(expired);
+            log.info("Released {} expired distribution reservation(s){}", expired,
+                    expired == batchSize ? ", more are waiting for the next sweep" : "");
+        }
+        return expired;
+    }
+
+    private void refreshGauges() {
+        jdbcTemplate.query(RESERVED_SQL, rs -> {
+            reserved.set(rs.getLong("reserved"));
+            overdue.set(rs.getLong("overdue"));
+        }, Timestamp.valueOf(LocalDateTime.now()));
+        Long availableCount = jdbcTemplate.queryForObject(AVAILABLE_SQL, Long.class);
+        available.set(availableCount != null ? availableCount : 0);
+    }
+}
@@ -0,0 +1,287 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import just.inventory.backend.dto.ScanIngestResult;
+import just.inventory.backend.dto.ScanRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk ingestion of handheld scanner uploads into {@code scan_events}.
+ *
+ * Uploads are parsed as a stream (NDJSON or the binary frame format below), validated
+ * against the {@link BarcodeIndex} a batch at a time and written with one multi-row
+ * insert per batch, so a request costs one authentication and a handful of statements
+ * however many scans it carries.
+ *
+ * Binary frames, big-endian, repeated until the end of the body:
+ * <pre>
+ * u8  barcode length, then the barcode (UTF-8)
+ * i64 timestamp, epoch milliseconds (0 = time of receipt)
+ * u8  device id length (0 = none), then the device id (UTF-8)
+ * u8  action, the ordinal of {@link Action}
+ * </pre>
+ */
+@Slf4j
+@Service
+public class ScanIngestService {
+
+    public enum Action {
+        SEEN,
+        CHECK_IN,
+        CHECK_OUT,
+        AUDIT
+    }
+
+    static final String LEASE = "scan-events-cleanup";
+
+    private static final String INSERT_SQL = "INSERT INTO scan_events " +
+            "(item_instance_id, barcode, office_id, device_id, action, scanned_at, received_at, user_id) " +
+            "SELECT i, b, o, d, a, s, ?, ? " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::bigint[], ?::varchar[], ?::varchar[], ?::timestamp[]) AS t(i, b, o, d, a, s)";
+
+    private static final String CLEANUP_SQL = "DELETE FROM scan_events WHERE id IN " +
+            "(SELECT id FROM scan_events WHERE received_at < ? LIMIT ?)";
+
+    private static final int CLEANUP_BATCH = 10000;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scans.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.scans.max-rejections:100}")
+    private int maxRejections;
+
+    @Value("${app.scans.retention:90d}")
+    private Duration retention;
+
+    @Value("${app.scans.lease:2h}")
+    private Duration lease;
+
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        acceptedCounter = Counter.builder("inventory.scans.ingested").tag("result", "accepted")
+                .description("Scans stored by the ingestion endpoint")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("inventory.scans.ingested").tag("result", "rejected")
+                .description("Scans rejected by the ingestion endpoint")
+                .register(meterRegistry);
+    }
+
+    public ScanIngestResult ingestNdjson(InputStream body, Long userId) {
+        Upload upload = new Upload(userId);
+        ObjectReader reader = objectMapper.readerFor(ScanRecord.class);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                // A "null" line is rejected on its own instead of ending the upload
+                upload.add(token == JsonToken.VALUE_NULL ? null : reader.readValue(parser));
+            }
+        } catch (IOException e) {
+            return upload.fail("Invalid record: " + e.getMessage());
+        }
+        return upload.finish();
+    }
+
+    public ScanIngestResult ingestBinary(InputStream body, Long userId) {
+        Upload upload = new Upload(userId);
+        Action[] actions = Action.values();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(body, 64 * 1024))) {
+            int barcodeLength;
+            while ((barcodeLength = in.read()) >= 0) {
+                String barcode = readString(in, barcodeLength);
+                long timestamp = in.readLong();
+                String deviceId = readString(in, in.readUnsignedByte());
+                int action = in.readUnsignedByte();
+                upload.add(new ScanRecord(barcode, timestamp == 0 ? null : timestamp,
+                        deviceId.isEmpty() ? null : deviceId,
+                        action < actions.length ? actions[action].name() : "#" + action));
+            }
+        } catch (EOFException e) {
+            return upload.fail("Truncated frame");
+        } catch (IOException e) {
+            return upload.fail("Invalid frame: " + e.getMessage());
+        }
+        return upload.finish();
+    }
+
+    @Scheduled(fixedDelayString = "${app.scans.cleanup-interval:1h}", initialDelayString = "${app.scans.cleanup-interval:1h}")
+    public void removeExpired() {
+        if (!leaseLock.tryAcquire(LEASE, lease)) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        long removed = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(CLEANUP_SQL, cutoff, CLEANUP_BATCH);
+            removed += batch;
+        } while (batch == CLEANUP_BATCH);
+        if (removed > 0) {
+            log.info("Removed {} scan events received before {}", removed, cutoff);
+        }
+    }
+
+    private static String readString(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * State of one upload: the batch being filled and the running totals.
+     */
+    private final class Upload {
+
+        private final Long userId;
+        private final LocalDateTime receivedAt = LocalDateTime.now();
+        private final List<ScanRecord> batch = new ArrayList<>(batchSize);
+        private final List<ScanIngestResult.Rejection> rejections = new ArrayList<>();
+        private long received;
+        private long accepted;
+        private long rejected;
+
+        Upload(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(ScanRecord record) {
+            batch.add(record);
+            received++;
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        ScanIngestResult finish() {
+            flush();
+            return new ScanIngestResult(received, accepted, rejected, rejections, null);
+        }
+
+        ScanIngestResult fail(String error) {
+            flush();
+            return new ScanIngestResult(received, accepted, rejected, rejections, error);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            long first = received - batch.size();
+            List<String> barcodes = new ArrayList<>(batch.size());
+            for (ScanRecord record : batch) {
+                if (record != null && record.barcode() != null) {
+                    barcodes.add(record.barcode());
+                }
+            }
+            Map<String, BarcodeIndex.Entry> known = barcodeIndex.lookup(barcodes);
+
+            int size = batch.size();
+            List<Long> instanceIds = new ArrayList<>(size);
+            List<String> barcodeValues = new ArrayList<>(size);
+            List<Long> officeIds = new ArrayList<>(size);
+            List<String> deviceIds = new ArrayList<>(size);
+            List<String> actions = new ArrayList<>(size);
+            List<Timestamp> scannedAt = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ScanRecord record = batch.get(i);
+                String reason = null;
+                BarcodeIndex.Entry entry = null;
+                Action action = Action.SEEN;
+                if (record == null) {
+                    reason = "empty record";
+                } else if (record.barcode() == null || record.barcode().isBlank()) {
+                    reason = "missing barcode";
+                } else if ((entry = known.get(record.barcode())) == null) {
+                    reason = "unknown barcode";
+                } else if (record.action() != null) {
+                    try {
+                        action = Action.valueOf(record.action());
+                    } catch (IllegalArgumentException e) {
+                        reason = "unknown action " + record.action();
+                    }
+                }
+                if (reason != null) {
+                    reject(first + i, record != null ? record.barcode() : null, reason);
+                    continue;
+                }
+                instanceIds.add(entry.instanceId());
+                barcodeValues.add(record.barcode());
+                officeIds.add(entry.officeId());
+                deviceIds.add(record.deviceId());
+                actions.add(action.name());
+                scannedAt.add(record.timestamp() != null
+                        ? Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault()))
+                        : Timestamp.valueOf(receivedAt));
+            }
+            batch.clear();
+
+            if (!instanceIds.isEmpty()) {
+                jdbcTemplate.update(connection -> {
+                    var statement = connection.prepareStatement(INSERT_SQL);
+                    statement.setTimestamp(1, Timestamp.valueOf(receivedAt));
+                    statement.setObject(2, userId);
+                    statement.setArray(3, connection.createArrayOf("bigint", instanceIds.toArray()));
+                    statement.setArray(4, connection.createArrayOf("varchar", barcodeValues.toArray()));
+                    statement.setArray(5, connection.createArrayOf("bigint", officeIds.toArray()));
+                    statement.setArray(6, connection.createArrayOf("varchar", deviceIds.toArray()));
+                    statement.setArray(7, connection.createArrayOf("varchar", actions.toArray()));
+                    statement.setArray(8, connection.createArrayOf("timestamp", scannedAt.toArray()));
+                    return statement;
+                });
+                accepted += instanceIds.size();
+                acceptedCounter.increment(instanceIds.size());
+            }
+        }
+
+        private void reject(long index, String barcode, String reason) {
+            rejected++;
+            rejectedCounter.increment();
+            if (rejections.size() < maxRejections) {
+                rejections.add(new ScanIngestResult.Rejection(index, barcode, reason));
+            }
+        }
+    }
+}
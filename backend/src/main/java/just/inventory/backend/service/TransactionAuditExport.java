@@ -0,0 +1,84 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ExportJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Audit trail of every transaction moving stock into or out of an office subtree,
+ * streamed the same way as {@link InventoryCsvExport}.
+ */
+@Component
+public class TransactionAuditExport implements ExportWriter {
+
+    private static final String SQL = "SELECT t.id, t.transaction_date, t.transaction_type, t.status, " +
+            "ii.barcode, i.name AS item_name, fo.name AS from_office, tof.name AS to_office, " +
+            "u.username, cu.username AS confirmed_by, t.quantity, t.remarks " +
+            "FROM item_transactions t " +
+            "JOIN item_instances ii ON ii.id = t.item_instance_id " +
+            "JOIN items i ON i.id = ii.item_id " +
+            "JOIN users u ON u.id = t.user_id " +
+            "LEFT JOIN users cu ON cu.id = t.confirmed_by_user_id " +
+            "LEFT JOIN offices fo ON fo.id = t.from_office_id " +
+            "LEFT JOIN offices tof ON tof.id = t.to_office_id " +
+            "WHERE t.from_office_id IN (SELECT descendant_id FROM office_closure WHERE ancestor_id = ?) " +
+            "OR t.to_office_id IN (SELECT descendant_id FROM office_closure WHERE ancestor_id = ?) " +
+            "ORDER BY t.transaction_date, t.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public ExportJob.Type getType() {
+        return ExportJob.Type.TRANSACTION_AUDIT_CSV;
+    }
+
+    @Override
+    public String getFileName(ExportJob job) {
+        return "transactions-office-" + job.getTargetId() + ".csv";
+    }
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    @Override
+    public void write(ExportJob job, OutputStream out, Progress progress) throws Exception {
+        CsvWriter csv = new CsvWriter(out);
+        csv.row("id", "date", "type", "status", "barcode", "item", "from_office", "to_office",
+                "user", "confirmed_by", "quantity", "remarks");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long[] rows = {0};
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SQL);
+            statement.setFetchSize(InventoryCsvExport.FETCH_SIZE);
+            statement.setLong(1, job.getTargetId());
+            statement.setLong(2, job.getTargetId());
+            return statement;
+        }, rs -> {
+            try {
+                csv.row(rs.getLong("id"), rs.getTimestamp("transaction_date"), rs.getString("transaction_type"),
+                        rs.getString("status"), rs.getString("barcode"), rs.getString("item_name"),
+                        rs.getString("from_office"), rs.getString("to_office"), rs.getString("username"),
+                        rs.getString("confirmed_by"), rs.getObject("quantity"), rs.getString("remarks"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            progress.update(++rows[0], null);
+        }));
+        csv.flush();
+    }
+}
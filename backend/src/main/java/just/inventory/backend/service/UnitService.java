@@ -1,5 +1,6 @@
 package just.inventory.backend.service;
 
+import just.inventory.backend.dto.UnitView;
 import just.inventory.backend.model.Unit;
 import just.inventory.backend.repository.UnitRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +15,10 @@ import java.util.Optional;
 public class UnitService {
 
     private final UnitRepository unitRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public List<Unit> getAllUnits() {
-        return unitRepository.findAll();
+    public List<UnitView> getAllUnits() {
+        return referenceDataCache.getUnits().stream().map(UnitView::of).toList();
     }
 
     public Optional<Unit> getUnitById(Long id) {
@@ -25,7 +27,9 @@ public class UnitService {
 
     @Transactional
     public Unit createUnit(Unit unit) {
-        return unitRepository.save(unit);
+        Unit saved = unitRepository.save(unit);
+        referenceDataCache.evictUnits();
+        return saved;
     }
 
     @Transactional
@@ -34,6 +38,7 @@ public class UnitService {
                 .map(unit -> {
                     unit.setName(unitDetails.getName());
                     unit.setDescription(unitDetails.getDescription());
+                    referenceDataCache.evictUnits();
                     return unitRepository.save(unit);
                 });
     }
@@ -43,6 +48,7 @@ public class UnitService {
         return unitRepository.findById(id)
                 .map(unit -> {
                     unitRepository.delete(unit);
+                    referenceDataCache.evictUnits();
                     return true;
                 })
                 .orElse(false);
@@ -0,0 +1,61 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.ItemTransaction;
+import just.inventory.backend.model.Office;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What one workflow step changed in the current transaction: requests and distributions
+ * with their status before the step, and instances that moved or changed in place.
+ * Published synchronously inside the transaction; {@link WorkflowChangeListener} brings
+ * the side channels up to date from it.
+ */
+public final class WorkflowChangeEvent {
+
+    record RequestChange(ItemRequest request, ItemRequest.RequestStatus previous) {
+    }
+
+    record DistributionChange(ItemTransaction transaction, ItemTransaction.TransactionStatus previous) {
+    }
+
+    // movedFrom is null when the instance stayed in its office
+    record InstanceChange(ItemInstance instance, Office movedFrom) {
+    }
+
+    final List<RequestChange> requests = new ArrayList<>();
+    final List<DistributionChange> distributions = new ArrayList<>();
+    final List<InstanceChange> instances = new ArrayList<>();
+
+    /**
+     * {@code previous} is null for a new request.
+     */
+    public WorkflowChangeEvent request(ItemRequest request, ItemRequest.RequestStatus previous) {
+        requests.add(new RequestChange(request, previous));
+        return this;
+    }
+
+    /**
+     * {@code previous} is null for a new distribution.
+     */
+    public WorkflowChangeEvent distribution(ItemTransaction transaction, ItemTransaction.TransactionStatus previous) {
+        distributions.add(new DistributionChange(transaction, previous));
+        return this;
+    }
+
+    public WorkflowChangeEvent instance(ItemInstance instance) {
+        instances.add(new InstanceChange(instance, null));
+        return this;
+    }
+
+    /**
+     * The instance left {@code from} for its current office.
+     */
+    public WorkflowChangeEvent instanceMoved(ItemInstance instance, Office from) {
+        instances.add(new InstanceChange(instance, from));
+        return this;
+    }
+}
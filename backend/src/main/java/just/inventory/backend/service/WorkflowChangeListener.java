@@ -0,0 +1,73 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ItemInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The one place a {@link WorkflowChangeEvent} fans out to the inbox counters, the change
+ * log, the workflow event stream, the barcode index and the stock rollups. Runs in the
+ * publishing transaction, so each of them still defers its work to commit.
+ */
+@Component
+public class WorkflowChangeListener {
+
+    @Autowired
+    private InboxCounters inboxCounters;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private WorkflowEventRelay workflowEventRelay;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private InventoryRollupCache inventoryRollupCache;
+
+    @EventListener
+    public void onWorkflowChange(WorkflowChangeEvent event) {
+        for (WorkflowChangeEvent.RequestChange change : event.requests) {
+            inboxCounters.requestChanged(change.request(), change.previous());
+            changeLog.requestChanged(change.request());
+            workflowEventRelay.publish(WorkflowEvent.of(change.request()));
+        }
+        for (WorkflowChangeEvent.DistributionChange change : event.distributions) {
+            inboxCounters.distributionChanged(change.transaction(), change.previous());
+            changeLog.distributionChanged(change.transaction());
+            workflowEventRelay.publish(WorkflowEvent.of(change.transaction()));
+        }
+        if (event.instances.isEmpty()) {
+            return;
+        }
+
+        List<Long> instanceIds = new ArrayList<>();
+        Set<Long> stockOffices = new LinkedHashSet<>();
+        for (WorkflowChangeEvent.InstanceChange change : event.instances) {
+            ItemInstance instance = change.instance();
+            if (change.movedFrom() != null) {
+                changeLog.instanceMoved(instance, change.movedFrom());
+                stockOffices.add(change.movedFrom().getId());
+            } else {
+                changeLog.instanceChanged(instance);
+            }
+            instanceIds.add(instance.getId());
+            stockOffices.add(instance.getOwnerOffice().getId());
+        }
+        // A single instance is applied locally at commit; larger batches are reloaded by id
+        if (event.instances.size() == 1) {
+            barcodeIndex.instanceChanged(event.instances.get(0).instance());
+        } else {
+            barcodeIndex.instancesChanged(instanceIds);
+        }
+        stockOffices.forEach(inventoryRollupCache::stockChanged);
+    }
+}
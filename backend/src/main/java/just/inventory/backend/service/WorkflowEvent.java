@@ -0,0 +1,44 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.ItemTransaction;
+import just.inventory.backend.model.Office;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact notice that a request or distribution changed state, pushed to the offices
+ * involved over {@code /api/events/stream}. Clients refetch what they display; the
+ * event only says what to refetch.
+ */
+public record WorkflowEvent(String type, Long id, String status, List<Long> offices) {
+
+    public static final String REQUEST = "request";
+    public static final String DISTRIBUTION = "distribution";
+
+    public static WorkflowEvent of(ItemRequest request) {
+        return new WorkflowEvent(REQUEST, request.getId(), request.getStatus().name(),
+                offices(request.getRequestingOffice(), request.getParentOffice()));
+    }
+
+    public static WorkflowEvent of(ItemTransaction transaction) {
+        return new WorkflowEvent(DISTRIBUTION, transaction.getId(), transaction.getStatus().name(),
+                offices(transaction.getFromOffice(), transaction.getToOffice()));
+    }
+
+    public boolean isFor(Long officeId) {
+        return offices.contains(officeId);
+    }
+
+    private static List<Long> offices(Office first, Office second) {
+        List<Long> ids = new ArrayList<>(2);
+        if (first != null && first.getId() != null) {
+            ids.add(first.getId());
+        }
+        if (second != null && second.getId() != null && !ids.contains(second.getId())) {
+            ids.add(second.getId());
+        }
+        return ids;
+    }
+}
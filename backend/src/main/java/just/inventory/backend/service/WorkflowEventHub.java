@@ -0,0 +1,269 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-node fan-out of {@link WorkflowEvent}s to the SSE clients of the offices involved.
+ *
+ * Events get ids of the form {@code <epoch>-<seq>} in the order the node receives them,
+ * and the last {@code app.events.replay-size} are kept in a ring buffer so a client that
+ * reconnects with {@code Last-Event-ID} gets what it missed. When that is not possible
+ * (another node, a relay reconnect, or it fell out of the buffer) the client gets a
+ * {@code reset} event and should refetch everything it shows.
+ *
+ * Every client has a bounded queue drained on its own virtual thread, so a slow client
+ * never holds up the others; one whose queue overflows is disconnected and resumes on
+ * reconnect. Heartbeat comments keep proxies from timing out idle streams and find dead
+ * connections.
+ */
+@Slf4j
+@Service
+public class WorkflowEventHub {
+
+    public static final String RESET = "reset";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.replay-size:256}")
+    private int replaySize;
+
+    @Value("${app.events.client-buffer:64}")
+    private int clientBuffer;
+
+    @Value("${app.events.timeout:30m}")
+    private Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this
+    private Buffered[] ring;
+    private String epoch;
+    private long lastSeq;
+
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        ring = new Buffered[replaySize];
+        epoch = newEpoch();
+        Gauge.builder("inventory.events.subscribers", subscribers, Set::size)
+                .description("Open workflow event streams on this node")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("inventory.events.dropped")
+                .description("Event streams disconnected because the client fell too far behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for an office, replaying what the client missed since
+     * {@code lastEventId} when it reconnects.
+     */
+    public SseEmitter subscribe(Long officeId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(officeId, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Connected comment first, so the response is committed and proxies start streaming
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<SseEmitter.SseEventBuilder> missed = missedSince(lastEventId.trim(), officeId);
+                if (missed == null) {
+                    subscriber.offer(resetEvent());
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Every event delivered by the relay, whether it originated on this node or another one.
+     */
+    public void accept(WorkflowEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize workflow event {}: {}", event, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            Buffered buffered = new Buffered(++lastSeq, event, json);
+            ring[(int) (buffered.seq() % ring.length)] = buffered;
+            for (Subscriber subscriber : subscribers) {
+                if (event.isFor(subscriber.officeId)) {
+                    subscriber.offer(toSse(buffered));
+                }
+            }
+        }
+    }
+
+    /**
+     * Events may have been lost: start a new epoch so no client resumes across the gap,
+     * and tell everyone connected to refetch.
+     */
+    public void reset() {
+        synchronized (this) {
+            epoch = newEpoch();
+            lastSeq = 0;
+            ring = new Buffered[replaySize];
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(resetEvent());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    // Null when the gap cannot be replayed; the caller holds the lock
+    List<SseEmitter.SseEventBuilder> missedSince(String lastEventId, Long officeId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, lastSeq - ring.length + 1);
+        if (seen > lastSeq || seen < oldest - 1) {
+            return null;
+        }
+        List<SseEmitter.SseEventBuilder> missed = new ArrayList<>();
+        for (long seq = seen + 1; seq <= lastSeq; seq++) {
+            Buffered buffered = ring[(int) (seq % ring.length)];
+            if (buffered.event().isFor(officeId)) {
+                missed.add(toSse(buffered));
+            }
+        }
+        return missed;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Buffered buffered) {
+        return SseEmitter.event()
+                .id(epoch + "-" + buffered.seq())
+                .name(buffered.event().type())
+                .data(buffered.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder resetEvent() {
+        // Carries the current position, so a client that reconnects after refetching resumes from here
+        return SseEmitter.event()
+                .id(epoch + "-" + lastSeq)
+                .name(RESET)
+                .data("{}", MediaType.APPLICATION_JSON);
+    }
+
+    private static String newEpoch() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private record Buffered(long seq, WorkflowEvent event, String json) {
+    }
+
+    private final class Subscriber {
+
+        private final Long officeId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(clientBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(Long officeId, SseEmitter emitter) {
+            this.officeId = officeId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+                log.debug("Event stream of office {} fell behind, disconnecting it", officeId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+                // Something may have been queued after the last poll but before the flag was cleared
+                if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                    sender.execute(this::drain);
+                }
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
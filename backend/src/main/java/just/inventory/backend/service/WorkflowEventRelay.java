@@ -0,0 +1,90 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Carries {@link WorkflowEvent}s to the {@link WorkflowEventHub} of every node over
+ * PostgreSQL LISTEN/NOTIFY, the same way the {@link CacheInvalidationBus} carries cache
+ * evictions: the notification is issued in the caller's transaction, so it is delivered
+ * only once the state change commits, and an optimistic retry that rolls back sends
+ * nothing. The channel is one more subscription on the node's {@link PostgresListener};
+ * when its connection is (re)established the hub is reset, because events sent in
+ * between are lost.
+ *
+ * With the relay disabled, events go straight to the local hub after commit.
+ */
+@Slf4j
+@Service
+public class WorkflowEventRelay implements PostgresListener.Subscriber {
+
+    public static final String CHANNEL = "inventory_events";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkflowEventHub hub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostgresListener postgresListener;
+
+    @Value("${app.events.relay:true}")
+    private boolean enabled;
+
+    public void publish(WorkflowEvent event) {
+        if (!enabled) {
+            AfterCommit.run(() -> hub.accept(event));
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Nothing was sent to the database, so the business operation can still commit
+            log.warn("Could not publish workflow event {}: {}", event, e.getMessage());
+            return;
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, payload);
+        } catch (RuntimeException e) {
+            // A failed statement has already aborted the surrounding transaction; let the caller see why
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            log.warn("Could not publish workflow event {}: {}", event, e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (enabled) {
+            postgresListener.subscribe(CHANNEL, this);
+        }
+    }
+
+    @Override
+    public void onListening() {
+        // Anything sent while we were not listening is gone; clients must refetch
+        hub.reset();
+    }
+
+    @Override
+    public void onNotification(String payload) {
+        try {
+            hub.accept(objectMapper.readValue(payload, WorkflowEvent.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not deliver workflow event {}: {}", payload, e.getMessage());
+        }
+    }
+}
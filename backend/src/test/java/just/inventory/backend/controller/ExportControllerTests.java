@@ -0,0 +1,119 @@
+package just.inventory.backend.controller;
+
+import just.inventory.backend.model.ExportJob;
+import just.inventory.backend.model.Role;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.UserRepository;
+import just.inventory.backend.service.ExportJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportControllerTests {
+
+    private final ExportJobService exportJobService = mock(ExportJobService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ExportController controller = new ExportController();
+
+    @TempDir
+    Path exportDir;
+
+    @BeforeEach
+    void completedJob() throws Exception {
+        ReflectionTestUtils.setField(controller, "exportJobService", exportJobService);
+        ReflectionTestUtils.setField(controller, "userRepository", userRepository);
+
+        Role role = new Role();
+        role.setName("USER");
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("clerk");
+        user.setRole(role);
+        when(userRepository.findByUsername("clerk")).thenReturn(Optional.of(user));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("clerk", null));
+
+        ExportJob job = new ExportJob();
+        job.setId(1L);
+        job.setRequestedById(7L);
+        job.setFileName("inventory.csv");
+        job.setContentType("text/csv");
+        Path artifact = Files.writeString(exportDir.resolve("1.csv"), "0123456789");
+        when(exportJobService.getJob(1L)).thenReturn(job);
+        when(exportJobService.getArtifact(job)).thenReturn(artifact);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void parsesSingleRanges() {
+        assertArrayEquals(new long[] {0, 4}, ExportController.parseRange("bytes=0-4", 10));
+        assertArrayEquals(new long[] {5, 9}, ExportController.parseRange("bytes=5-", 10));
+        assertArrayEquals(new long[] {7, 9}, ExportController.parseRange("bytes=-3", 10));
+        // Suffix longer than the file and end past the file are clamped
+        assertArrayEquals(new long[] {0, 9}, ExportController.parseRange("bytes=-30", 10));
+        assertArrayEquals(new long[] {8, 9}, ExportController.parseRange("bytes=8-100", 10));
+    }
+
+    @Test
+    void rejectsMalformedOrUnsatisfiableRanges() {
+        assertNull(ExportController.parseRange("items=0-4", 10));
+        assertNull(ExportController.parseRange("bytes=10-", 10));
+        assertNull(ExportController.parseRange("bytes=5-2", 10));
+        assertNull(ExportController.parseRange("bytes=-0", 10));
+        assertNull(ExportController.parseRange("bytes=a-b", 10));
+        assertNull(ExportController.parseRange("bytes=4", 10));
+        assertNull(ExportController.parseRange("bytes=0-4", 0));
+    }
+
+    @Test
+    void servesARangeAsPartialContent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download(1L, "bytes=2-5", response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void servesTheWholeFileForMultipleRanges() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download(1L, "bytes=0-1,4-5", response);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("0123456789", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void answersAnUnsatisfiableRangeWith416() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download(1L, "bytes=20-30", response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+}
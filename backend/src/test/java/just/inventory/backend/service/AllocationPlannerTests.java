@@ -0,0 +1,182 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.dto.AllocationPlan;
+import just.inventory.backend.dto.AllocationPlan.Policy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * How a previewed plan shares an item out; the open requests and the available count are
+ * fed in place of the two planning queries.
+ */
+class AllocationPlannerTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AllocationPlanner planner = new AllocationPlanner();
+    private final List<Map<String, Object>> requests = new ArrayList<>();
+    private long available;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(planner, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(planner, "defaultPolicy", Policy.OLDEST_FIRST);
+        doAnswer(invocation -> {
+            for (Map<String, Object> request : requests) {
+                invocation.<RowCallbackHandler>getArgument(1).processRow(row(request));
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT r.id"), any(RowCallbackHandler.class), any(Object[].class));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row(Map.of("item_id", 1L, "n", available)));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT item_id"), any(RowCallbackHandler.class), any(Object[].class));
+
+        // Still owed 6, 3 (half an instance does not count) and 4; nothing is left of the last one
+        request(101, 11, 6, 0, 0);
+        request(102, 12, 3.5, 0, 1);
+        request(103, 13, 5, 1, 2);
+        request(104, 14, 2, 2, 3);
+    }
+
+    @Test
+    void servesTheOldestRequestsFirst() {
+        available = 10;
+
+        AllocationPlan plan = planner.preview(5L, null);
+
+        assertEquals(Policy.OLDEST_FIRST, plan.policy());
+        assertEquals(List.of(101L, 102L, 103L), requestIds(plan));
+        assertEquals(List.of(6L, 3L, 4L), remaining(plan));
+        assertEquals(List.of(6L, 3L, 1L), shares(plan));
+        assertEquals(new AllocationPlan.ItemAllocation(1L, "Laptop", 10, 13, 10), plan.items().get(0));
+        assertEquals(10, plan.allocated());
+    }
+
+    @Test
+    void servesTheSmallestRequestsFirst() {
+        available = 10;
+
+        AllocationPlan plan = planner.preview(5L, Policy.SMALLEST_FIRST);
+
+        assertEquals(List.of(102L, 103L, 101L), requestIds(plan));
+        assertEquals(List.of(3L, 4L, 3L), shares(plan));
+    }
+
+    @Test
+    void roundsProportionalSharesDownAndHandsOutTheRemainderOldestFirst() {
+        available = 10;
+
+        AllocationPlan plan = planner.preview(5L, Policy.PROPORTIONAL);
+
+        // 60/13, 30/13 and 40/13 round down to 4, 2 and 3; the tenth goes to the oldest request
+        assertEquals(List.of(101L, 102L, 103L), requestIds(plan));
+        assertEquals(List.of(5L, 2L, 3L), shares(plan));
+        assertEquals(10, plan.allocated());
+    }
+
+    @Test
+    void neverGivesMoreThanARequestStillNeeds() {
+        available = 20;
+
+        for (Policy policy : Policy.values()) {
+            AllocationPlan plan = planner.preview(5L, policy);
+
+            assertEquals(List.of(6L, 3L, 4L), sharesByRequest(plan), policy.name());
+            assertEquals(13, plan.allocated(), policy.name());
+        }
+    }
+
+    @Test
+    void givesNothingWithoutStock() {
+        available = 0;
+
+        AllocationPlan plan = planner.preview(5L, Policy.PROPORTIONAL);
+
+        assertEquals(List.of(0L, 0L, 0L), shares(plan));
+        assertEquals(0, plan.allocated());
+    }
+
+    @Test
+    void tokenFollowsTheSharesButNotTheSpareStock() {
+        available = 10;
+        String oldestFirst = planner.preview(5L, Policy.OLDEST_FIRST).token();
+
+        assertEquals(oldestFirst, planner.preview(5L, Policy.OLDEST_FIRST).token());
+        assertNotEquals(oldestFirst, planner.preview(5L, Policy.PROPORTIONAL).token());
+        available = 11;
+        assertNotEquals(oldestFirst, planner.preview(5L, Policy.OLDEST_FIRST).token());
+        // Stock beyond what is owed does not change who gets what
+        available = 13;
+        String covered = planner.preview(5L, Policy.OLDEST_FIRST).token();
+        available = 40;
+        assertEquals(covered, planner.preview(5L, Policy.OLDEST_FIRST).token());
+    }
+
+    @Test
+    void refusesToExecuteAStalePlan() {
+        available = 10;
+
+        assertThrows(PlanChangedException.class, () -> planner.execute(5L, Policy.OLDEST_FIRST, "stale", null));
+    }
+
+    private void request(long id, long officeId, double approved, double fulfilled, int daysLater) {
+        requests.add(Map.of("id", id, "item_id", 1L, "item_name", "Laptop", "requesting_office_id", officeId,
+                "approved_quantity", approved, "fulfilled_quantity", fulfilled,
+                "status", fulfilled > 0 ? "PARTIALLY_FULFILLED" : "APPROVED",
+                "requested_date", Timestamp.valueOf(DAY.plusDays(daysLater)), "reason", "Needed"));
+    }
+
+    // Answers the getters the planner uses from the given columns
+    private static ResultSet row(Map<String, Object> columns) {
+        return mock(ResultSet.class, invocation -> {
+            if (invocation.getArguments().length != 1 || !(invocation.getArgument(0) instanceof String column)) {
+                return null;
+            }
+            Object value = columns.get(column);
+            return switch (invocation.getMethod().getName()) {
+                case "getLong" -> ((Number) value).longValue();
+                case "getDouble" -> ((Number) value).doubleValue();
+                default -> value;
+            };
+        });
+    }
+
+    private static List<Long> requestIds(AllocationPlan plan) {
+        return plan.lines().stream().map(AllocationPlan.Line::requestId).toList();
+    }
+
+    private static List<Long> remaining(AllocationPlan plan) {
+        return plan.lines().stream().map(AllocationPlan.Line::remaining).toList();
+    }
+
+    private static List<Long> shares(AllocationPlan plan) {
+        return plan.lines().stream().map(AllocationPlan.Line::allocated).toList();
+    }
+
+    private static List<Long> sharesByRequest(AllocationPlan plan) {
+        return plan.lines().stream()
+                .sorted((a, b) -> Long.compare(a.requestId(), b.requestId()))
+                .map(AllocationPlan.Line::allocated)
+                .toList();
+    }
+}
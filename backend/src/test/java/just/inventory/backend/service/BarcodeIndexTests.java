@@ -0,0 +1,243 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.Office;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BarcodeIndexTests {
+
+    private static final byte AVAILABLE = (byte) ItemInstance.ItemStatus.AVAILABLE.ordinal();
+    private static final byte IN_USE = (byte) ItemInstance.ItemStatus.IN_USE.ordinal();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final BarcodeIndex index = new BarcodeIndex();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "cacheInvalidationBus", mock(CacheInvalidationBus.class));
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        // As if the first full load had finished, so misses do not fall back to the database
+        ReflectionTestUtils.setField(index, "loaded", true);
+    }
+
+    @AfterEach
+    void shutdown() {
+        index.shutdown();
+    }
+
+    @Test
+    void putsAndFindsEntries() {
+        BarcodeIndex.Table table = new BarcodeIndex.Table(16);
+        table.put(key("JU-0001"), 1, 10, AVAILABLE);
+        table.put(key("JU-0002"), 2, 20, IN_USE);
+        // Same barcode again only updates the values
+        table.put(key("JU-0001"), 1, 11, IN_USE);
+
+        assertEquals(2, table.live());
+        assertEquals(new BarcodeIndex.Entry(1, 11, ItemInstance.ItemStatus.IN_USE), table.get(key("JU-0001")));
+        assertEquals(new BarcodeIndex.Entry(2, 20, ItemInstance.ItemStatus.IN_USE), table.get(key("JU-0002")));
+        assertNull(table.get(key("JU-0003")));
+        assertNull(table.get(key("JU-000")));
+    }
+
+    @Test
+    void removesFromAProbeRunThatWrapsAround() {
+        // 16 entries get 32 slots; these keys all hash to the last one, so the run wraps to slots 0 and 1
+        List<String> barcodes = keysInSlot(31, 32, 3);
+        BarcodeIndex.Table table = new BarcodeIndex.Table(16);
+        for (int i = 0; i < barcodes.size(); i++) {
+            table.put(key(barcodes.get(i)), i + 1, 10, AVAILABLE);
+        }
+
+        table.remove(1);
+
+        assertEquals(2, table.live());
+        assertNull(table.get(key(barcodes.get(0))));
+        assertEquals(2, table.get(key(barcodes.get(1))).instanceId());
+        assertEquals(3, table.get(key(barcodes.get(2))).instanceId());
+
+        table.remove(3);
+        assertNull(table.get(key(barcodes.get(2))));
+        assertEquals(2, table.get(key(barcodes.get(1))).instanceId());
+        // Removing an unknown instance changes nothing
+        table.remove(99);
+        assertEquals(1, table.live());
+    }
+
+    @Test
+    void followsABarcodeToItsNewInstanceAndAnInstanceToItsNewBarcode() {
+        BarcodeIndex.Table table = new BarcodeIndex.Table(16);
+        table.put(key("OLD"), 1, 10, AVAILABLE);
+
+        // Instance 1 was re-labelled
+        table.put(key("NEW"), 1, 10, AVAILABLE);
+        assertNull(table.get(key("OLD")));
+        assertEquals(1, table.get(key("NEW")).instanceId());
+        assertEquals(1, table.live());
+
+        // Its new label now belongs to instance 2; removing instance 1 must not drop it
+        table.put(key("NEW"), 2, 20, IN_USE);
+        table.remove(1);
+        assertEquals(new BarcodeIndex.Entry(2, 20, ItemInstance.ItemStatus.IN_USE), table.get(key("NEW")));
+        table.remove(2);
+        assertNull(table.get(key("NEW")));
+    }
+
+    @Test
+    void growsPastItsInitialSizeAndDropsRemovedEntriesOnRehash() {
+        BarcodeIndex.Table table = new BarcodeIndex.Table(16);
+        long before = table.bytes();
+        for (int i = 0; i < 5000; i++) {
+            table.put(key("GROW-" + i), i, i % 7, AVAILABLE);
+            if (i % 10 == 0) {
+                table.remove(i);
+            }
+        }
+
+        assertEquals(4500, table.live());
+        assertTrue(table.bytes() > before);
+        for (int i = 0; i < 5000; i++) {
+            BarcodeIndex.Entry entry = table.get(key("GROW-" + i));
+            if (i % 10 == 0) {
+                assertNull(entry, "GROW-" + i);
+            } else {
+                assertEquals(i, entry.instanceId());
+                assertEquals(i % 7, entry.officeId());
+            }
+        }
+    }
+
+    @Test
+    void readersKeepFindingEntriesWhileTheTableResizes() throws Exception {
+        for (long id = 1; id <= 200; id++) {
+            index.instanceChanged(instance(id, "STABLE-" + id, ItemInstance.ItemStatus.AVAILABLE));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        List<Future<Integer>> misses = new ArrayList<>();
+        try {
+            for (int r = 0; r < 3; r++) {
+                misses.add(readers.submit(() -> {
+                    int missed = 0;
+                    do {
+                        for (long id = 1; id <= 200; id++) {
+                            if (index.lookup("STABLE-" + id) == null) {
+                                missed++;
+                            }
+                        }
+                    } while (writing.get());
+                    return missed;
+                }));
+            }
+            // Each insert may grow or rehash the table under the readers' optimistic reads
+            for (long id = 1000; id < 60000; id++) {
+                index.instanceChanged(instance(id, "CHURN-" + id, ItemInstance.ItemStatus.AVAILABLE));
+            }
+        } finally {
+            writing.set(false);
+            readers.shutdown();
+        }
+        for (Future<Integer> missed : misses) {
+            assertEquals(0, missed.get());
+        }
+        assertNotNull(index.lookup("CHURN-59999"));
+    }
+
+    @Test
+    void reloadsTheIdsOfABatchInvalidation() throws Exception {
+        index.instanceChanged(instance(1L, "BEFORE-1", ItemInstance.ItemStatus.AVAILABLE));
+        index.instanceChanged(instance(2L, "GONE-2", ItemInstance.ItemStatus.AVAILABLE));
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("barcode")).thenReturn("AFTER-1");
+        when(row.getLong("id")).thenReturn(1L);
+        when(row.getLong("owner_office_id")).thenReturn(30L);
+        when(row.getString("status")).thenReturn("IN_USE");
+        // Only instance 1 still exists
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT barcode"), any(RowCallbackHandler.class), any(Object.class));
+
+        index.onCacheInvalidation(new CacheInvalidationEvent(BarcodeIndex.INSTANCE, "1,2,3"));
+
+        verify(jdbcTemplate, timeout(5000)).query(eq("SELECT barcode, id, owner_office_id, status FROM item_instances WHERE id = ANY(?)"),
+                any(RowCallbackHandler.class),
+                argThat((Object ids) -> Set.copyOf(Arrays.asList((Object[]) ids)).equals(Set.of(1L, 2L, 3L))));
+        awaitReloader();
+        assertNull(index.lookup("BEFORE-1"));
+        assertNull(index.lookup("GONE-2"));
+        assertEquals(new BarcodeIndex.Entry(1, 30, ItemInstance.ItemStatus.IN_USE), index.lookup("AFTER-1"));
+    }
+
+    @Test
+    void reloadsEverythingOnAMalformedIdList() {
+        index.onCacheInvalidation(new CacheInvalidationEvent(BarcodeIndex.INSTANCE, "1,x"));
+
+        verify(jdbcTemplate, timeout(5000)).queryForObject("SELECT COUNT(*) FROM item_instances", Long.class);
+    }
+
+    // Runs after everything queued on the single reloader thread so far
+    private void awaitReloader() throws Exception {
+        ExecutorService reloader = (ExecutorService) ReflectionTestUtils.getField(index, "reloader");
+        reloader.submit(() -> { }).get();
+    }
+
+    private static List<String> keysInSlot(int slot, int slots, int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < count; i++) {
+            String candidate = "WRAP-" + i;
+            if ((BarcodeIndex.Table.hash(key(candidate)) & (slots - 1)) == slot) {
+                keys.add(candidate);
+            }
+        }
+        return keys;
+    }
+
+    private static ItemInstance instance(Long id, String barcode, ItemInstance.ItemStatus status) {
+        Office office = new Office();
+        office.setId(10L);
+        ItemInstance instance = new ItemInstance();
+        instance.setId(id);
+        instance.setBarcode(barcode);
+        instance.setOwnerOffice(office);
+        instance.setStatus(status);
+        return instance;
+    }
+
+    private static byte[] key(String barcode) {
+        return barcode.getBytes(StandardCharsets.UTF_8);
+    }
+}
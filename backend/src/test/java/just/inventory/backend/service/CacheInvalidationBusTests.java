@@ -0,0 +1,131 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.BackendApplication;
+import just.inventory.backend.model.Unit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts against one Postgres, standing in for two nodes behind the
+ * load balancer: a write on one must evict the other's caches once it commits, and a
+ * rolled back write must not.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationBusTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+    private static final Recorder received = new Recorder();
+
+    @BeforeAll
+    static void startNodes() throws InterruptedException {
+        first = startNode(new Recorder());
+        second = startNode(received);
+        // The second node flushes once its LISTEN connection is up; only then can it hear the first
+        await(() -> received.entities().contains(CacheInvalidationEvent.ALL));
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @BeforeEach
+    void clearRecorder() {
+        received.events.clear();
+    }
+
+    @Test
+    void writeOnOneNodeEvictsTheOtherNodesCache() throws InterruptedException {
+        ReferenceDataCache remote = second.getBean(ReferenceDataCache.class);
+        int before = remote.getUnits().size();
+        long versionBefore = remote.getVersion();
+
+        Unit unit = new Unit();
+        unit.setName("bus-test-" + System.nanoTime());
+        first.getBean(UnitService.class).createUnit(unit);
+
+        await(() -> remote.getUnits().size() == before + 1);
+        assertTrue(remote.getUnits().stream().anyMatch(u -> u.getName().equals(unit.getName())));
+        assertTrue(remote.getVersion() > versionBefore);
+        assertEquals(first.getBean(ReferenceDataCache.class).getVersion(), remote.getVersion());
+    }
+
+    @Test
+    void rolledBackPublishIsNeverDelivered() throws InterruptedException {
+        CacheInvalidationBus bus = first.getBean(CacheInvalidationBus.class);
+        TransactionTemplate transaction = new TransactionTemplate(first.getBean(PlatformTransactionManager.class));
+
+        transaction.executeWithoutResult(status -> {
+            bus.publish("rolled-back", 1);
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> bus.publish("committed", 2));
+
+        // Notifications arrive in commit order, so a leaked rollback would show up before the marker
+        await(() -> received.entities().contains("committed"));
+        assertFalse(received.entities().contains("rolled-back"));
+    }
+
+    private static ConfigurableApplicationContext startNode(Recorder recorder) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .listeners(recorder)
+                .run("--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRES.getUsername(),
+                        "--spring.datasource.password=" + POSTGRES.getPassword(),
+                        "--server.port=0",
+                        "--app.pg-listener.poll-timeout=200");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within " + TIMEOUT);
+            Thread.sleep(50);
+        }
+    }
+
+    private static final class Recorder implements ApplicationListener<PayloadApplicationEvent<CacheInvalidationEvent>> {
+
+        final List<CacheInvalidationEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<CacheInvalidationEvent> event) {
+            events.add(event.getPayload());
+        }
+
+        List<String> entities() {
+            return events.stream().map(CacheInvalidationEvent::entity).toList();
+        }
+    }
+}
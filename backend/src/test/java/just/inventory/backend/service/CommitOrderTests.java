@@ -0,0 +1,76 @@
+package just.inventory.backend.service;
+
+import jakarta.persistence.EntityManager;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.Office;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The before-commit writes of one transaction must take the change log's append lock
+ * last, whatever order the workflow reported its changes in.
+ */
+class CommitOrderTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ChangeLog changeLog = new ChangeLog();
+    private final InboxCounters inboxCounters = new InboxCounters();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(changeLog, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(changeLog, "entityManager", entityManager);
+        ReflectionTestUtils.setField(inboxCounters, "jdbcTemplate", jdbcTemplate);
+        when(entityManager.isJoinedToTransaction()).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void countersAndEntityFlushComeBeforeTheAppendLock() {
+        // The change log is told first, so registration order alone would run it first
+        changeLog.record(2L, ChangeLog.REQUEST, 5L, "PENDING");
+        inboxCounters.requestChanged(pendingRequest(), null);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.beforeCommit(false));
+
+        InOrder order = inOrder(jdbcTemplate, entityManager);
+        order.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO office_counters"), anyList());
+        order.verify(entityManager).flush();
+        order.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?)"), any(RowCallbackHandler.class), any(Object[].class));
+        order.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO change_log"), anyList());
+    }
+
+    private static ItemRequest pendingRequest() {
+        Office parent = new Office();
+        parent.setId(2L);
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        request.setParentOffice(parent);
+        request.setStatus(ItemRequest.RequestStatus.PENDING);
+        return request;
+    }
+}
@@ -0,0 +1,49 @@
+package just.inventory.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTests {
+
+    @Test
+    void writesPlainValuesAsIs() throws Exception {
+        assertEquals("1,Laptop,12.50\r\n", write(1L, "Laptop", new BigDecimal("12.50")));
+    }
+
+    @Test
+    void leavesNullsEmpty() throws Exception {
+        assertEquals(",x,\r\n", write(null, "x", null));
+    }
+
+    @Test
+    void quotesValuesWithSeparatorsQuotesOrLineBreaks() throws Exception {
+        assertEquals("\"Paper, A4\",\"15\"\" monitor\",\"two\nlines\",\"cr\rhere\"\r\n",
+                write("Paper, A4", "15\" monitor", "two\nlines", "cr\rhere"));
+    }
+
+    @Test
+    void encodesAsUtf8AndLeavesTheStreamToTheCaller() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter csv = new CsvWriter(out);
+        csv.row("Büro");
+        csv.row("Kaffee");
+        // Nothing reaches the stream until flushed
+        assertEquals(0, out.size());
+
+        csv.flush();
+        assertEquals("Büro\r\nKaffee\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String write(Object... values) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter csv = new CsvWriter(out);
+        csv.row(values);
+        csv.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
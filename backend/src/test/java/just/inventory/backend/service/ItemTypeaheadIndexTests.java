@@ -0,0 +1,76 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemTypeaheadIndexTests {
+
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final ItemTypeaheadIndex index = new ItemTypeaheadIndex(referenceDataCache);
+
+    @BeforeEach
+    void catalogue() {
+        when(referenceDataCache.getItemsVersion()).thenReturn(1L);
+        when(referenceDataCache.getItems()).thenReturn(List.of(
+                item(1L, "Laptop Charger"),
+                item(2L, "Laser Printer"),
+                item(3L, "USB-C Laptop Dock"),
+                item(4L, "Paper, A4"),
+                item(5L, "  ")));
+    }
+
+    @Test
+    void fullNameMatchesComeBeforeWordMatches() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.lookup("la", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.lookup("Laptop", 10)));
+    }
+
+    @Test
+    void matchesAnyWordOfTheName() {
+        assertEquals(List.of(3L), ids(index.lookup("dock", 10)));
+        // Word matches come in key order
+        assertEquals(List.of(3L, 1L), ids(index.lookup("c", 10)));
+        assertEquals(List.of(4L), ids(index.lookup("a4", 10)));
+        assertEquals(List.of(2L), ids(index.lookup("  PRINT ", 10)));
+    }
+
+    @Test
+    void honoursTheLimitAndIgnoresEmptyPrefixes() {
+        assertEquals(List.of(1L), ids(index.lookup("la", 1)));
+        assertEquals(List.of(), index.lookup("la", 0));
+        assertEquals(List.of(), index.lookup("  ", 10));
+        assertEquals(List.of(), index.lookup(null, 10));
+        assertEquals(List.of(), index.lookup("zz", 10));
+    }
+
+    @Test
+    void rebuildsWhenTheCachedItemsChange() {
+        assertEquals(List.of(2L), ids(index.lookup("laser", 10)));
+
+        when(referenceDataCache.getItemsVersion()).thenReturn(2L);
+        when(referenceDataCache.getItems()).thenReturn(List.of(item(6L, "Laser Pointer")));
+
+        assertEquals(List.of(6L), ids(index.lookup("laser", 10)));
+        verify(referenceDataCache, times(2)).getItems();
+    }
+
+    private static Item item(Long id, String name) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        return item;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package just.inventory.backend.service;
+
+import just.inventory.backend.dto.OfficeTreeNode;
+import just.inventory.backend.model.Office;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * University (1) with two faculties (2, 3) and a department under each; faculty 3 comes
+ * first by display order. Office 9 has a parent that is not in the set and becomes a root.
+ */
+class OfficeTreeTests {
+
+    private final Office university = office(1L, "University", null, null);
+    private final Office science = office(2L, "Science", university, 2);
+    private final Office arts = office(3L, "Arts", university, 1);
+    private final Office physics = office(4L, "Physics", science, null);
+    private final Office history = office(5L, "History", arts, null);
+    private final Office orphan = office(9L, "Annex", office(99L, "Gone", null, null), null);
+
+    private final OfficeTree tree = OfficeTree.build(7, List.of(physics, history, science, arts, university, orphan));
+
+    @Test
+    void subtreesAreContiguousInSiblingOrder() {
+        assertEquals(7, tree.getVersion());
+        assertEquals(6, tree.size());
+        assertEquals(List.of(1L, 3L, 5L, 2L, 4L), tree.getSubtreeIds(1L));
+        assertEquals(List.of(2L, 4L), tree.getSubtreeIds(2L));
+        assertEquals(List.of(5L), tree.getSubtreeIds(5L));
+        assertEquals(List.of(), tree.getSubtreeIds(42L));
+    }
+
+    @Test
+    void answersMembershipAndAncestry() {
+        assertTrue(tree.isInSubtree(1L, 4L));
+        assertTrue(tree.isInSubtree(2L, 2L));
+        assertFalse(tree.isInSubtree(3L, 4L));
+        assertFalse(tree.isInSubtree(4L, 2L));
+        assertFalse(tree.isInSubtree(1L, 9L));
+        assertFalse(tree.isInSubtree(1L, null));
+
+        assertTrue(tree.isAncestor(1L, 5L));
+        assertFalse(tree.isAncestor(5L, 5L));
+    }
+
+    @Test
+    void walksUpToTheRoot() {
+        assertEquals(List.of(2L, 1L), tree.getAncestorIds(4L));
+        assertEquals(List.of(), tree.getAncestorIds(1L));
+        assertEquals(2L, tree.getParentId(4L));
+        assertNull(tree.getParentId(1L));
+        assertNull(tree.getParentId(9L));
+        assertEquals(2, tree.getDepth(4L));
+        assertEquals(0, tree.getDepth(9L));
+        assertEquals(-1, tree.getDepth(42L));
+        assertEquals(List.of(3L, 2L), tree.getChildIds(1L));
+    }
+
+    @Test
+    void nestsNodesForTheWholeTreeOrOneSubtree() {
+        List<OfficeTreeNode> roots = tree.toNodes(null);
+        // Roots without a display order sort by name
+        assertEquals(List.of(9L, 1L), roots.stream().map(OfficeTreeNode::getId).toList());
+        OfficeTreeNode arts = roots.get(1).getChildren().get(0);
+        assertEquals("Arts", arts.getName());
+        assertEquals(1, arts.getDepth());
+        assertEquals(5L, arts.getChildren().get(0).getId());
+
+        List<OfficeTreeNode> science = tree.toNodes(2L);
+        assertEquals(1, science.size());
+        assertEquals(List.of(4L), science.get(0).getChildren().stream().map(OfficeTreeNode::getId).toList());
+        assertEquals(List.of(), tree.toNodes(42L));
+    }
+
+    @Test
+    void leavesOutOfficesCaughtInAParentCycle() {
+        Office first = office(10L, "First", null, null);
+        Office second = office(11L, "Second", first, null);
+        first.setParent(second);
+
+        OfficeTree cyclic = OfficeTree.build(1, List.of(university, first, second));
+
+        assertEquals(1, cyclic.size());
+        assertTrue(cyclic.contains(1L));
+        assertFalse(cyclic.contains(10L));
+        assertFalse(cyclic.contains(11L));
+    }
+
+    private static Office office(Long id, String name, Office parent, Integer order) {
+        Office office = new Office();
+        office.setId(id);
+        office.setName(name);
+        office.setType("OFFICE");
+        office.setParent(parent);
+        office.setOrder(order);
+        return office;
+    }
+}
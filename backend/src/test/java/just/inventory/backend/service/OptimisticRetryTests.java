@@ -0,0 +1,124 @@
+package just.inventory.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import just.inventory.backend.model.ExportJob;
+import just.inventory.backend.repository.ExportJobRepository;
+import just.inventory.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Forces real {@code @Version} conflicts: each attempt reads a row, a second transaction
+ * bumps the same row, and the attempt's commit then finds a stale version.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class OptimisticRetryTests {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.optimistic-retry.max-attempts}")
+    private int maxAttempts;
+
+    @Test
+    void retriesAConflictingStepUntilItCommits() {
+        Long jobId = newJob();
+        AtomicInteger attempts = new AtomicInteger();
+        double conflicts = count("inventory.optimistic.conflicts", "test_recovers");
+
+        Long progress = optimisticRetry.execute("test_recovers", () -> {
+            ExportJob job = exportJobRepository.findById(jobId).orElseThrow();
+            if (attempts.incrementAndGet() < 3) {
+                bumpConcurrently(jobId);
+            }
+            job.setProgress(job.getProgress() + 100);
+            return job.getProgress();
+        });
+
+        assertEquals(3, attempts.get());
+        // Each retry re-read the row, so the winners' bumps are kept
+        assertEquals(102L, progress);
+        assertEquals(102L, exportJobRepository.findById(jobId).orElseThrow().getProgress());
+        assertEquals(conflicts + 2, count("inventory.optimistic.conflicts", "test_recovers"));
+    }
+
+    @Test
+    void givesUpWithConcurrentUpdateAfterTheLastAttempt() {
+        Long jobId = newJob();
+        AtomicInteger attempts = new AtomicInteger();
+        double exhausted = count("inventory.optimistic.exhausted", "test_gives_up");
+
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticRetry.execute("test_gives_up", () -> {
+            ExportJob job = exportJobRepository.findById(jobId).orElseThrow();
+            attempts.incrementAndGet();
+            bumpConcurrently(jobId);
+            job.setProgress(job.getProgress() + 100);
+            return job.getProgress();
+        }));
+
+        assertEquals(maxAttempts, attempts.get());
+        // None of the losing attempts was committed
+        assertEquals((long) maxAttempts, exportJobRepository.findById(jobId).orElseThrow().getProgress());
+        assertEquals(exhausted + 1, count("inventory.optimistic.exhausted", "test_gives_up"));
+    }
+
+    private Long newJob() {
+        ExportJob job = new ExportJob();
+        job.setType(ExportJob.Type.INVENTORY_CSV);
+        // Finished jobs are left alone by the export workers
+        job.setStatus(ExportJob.Status.FAILED);
+        job.setRequestedById(userRepository.findAll().get(0).getId());
+        return exportJobRepository.save(job).getId();
+    }
+
+    private void bumpConcurrently(Long jobId) {
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        other.executeWithoutResult(status -> {
+            ExportJob job = exportJobRepository.findById(jobId).orElseThrow();
+            job.setProgress(job.getProgress() + 1);
+        });
+    }
+
+    private double count(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation).count();
+    }
+}
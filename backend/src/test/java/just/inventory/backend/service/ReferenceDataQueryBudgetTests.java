@@ -0,0 +1,117 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import just.inventory.backend.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static just.inventory.backend.support.QueryBudget.maxQueries;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Query budgets for the reference data the rest of the backend leans on: cold loads
+ * must not fan out per row, and warm reads must not touch the database at all.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class ReferenceDataQueryBudgetTests {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private OfficeHierarchy officeHierarchy;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private OfficeService officeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void evict() {
+        referenceDataCache.evictAll();
+    }
+
+    @Test
+    void coldItemLoadFetchesCategoryAndUnitInOneQuery() {
+        List<Item> items = maxQueries(1, referenceDataCache::getItems);
+
+        assertFalse(items.isEmpty());
+        items.forEach(item -> {
+            assertNotNull(item.getCategory());
+            assertNotNull(item.getUnit());
+        });
+    }
+
+    @Test
+    void warmSnapshotIsServedWithoutQueries() {
+        referenceDataCache.getSnapshot();
+
+        maxQueries(0, referenceDataCache::getSnapshot);
+    }
+
+    @Test
+    void warmListsSerializeWithoutQueries() {
+        toJson(referenceDataCache.getSnapshot());
+
+        // Views carry no lazy associations, so writing the JSON cannot load anything either
+        maxQueries(0, () -> {
+            toJson(referenceDataCache.getSnapshot());
+            toJson(itemService.getAllItems());
+            toJson(categoryService.getAllCategories());
+            toJson(unitService.getAllUnits());
+            toJson(officeService.getAllOffices());
+        });
+    }
+
+    @Test
+    void hierarchyChecksNeverTouchTheDatabase() {
+        Long rootId = referenceDataCache.getOffices().get(0).getId();
+        officeHierarchy.getTree();
+
+        maxQueries(0, () -> {
+            officeHierarchy.getSubtreeIds(rootId);
+            officeHierarchy.getAncestorIds(rootId);
+            officeHierarchy.isInSubtree(rootId, rootId);
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
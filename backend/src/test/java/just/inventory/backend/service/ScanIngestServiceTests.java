@@ -0,0 +1,175 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import just.inventory.backend.dto.ScanIngestResult;
+import just.inventory.backend.model.ItemInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parsing and validation of scan uploads; the index knows barcodes A1 and A2, and the
+ * insert is captured instead of run.
+ */
+class ScanIngestServiceTests {
+
+    private final BarcodeIndex barcodeIndex = mock(BarcodeIndex.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ScanIngestService service = new ScanIngestService();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(service, "barcodeIndex", barcodeIndex);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 1000);
+        ReflectionTestUtils.setField(service, "maxRejections", 100);
+        service.registerMetrics();
+
+        when(barcodeIndex.lookup(anyCollection())).thenAnswer(invocation -> {
+            Map<String, BarcodeIndex.Entry> known = new HashMap<>();
+            for (String barcode : invocation.<Collection<String>>getArgument(0)) {
+                if (barcode.startsWith("A")) {
+                    known.put(barcode, new BarcodeIndex.Entry(barcode.charAt(1) - '0', 7L, ItemInstance.ItemStatus.AVAILABLE));
+                }
+            }
+            return known;
+        });
+    }
+
+    @Test
+    void parsesBinaryFrames() throws Exception {
+        long scannedAt = Instant.parse("2026-03-01T10:15:30Z").toEpochMilli();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        frame(out, "A1", scannedAt, "gun-1", 1);
+        frame(out, "A2", 0, "", 3);
+        frame(out, "B9", 0, "", 0);
+        frame(out, "A1", 0, "", 9);
+
+        ScanIngestResult result = service.ingestBinary(new ByteArrayInputStream(body.toByteArray()), 5L);
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.accepted());
+        assertNull(result.error());
+        assertEquals(List.of(
+                new ScanIngestResult.Rejection(2, "B9", "unknown barcode"),
+                new ScanIngestResult.Rejection(3, "A1", "unknown action #9")), result.rejections());
+
+        List<Object[]> columns = insertedColumns();
+        assertEquals(List.of(1L, 2L), Arrays.asList(columns.get(0)));
+        assertEquals(List.of("A1", "A2"), Arrays.asList(columns.get(1)));
+        assertEquals(Arrays.asList("gun-1", null), Arrays.asList(columns.get(3)));
+        assertEquals(List.of("CHECK_IN", "AUDIT"), Arrays.asList(columns.get(4)));
+        assertEquals(Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(scannedAt), ZoneId.systemDefault())),
+                columns.get(5)[0]);
+    }
+
+    @Test
+    void keepsTheScansBeforeATruncatedFrame() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        frame(out, "A1", 0, "", 0);
+        out.writeByte(2);
+        out.write("A2".getBytes(StandardCharsets.UTF_8));
+        out.writeInt(0);
+
+        ScanIngestResult result = service.ingestBinary(new ByteArrayInputStream(body.toByteArray()), 5L);
+
+        assertEquals(1, result.received());
+        assertEquals(1, result.accepted());
+        assertEquals("Truncated frame", result.error());
+    }
+
+    @Test
+    void rejectsNullAndBarcodelessNdjsonLinesOneByOne() throws Exception {
+        String body = """
+                {"barcode":"A1"}
+                null
+                {"timestamp":1}
+                {"barcode":"A2","action":"CHECK_OUT"}
+                """;
+
+        ScanIngestResult result = service.ingestNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), 5L);
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.accepted());
+        assertNull(result.error());
+        assertEquals(List.of(
+                new ScanIngestResult.Rejection(1, null, "empty record"),
+                new ScanIngestResult.Rejection(2, null, "missing barcode")), result.rejections());
+        assertEquals(List.of("A1", "A2"), Arrays.asList(insertedColumns().get(1)));
+    }
+
+    @Test
+    void stopsAtAMalformedNdjsonLine() {
+        String body = "{\"barcode\":\"A1\"}\n{\"barcode\":\n";
+
+        ScanIngestResult result = service.ingestNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), 5L);
+
+        assertEquals(1, result.received());
+        assertEquals(1, result.accepted());
+        assertEquals(true, result.error().startsWith("Invalid record"));
+    }
+
+    private static void frame(DataOutputStream out, String barcode, long timestamp, String deviceId, int action) throws IOException {
+        byte[] barcodeBytes = barcode.getBytes(StandardCharsets.UTF_8);
+        byte[] deviceBytes = deviceId.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(barcodeBytes.length);
+        out.write(barcodeBytes);
+        out.writeLong(timestamp);
+        out.writeByte(deviceBytes.length);
+        out.write(deviceBytes);
+        out.writeByte(action);
+    }
+
+    // Instance ids, barcodes, office ids, device ids, actions and scan times of the single insert
+    private List<Object[]> insertedColumns() throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> insert = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(1)).update(insert.capture());
+
+        List<Object[]> columns = new ArrayList<>();
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createArrayOf(anyString(), any())).thenAnswer(invocation -> {
+            columns.add(invocation.getArgument(1));
+            return mock(Array.class);
+        });
+        insert.getValue().createPreparedStatement(connection);
+        return columns;
+    }
+}
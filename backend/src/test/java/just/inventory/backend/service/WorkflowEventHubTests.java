@@ -0,0 +1,92 @@
+package just.inventory.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Replay from a hub holding the last four events; office 1 is involved in the odd
+ * events, office 2 in all of them.
+ */
+class WorkflowEventHubTests {
+
+    private final WorkflowEventHub hub = new WorkflowEventHub();
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(hub, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(hub, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hub, "replaySize", 4);
+        ReflectionTestUtils.setField(hub, "clientBuffer", 16);
+        hub.init();
+    }
+
+    @Test
+    void replaysTheOfficesEventsAfterTheLastSeenOne() {
+        accept(5);
+
+        assertEquals(List.of(epoch() + "-3", epoch() + "-5"), ids(hub.missedSince(epoch() + "-2", 1L)));
+        assertEquals(List.of(epoch() + "-4", epoch() + "-5"), ids(hub.missedSince(epoch() + "-3", 2L)));
+        assertEquals(List.of(), ids(hub.missedSince(epoch() + "-5", 2L)));
+    }
+
+    @Test
+    void replaysFromTheOldestBufferedEventButNotBeyond() {
+        accept(6);
+
+        // Events 3 to 6 are buffered, so a client that saw 2 is still complete
+        assertEquals(4, hub.missedSince(epoch() + "-2", 2L).size());
+        assertNull(hub.missedSince(epoch() + "-1", 2L));
+    }
+
+    @Test
+    void cannotReplayForeignMalformedOrFutureIds() {
+        accept(2);
+
+        assertNull(hub.missedSince("deadbeef-1", 2L));
+        assertNull(hub.missedSince(epoch() + "-x", 2L));
+        assertNull(hub.missedSince("1", 2L));
+        assertNull(hub.missedSince(epoch() + "-3", 2L));
+    }
+
+    @Test
+    void resetStartsANewEpoch() {
+        accept(2);
+        String before = epoch();
+
+        hub.reset();
+
+        assertNull(hub.missedSince(before + "-1", 2L));
+        assertEquals(List.of(), ids(hub.missedSince(epoch() + "-0", 2L)));
+    }
+
+    private void accept(int count) {
+        for (long id = 1; id <= count; id++) {
+            List<Long> offices = id % 2 == 1 ? List.of(1L, 2L) : List.of(2L);
+            hub.accept(new WorkflowEvent(WorkflowEvent.REQUEST, id, "PENDING", offices));
+        }
+    }
+
+    private String epoch() {
+        return (String) ReflectionTestUtils.getField(hub, "epoch");
+    }
+
+    private static List<String> ids(List<SseEmitter.SseEventBuilder> events) {
+        return events.stream()
+                .map(event -> event.build().iterator().next().getData().toString())
+                .map(text -> Arrays.stream(text.split("\n"))
+                        .filter(line -> line.startsWith("id:"))
+                        .findFirst().orElseThrow()
+                        .substring("id:".length()))
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package just.inventory.backend.support;
+
+import just.inventory.backend.config.RequestStatistics;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fails a test when the wrapped call runs more SQL statements than allowed. Counts every
+ * JDBC execution (JPA, native and {@code JdbcTemplate}) through {@link RequestStatistics},
+ * and names the most repeated statement shape in the failure so an N+1 is easy to spot.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static void maxQueries(long max, Runnable call) {
+        maxQueries(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public static <T> T maxQueries(long max, Supplier<T> call) {
+        RequestStatistics statistics = RequestStatistics.begin();
+        try {
+            T result = call.get();
+            if (statistics.getQueries() > max) {
+                Map.Entry<String, Integer> top = statistics.getMostRepeatedShape();
+                throw new AssertionError("Expected at most " + max + " queries but ran " + statistics.getQueries()
+                        + (top != null ? "; most repeated (" + top.getValue() + "x): " + top.getKey() : ""));
+            }
+            return result;
+        } finally {
+            RequestStatistics.end();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package just.inventory.benchmarks;
+
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.Office;
+import just.inventory.backend.service.BarcodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering cost of every barcode/label format {@link BarcodeService} produces. Sheet,
+ * PDF and ESC/POS batch sizes are parameterised by {@code labels}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BarcodeBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int labels;
+
+    private BarcodeService barcodeService;
+    private Long instanceId;
+    private List<Long> instanceIds;
+    private String barcode;
+
+    @Setup
+    public void setUp() {
+        Office office = Fixtures.office(1);
+        Map<Long, ItemInstance> instances = new HashMap<>();
+        instanceIds = new ArrayList<>(labels);
+        for (long id = 1; id <= labels; id++) {
+            instances.put(id, Fixtures.instance(id, Fixtures.item(id), office, ItemInstance.ItemStatus.AVAILABLE));
+            instanceIds.add(id);
+        }
+        instanceId = 1L;
+        barcode = instances.get(instanceId).getBarcode();
+
+        barcodeService = new BarcodeService();
+        Fixtures.inject(barcodeService, "itemInstanceRepository", Fixtures.itemInstanceRepository(instances));
+    }
+
+    @Benchmark
+    public byte[] code128() throws Exception {
+        return barcodeService.generateBarcodeImage(barcode, 300, 100);
+    }
+
+    @Benchmark
+    public byte[] qrCode() throws Exception {
+        return barcodeService.generateQRCode(barcode, 200, 200);
+    }
+
+    @Benchmark
+    public byte[] simpleLabel() throws Exception {
+        return barcodeService.generateSimpleBarcodeLabel(instanceId);
+    }
+
+    @Benchmark
+    public byte[] label() throws Exception {
+        return barcodeService.generateBarcodeLabel(instanceId);
+    }
+
+    @Benchmark
+    public byte[] labelSheet() throws Exception {
+        return barcodeService.generateBarcodeLabels(instanceIds);
+    }
+
+    @Benchmark
+    public byte[] simpleLabelSheet() throws Exception {
+        return barcodeService.generateSimpleBarcodeLabels(instanceIds);
+    }
+
+    @Benchmark
+    public byte[] pdf() throws Exception {
+        return barcodeService.generateBarcodeLabelsPDF(instanceIds);
+    }
+
+    @Benchmark
+    public byte[] escPos() throws Exception {
+        return barcodeService.generateESCPOSCommandsMultiple(instanceIds);
+    }
+}
@@ -0,0 +1,218 @@
+package just.inventory.benchmarks;
+
+import just.inventory.backend.dto.PurchaseResponse;
+import just.inventory.backend.model.Category;
+import just.inventory.backend.model.Item;
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.model.ItemRequest;
+import just.inventory.backend.model.Office;
+import just.inventory.backend.model.Role;
+import just.inventory.backend.model.Unit;
+import just.inventory.backend.model.User;
+import just.inventory.backend.repository.ItemInstanceRepository;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory data for the benchmarks. Nothing here touches a database:
+ * repositories are replaced by small dynamic proxies and services are wired by hand.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final ItemInstance.ItemStatus[] STATUSES = ItemInstance.ItemStatus.values();
+
+    private Fixtures() {
+    }
+
+    static Office office(long id) {
+        Office office = new Office();
+        office.setId(id);
+        office.setName("Department " + id);
+        office.setNameBn("বিভাগ " + id);
+        office.setType("DEPARTMENT");
+        office.setCode("DEPT-" + id);
+        return office;
+    }
+
+    static Item item(long id) {
+        Category category = new Category();
+        category.setId(id % 12 + 1);
+        category.setName("Category " + category.getId());
+        Unit unit = new Unit();
+        unit.setId(id % 4 + 1);
+        unit.setName("Piece");
+
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id + " Laboratory Equipment");
+        item.setDescription("Synthetic catalogue entry " + id);
+        item.setCategory(category);
+        item.setUnit(unit);
+        return item;
+    }
+
+    static ItemInstance instance(long id, Item item, Office owner, ItemInstance.ItemStatus status) {
+        ItemInstance instance = new ItemInstance();
+        instance.setId(id);
+        instance.setItem(item);
+        instance.setOwnerOffice(owner);
+        instance.setStatus(status);
+        instance.setBarcode(String.format("JUST-%08d", id));
+        instance.setSerialNumber("SN-" + id);
+        instance.setPurchaseDate(BASE_DATE.plusDays(id % 365));
+        instance.setPurchasePrice(1000.0 + id % 500);
+        instance.setCreatedAt(BASE_DATE);
+        return instance;
+    }
+
+    /**
+     * {@code size} instances spread over {@code itemCount} items, with a fixed seed so
+     * every run groups exactly the same data.
+     */
+    static List<ItemInstance> instances(int size, int itemCount) {
+        Random random = new Random(42);
+        Office owner = office(1);
+        Item[] items = new Item[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = item(i + 1);
+        }
+        List<ItemInstance> instances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            instances.add(instance(i + 1, items[random.nextInt(itemCount)], owner, STATUSES[random.nextInt(STATUSES.length)]));
+        }
+        return instances;
+    }
+
+    static User user(long id, String roleName, Office office) {
+        Role role = new Role();
+        role.setId(1L);
+        role.setName(roleName);
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setFullName("User " + id);
+        user.setEmail("user" + id + "@just.edu.bd");
+        user.setPassword("{noop}secret");
+        user.setRole(role);
+        user.setOffice(office);
+        return user;
+    }
+
+    static PurchaseResponse purchaseResponse(int lines, int unitsPerLine) {
+        PurchaseResponse response = new PurchaseResponse();
+        response.setId(1L);
+        response.setSupplier("Dhaka Scientific Supplies");
+        response.setInvoiceNumber("INV-2024-0001");
+        response.setRemarks("Annual laboratory purchase");
+        response.setPurchasedDate(BASE_DATE);
+
+        PurchaseResponse.UserSummary purchasedBy = new PurchaseResponse.UserSummary();
+        purchasedBy.setId(1L);
+        purchasedBy.setUsername("store.keeper");
+        purchasedBy.setName("Store Keeper");
+        purchasedBy.setFullName("Store Keeper");
+        response.setPurchasedBy(purchasedBy);
+
+        PurchaseResponse.OfficeSummary office = new PurchaseResponse.OfficeSummary();
+        office.setId(1L);
+        office.setName("Central Store");
+        response.setOffice(office);
+
+        List<PurchaseResponse.PurchaseItemResponse> items = new ArrayList<>(lines);
+        long instanceId = 1;
+        double total = 0;
+        for (int line = 0; line < lines; line++) {
+            PurchaseResponse.ItemSummary item = new PurchaseResponse.ItemSummary();
+            item.setId((long) line + 1);
+            item.setName("Item " + (line + 1));
+
+            PurchaseResponse.PurchaseItemResponse purchaseItem = new PurchaseResponse.PurchaseItemResponse();
+            purchaseItem.setId((long) line + 1);
+            purchaseItem.setItem(item);
+            purchaseItem.setQuantity((double) unitsPerLine);
+            purchaseItem.setUnitPrice(250.0);
+            purchaseItem.setTotalPrice(250.0 * unitsPerLine);
+            List<Long> ids = new ArrayList<>(unitsPerLine);
+            List<String> barcodes = new ArrayList<>(unitsPerLine);
+            for (int unit = 0; unit < unitsPerLine; unit++, instanceId++) {
+                ids.add(instanceId);
+                barcodes.add(String.format("JUST-%08d", instanceId));
+            }
+            purchaseItem.setItemInstanceIds(ids);
+            purchaseItem.setItemBarcodes(barcodes);
+            items.add(purchaseItem);
+            total += purchaseItem.getTotalPrice();
+        }
+        response.setItems(items);
+        response.setTotalAmount(total);
+        response.setTotalItems((int) (instanceId - 1));
+        return response;
+    }
+
+    static List<ItemRequest> itemRequests(int size) {
+        Office parent = office(1);
+        List<ItemRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Office requesting = office(i % 90 + 2);
+            requesting.setParent(parent);
+            User requester = user(i + 10, "USER", requesting);
+            User approver = user(2, "ADMIN", parent);
+            Item item = item(i % 200 + 1);
+
+            ItemRequest request = new ItemRequest();
+            request.setId((long) i + 1);
+            request.setItem(item);
+            request.setRequestingOffice(requesting);
+            request.setParentOffice(parent);
+            request.setRequestedBy(requester);
+            request.setApprovedBy(approver);
+            request.setRequestedQuantity(5.0);
+            request.setApprovedQuantity(4.0);
+            request.setStatus(ItemRequest.RequestStatus.values()[i % ItemRequest.RequestStatus.values().length]);
+            request.setReason("Needed for the new semester");
+            request.setRequestedDate(BASE_DATE.plusHours(i));
+            request.setApprovedDate(BASE_DATE.plusHours(i + 2));
+            request.setFulfilledItemInstance(instance(i + 1, item, requesting, ItemInstance.ItemStatus.AVAILABLE));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * A read-only {@link ItemInstanceRepository} backed by a map; only {@code findById} is
+     * supported, which is all the barcode renderers use.
+     */
+    static ItemInstanceRepository itemInstanceRepository(Map<Long, ItemInstance> instances) {
+        return (ItemInstanceRepository) Proxy.newProxyInstance(
+                ItemInstanceRepository.class.getClassLoader(),
+                new Class<?>[]{ItemInstanceRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(instances.get((Long) args[0]));
+                    case "toString" -> "ItemInstanceRepository(benchmark)";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Sets an {@code @Autowired} or {@code @Value} field the way Spring would.
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
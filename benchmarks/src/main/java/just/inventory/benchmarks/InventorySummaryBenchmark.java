@@ -0,0 +1,52 @@
+package just.inventory.benchmarks;
+
+import just.inventory.backend.model.ItemInstance;
+import just.inventory.backend.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory grouping behind {@code GET /api/inventories/office/{id}/summary}, over
+ * synthetic instance lists of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventorySummaryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int instances;
+
+    @Param({"50"})
+    public int items;
+
+    private InventoryService inventoryService;
+    private List<ItemInstance> instanceList;
+
+    @Setup
+    public void setUp() {
+        inventoryService = new InventoryService();
+        instanceList = Fixtures.instances(instances, items);
+    }
+
+    @Benchmark
+    public Map<String, Object> summarize() {
+        return inventoryService.summarize(1L, instanceList);
+    }
+}
@@ -0,0 +1,68 @@
+package just.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import just.inventory.backend.dto.ItemRequestView;
+import just.inventory.backend.dto.PurchaseResponse;
+import just.inventory.backend.model.ItemRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the two heaviest response shapes: a purchase with its created
+ * instance ids/barcodes, and a page of item requests, both as the entity graph and as
+ * the {@link ItemRequestView} read model the list endpoints return.
+ * The mapper is built the way Spring Boot builds the application one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private PurchaseResponse purchaseResponse;
+    private List<ItemRequest> itemRequests;
+    private List<ItemRequestView> itemRequestViews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // size purchase lines of 10 units each
+        purchaseResponse = Fixtures.purchaseResponse(size, 10);
+        itemRequests = Fixtures.itemRequests(size);
+        itemRequestViews = itemRequests.stream().map(ItemRequestView::of).toList();
+    }
+
+    @Benchmark
+    public byte[] purchaseResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(purchaseResponse);
+    }
+
+    @Benchmark
+    public byte[] itemRequests() throws Exception {
+        return objectMapper.writeValueAsBytes(itemRequests);
+    }
+
+    @Benchmark
+    public byte[] itemRequestViews() throws Exception {
+        return objectMapper.writeValueAsBytes(itemRequestViews);
+    }
+}
@@ -0,0 +1,4 @@
+package just.inventory.benchmarks.jmh_generated;
+public class BarcodeBenchmark_jmhType extends BarcodeBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package just.inventory.benchmarks.jmh_generated;
+public class InventorySummaryBenchmark_jmhType extends InventorySummaryBenchmark_jmhType_B3 {
+}
+
@@ -26,7 +26,7 @@ import {
 import { useMyOfficeInventorySummary } from "@/services/inventoryService";
 import { usePurchases } from "@/services/purchaseService";
 import { useItemRequests } from "@/services/itemRequestService";
-import { useMyOfficeTransactionHistory } from "@/services/inventoryService";
+import { useMyOfficeTransactionHistory, isMovement } from "@/services/inventoryService";
 
 interface InventorySummary {
   officeId: number;
@@ -77,7 +77,7 @@ export default function DashboardPage() {
   const pendingRequests = itemRequests.filter(r => r.status === 'PENDING').length;
   const recentPurchases = purchases.slice(0, 5);
   const recentRequests = itemRequests.slice(0, 5);
-  const recentTransactions = transactions.slice(0, 5);
+  const recentTransactions = transactions.filter(isMovement).slice(0, 5);
 
   return (
     <PageLayout
@@ -25,7 +25,8 @@ import {
   ItemInstance, 
   useMyOfficePurchases, 
   useMyOfficeTransactionHistory, 
-  ItemTransaction 
+  ItemTransaction,
+  isMovement
 } from "@/services/inventoryService";
 import { Purchase, PurchaseItem } from "@/services/purchaseService";
 import { useAuth } from "@/contexts/AuthContext";
@@ -240,7 +241,7 @@ function HistoryTable({ purchases, transactions }: { purchases: Purchase[], tran
         reason: 'Purchase'
       }))
     ),
-    ...transactions.filter(t => t.toOffice.id === parseInt(user?.officeId || '0') && t.status !== 'PENDING').map(transaction => ({ 
+    ...transactions.filter(t => isMovement(t) && t.toOffice.id === parseInt(user?.officeId || '0') && t.status !== 'PENDING').map(transaction => ({ 
       type: '+',
       itemName: transaction.itemInstance.item.name,
       source: transaction.fromOffice?.name || 'Unknown',
@@ -249,7 +250,7 @@ function HistoryTable({ purchases, transactions }: { purchases: Purchase[], tran
       reason: 'Transfer In'
     })),
     // Deductions (-)
-    ...transactions.filter(t => t.fromOffice.id === parseInt(user?.officeId || '0') && t.status !== 'PENDING').map(transaction => ({ 
+    ...transactions.filter(t => isMovement(t) && t.fromOffice.id === parseInt(user?.officeId || '0') && t.status !== 'PENDING').map(transaction => ({ 
       type: '-',
       itemName: transaction.itemInstance.item.name,
       source: transaction.toOffice?.name || 'Unknown',
@@ -340,6 +341,7 @@ export default function InventoryPage() {
   // Calculate actual history count (all purchase items + incoming/outgoing non-pending transactions)
   const historyCount = purchases.reduce((sum, purchase) => sum + (purchase.items?.length || 0), 0) + 
     transactions.filter(t => 
+      isMovement(t) &&
       t.status !== 'PENDING' && 
       (t.toOffice.id === parseInt(user?.officeId || '0') || t.fromOffice.id === parseInt(user?.officeId || '0'))
     ).length;
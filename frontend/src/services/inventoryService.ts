@@ -143,6 +143,10 @@ export const getMyOfficeTransactionHistory = async (): Promise<ItemTransaction[]
   return response.data;
 };
 
+// Distributions and transfers; status changes are recorded from and to the owning office
+export const isMovement = (transaction: ItemTransaction) =>
+  transaction.transactionType === 'DISTRIBUTION' || transaction.transactionType === 'TRANSFER';
+
 // React Query Hooks
 export const useInventoryByOffice = (officeId: number) => {
   return useQuery({
@@ -0,0 +1,112 @@
+package just.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin JSON client over {@link HttpClient}. Every call is timed and recorded under its
+ * endpoint template (e.g. {@code GET /api/items/{id}}), not the concrete path, so the
+ * results line up with the server's own per-endpoint metrics.
+ */
+final class ApiClient {
+
+    record Session(String username, String token, long officeId) {
+    }
+
+    record Response(int status, byte[] body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Metrics metrics;
+
+    ApiClient(String baseUrl, Duration timeout, Metrics metrics) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    Session login(String username, String password) throws IOException, InterruptedException {
+        Response response = send(null, "POST", "/api/auth/login", "/api/auth/login",
+                Map.of("username", username, "password", password));
+        if (!response.ok()) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.status());
+        }
+        JsonNode body = json(response);
+        return new Session(username, body.path("token").asText(), body.path("user").path("officeId").asLong());
+    }
+
+    Response get(Session session, String template, String path) throws IOException, InterruptedException {
+        return send(session, "GET", template, path, null);
+    }
+
+    Response post(Session session, String template, String path, Object body) throws IOException, InterruptedException {
+        return send(session, "POST", template, path, body);
+    }
+
+    Response put(Session session, String template, String path, Object body) throws IOException, InterruptedException {
+        return send(session, "PUT", template, path, body);
+    }
+
+    static JsonNode json(Response response) {
+        if (response.body().length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private Response send(Session session, String method, String template, String path, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json, */*");
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.token());
+        }
+        if (body != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long started = System.nanoTime();
+        int status;
+        byte[] responseBody;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            responseBody = response.body();
+        } catch (IOException e) {
+            // Timeouts and connection failures count as errors at the time they took
+            metrics.record(method + " " + template, System.nanoTime() - started, 0);
+            throw e;
+        }
+        metrics.record(method + " " + template, System.nanoTime() - started, status);
+        return new Response(status, responseBody);
+    }
+}
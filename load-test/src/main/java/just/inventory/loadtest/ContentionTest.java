@@ -0,0 +1,242 @@
+package just.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import just.inventory.loadtest.ApiClient.Response;
+import just.inventory.loadtest.ApiClient.Session;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contention check for the optimistic-locking workflows. Many threads hammer the same
+ * rows at once and the run then verifies that no update was lost:
+ *
+ * <ol>
+ *   <li>fulfil: every thread fulfils one unit at a time of the same approved request; the
+ *       request's fulfilled quantity and its pending distributions must match the number
+ *       of successful calls, each on a different instance</li>
+ *   <li>distribute: every thread distributes one unit of the same item from the same
+ *       office; no instance may end up in two pending distributions</li>
+ * </ol>
+ *
+ * Prints throughput and the split between successes, 409 conflicts (retries exhausted)
+ * and other failures, plus per-endpoint latencies. Server-side retries are visible as
+ * {@code inventory.optimistic.conflicts} on {@code /actuator/prometheus}. Exits with 1 if
+ * an invariant is violated.
+ */
+public final class ContentionTest {
+
+    private ContentionTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = get(options, "base-url", "http://localhost:8080");
+        int threads = Integer.parseInt(get(options, "threads", "16"));
+        int units = Integer.parseInt(get(options, "units", "40"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(get(options, "timeout", "30")));
+        String userPrefix = get(options, "user-prefix", "perf.");
+        String password = get(options, "password", "perf-password");
+        String bootstrapUser = get(options, "bootstrap-user", userPrefix + "1");
+        Path output = Path.of(get(options, "output", "target/load-test"));
+
+        Metrics metrics = new Metrics();
+        metrics.startRecording();
+        ApiClient client = new ApiClient(baseUrl, timeout, metrics);
+
+        // A sub-office and its parent, and the item the parent holds most of
+        Session bootstrap = client.login(bootstrapUser, password);
+        long childId = 0;
+        long parentId = 0;
+        for (JsonNode office : ApiClient.json(client.get(bootstrap, "/api/offices", "/api/offices"))) {
+            if (office.path("parent").path("id").asLong(0) != 0) {
+                childId = office.path("id").asLong();
+                parentId = office.path("parent").path("id").asLong();
+                break;
+            }
+        }
+        if (childId == 0) {
+            throw new IllegalStateException("No sub-office visible to " + bootstrapUser);
+        }
+        Session requester = client.login(userPrefix + childId, password);
+        Session approver = client.login(userPrefix + parentId, password);
+
+        Map<Long, Integer> available = new HashMap<>();
+        for (JsonNode instance : ApiClient.json(client.get(approver, "/api/inventories/office/{officeId}/items",
+                "/api/inventories/office/" + parentId + "/items"))) {
+            if ("AVAILABLE".equals(instance.path("status").asText())) {
+                available.merge(instance.path("item").path("id").asLong(), 1, Integer::sum);
+            }
+        }
+        if (available.isEmpty()) {
+            throw new IllegalStateException("Office " + parentId + " has no available stock");
+        }
+        Map.Entry<Long, Integer> stock = Collections.max(available.entrySet(), Map.Entry.comparingByValue());
+        long itemId = stock.getKey();
+        int fulfilUnits = Math.min(units, stock.getValue() / 2);
+        int distributeUnits = Math.min(units, stock.getValue() - fulfilUnits);
+        System.out.printf("Office %d -> %d, item %d (%d available), %d threads%n",
+                parentId, childId, itemId, stock.getValue(), threads);
+
+        boolean ok = fulfil(client, requester, approver, parentId, itemId, fulfilUnits, threads);
+        ok &= distribute(client, approver, parentId, childId, itemId, distributeUnits, threads);
+
+        metrics.stopRecording();
+        Files.createDirectories(output);
+        metrics.report(output.resolve("contention-test.hlog"), System.out);
+        System.out.println(ok ? "All invariants held" : "INVARIANT VIOLATED");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean fulfil(ApiClient client, Session requester, Session approver, long parentId, long itemId,
+                                  int units, int threads) throws Exception {
+        Response created = client.post(requester, "/api/item-requests", "/api/item-requests", Map.of(
+                "item", Map.of("id", itemId),
+                "parentOffice", Map.of("id", parentId),
+                "requestedQuantity", units,
+                "reason", "Contention test"));
+        long requestId = ApiClient.json(created).path("id").asLong();
+        client.put(approver, "/api/item-requests/{id}/approve", "/api/item-requests/" + requestId + "/approve",
+                Map.of("approvedQuantity", units));
+
+        AtomicInteger attempts = new AtomicInteger();
+        Outcome outcome = race("fulfil", threads, () -> {
+            // Keep going until the request is fully fulfilled; a 400 means it already is
+            if (attempts.incrementAndGet() > units * 4) {
+                return null;
+            }
+            return client.put(approver, "/api/item-requests/{id}/fulfill",
+                    "/api/item-requests/" + requestId + "/fulfill", Map.of("quantity", 1));
+        });
+
+        JsonNode request = ApiClient.json(client.get(requester, "/api/item-requests/{id}",
+                "/api/item-requests/" + requestId));
+        int pending = 0;
+        Set<Long> instances = new HashSet<>();
+        for (JsonNode transaction : ApiClient.json(client.get(requester, "/api/distributions/pending",
+                "/api/distributions/pending"))) {
+            if (transaction.path("itemRequestId").asLong() == requestId) {
+                pending++;
+                instances.add(transaction.path("itemInstance").path("id").asLong());
+            }
+        }
+        double fulfilled = request.path("fulfilledQuantity").asDouble();
+        boolean ok = fulfilled == outcome.successes() && pending == outcome.successes() && instances.size() == pending;
+        System.out.printf("fulfil: request %d fulfilled %.0f of %d, %d pending distributions on %d instances%n",
+                requestId, fulfilled, units, pending, instances.size());
+        return ok;
+    }
+
+    private static boolean distribute(ApiClient client, Session approver, long parentId, long childId, long itemId,
+                                      int units, int threads) throws Exception {
+        AtomicInteger issued = new AtomicInteger();
+        Map<Long, Integer> reservations = new ConcurrentHashMap<>();
+        Outcome outcome = race("distribute", threads, () -> {
+            if (issued.incrementAndGet() > units) {
+                return null;
+            }
+            Response response = client.post(approver, "/api/distributions", "/api/distributions", Map.of(
+                    "fromOfficeId", parentId,
+                    "toOfficeId", childId,
+                    "itemId", itemId,
+                    "quantity", 1,
+                    "remarks", "Contention test"));
+            if (response.ok()) {
+                for (JsonNode transaction : ApiClient.json(response)) {
+                    reservations.merge(transaction.path("itemInstance").path("id").asLong(), 1, Integer::sum);
+                }
+            }
+            return response;
+        });
+
+        long doubleBooked = reservations.values().stream().filter(count -> count > 1).count();
+        System.out.printf("distribute: %d instances reserved, %d reserved more than once%n",
+                reservations.size(), doubleBooked);
+        return doubleBooked == 0 && reservations.size() == outcome.successes();
+    }
+
+    private record Outcome(int successes, int conflicts, int failures) {
+    }
+
+    /**
+     * Runs {@code call} from all threads at once (released together) until it returns null
+     * or a non-conflict failure, and prints throughput and the outcome split.
+     */
+    private static Outcome race(String name, int threads, Callable<Response> call) throws Exception {
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(() -> {
+                start.await();
+                while (!done.get()) {
+                    Response response = call.call();
+                    if (response == null) {
+                        break;
+                    }
+                    if (response.ok()) {
+                        successes.incrementAndGet();
+                    } else if (response.status() == 409) {
+                        conflicts.incrementAndGet();
+                    } else {
+                        failures.incrementAndGet();
+                        done.set(true);
+                    }
+                }
+                return null;
+            });
+        }
+
+        long started;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            var futures = workers.stream().map(executor::submit).toList();
+            started = System.nanoTime();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        int total = successes.get() + conflicts.get() + failures.get();
+        System.out.printf("%s: %d calls in %.2f s (%.1f/s), %d ok, %d conflicts, %d other failures%n",
+                name, total, seconds, total / seconds, successes.get(), conflicts.get(), failures.get());
+        return new Outcome(successes.get(), conflicts.get(), failures.get());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return values;
+    }
+
+    private static String get(Map<String, String> values, String name, String defaultValue) {
+        String value = values.get(name);
+        return value != null ? value : System.getProperty("load." + name, defaultValue);
+    }
+}
@@ -0,0 +1,197 @@
+package just.inventory.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import just.inventory.loadtest.ApiClient.Response;
+import just.inventory.loadtest.ApiClient.Session;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The user journeys the driver replays. Each one is what a person does in the UI, as
+ * the sequence of API calls the frontend makes for it. Sessions (one per office) and a
+ * sample of each office's instances are fetched once and shared by all virtual users.
+ */
+final class Journeys {
+
+    enum Journey { DASHBOARD, REQUISITION, LABELS, SCAN }
+
+    private record Office(long id, long parentId) {
+    }
+
+    private record Instance(long id, String barcode) {
+    }
+
+    private static final int INSTANCE_SAMPLE = 500;
+
+    private final ApiClient client;
+    private final String userPrefix;
+    private final String password;
+    private final int labelBatch;
+
+    private final List<Office> offices = new ArrayList<>();
+    private final List<Office> childOffices = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, List<Instance>> instances = new ConcurrentHashMap<>();
+
+    Journeys(ApiClient client, String userPrefix, String password, int labelBatch) {
+        this.client = client;
+        this.userPrefix = userPrefix;
+        this.password = password;
+        this.labelBatch = labelBatch;
+    }
+
+    /**
+     * Loads the office tree and catalogue with the bootstrap user.
+     */
+    void discover(String bootstrapUser) throws IOException, InterruptedException {
+        Session session = client.login(bootstrapUser, password);
+        for (JsonNode office : ApiClient.json(client.get(session, "/api/offices", "/api/offices"))) {
+            Office o = new Office(office.path("id").asLong(), office.path("parent").path("id").asLong(0));
+            offices.add(o);
+            if (o.parentId() != 0) {
+                childOffices.add(o);
+            }
+        }
+        for (JsonNode item : ApiClient.json(client.get(session, "/api/items", "/api/items"))) {
+            itemIds.add(item.path("id").asLong());
+        }
+        if (offices.isEmpty() || itemIds.isEmpty()) {
+            throw new IllegalStateException("No offices or items visible to " + bootstrapUser);
+        }
+    }
+
+    int officeCount() {
+        return offices.size();
+    }
+
+    void run(Journey journey, SplittableRandom random) throws IOException, InterruptedException {
+        switch (journey) {
+            case DASHBOARD -> dashboard(random);
+            case REQUISITION -> requisition(random);
+            case LABELS -> labels(random);
+            case SCAN -> scan(random);
+        }
+    }
+
+    /**
+     * Opening the dashboard: summary, inboxes, pending distributions, recent purchases.
+     */
+    private void dashboard(SplittableRandom random) throws IOException, InterruptedException {
+        Session session = session(offices.get(random.nextInt(offices.size())).id());
+        client.get(session, "/api/reference-data", "/api/reference-data");
+        client.get(session, "/api/inventories/my-office/summary", "/api/inventories/my-office/summary");
+        client.get(session, "/api/item-requests/incoming", "/api/item-requests/incoming");
+        client.get(session, "/api/item-requests/my-requests", "/api/item-requests/my-requests");
+        client.get(session, "/api/distributions/pending", "/api/distributions/pending");
+        client.get(session, "/api/purchases/office/{officeId}", "/api/purchases/office/" + session.officeId());
+    }
+
+    /**
+     * A sub-office requests one unit, the parent office approves and fulfils it, and the
+     * requester confirms receipt. Fulfilment fails when the parent has nothing in stock;
+     * that is recorded and the journey stops there.
+     */
+    private void requisition(SplittableRandom random) throws IOException, InterruptedException {
+        if (childOffices.isEmpty()) {
+            return;
+        }
+        Office office = childOffices.get(random.nextInt(childOffices.size()));
+        Session requester = session(office.id());
+        Session approver = session(office.parentId());
+
+        Response created = client.post(requester, "/api/item-requests", "/api/item-requests", Map.of(
+                "item", Map.of("id", itemIds.get(random.nextInt(itemIds.size()))),
+                "parentOffice", Map.of("id", office.parentId()),
+                "requestedQuantity", 1,
+                "reason", "Load test requisition"));
+        if (!created.ok()) {
+            return;
+        }
+        long requestId = ApiClient.json(created).path("id").asLong();
+
+        client.get(approver, "/api/item-requests/incoming", "/api/item-requests/incoming");
+        if (!client.put(approver, "/api/item-requests/{id}/approve", "/api/item-requests/" + requestId + "/approve",
+                Map.of("approvedQuantity", 1)).ok()) {
+            return;
+        }
+        if (!client.put(approver, "/api/item-requests/{id}/fulfill", "/api/item-requests/" + requestId + "/fulfill",
+                Map.of("quantity", 1)).ok()) {
+            return;
+        }
+        client.get(requester, "/api/item-requests/fulfilled", "/api/item-requests/fulfilled");
+        client.put(requester, "/api/item-requests/{id}/confirm", "/api/item-requests/" + requestId + "/confirm",
+                Map.of("remarks", "Received"));
+    }
+
+    /**
+     * Printing a batch of labels as a PDF, then as ESC/POS for a thermal printer.
+     */
+    private void labels(SplittableRandom random) throws IOException, InterruptedException {
+        Session session = session(offices.get(random.nextInt(offices.size())).id());
+        List<Instance> sample = instances(session);
+        if (sample.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(labelBatch);
+        for (int i = 0; i < labelBatch; i++) {
+            ids.add(sample.get(random.nextInt(sample.size())).id());
+        }
+        client.post(session, "/api/barcodes/labels-pdf", "/api/barcodes/labels-pdf", ids);
+        client.post(session, "/api/barcodes/escpos-multiple", "/api/barcodes/escpos-multiple", ids.subList(0, Math.min(5, ids.size())));
+    }
+
+    /**
+     * A stock check: a few single scans followed by a batch lookup.
+     */
+    private void scan(SplittableRandom random) throws IOException, InterruptedException {
+        Session session = session(offices.get(random.nextInt(offices.size())).id());
+        List<Instance> sample = instances(session);
+        if (sample.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            String barcode = sample.get(random.nextInt(sample.size())).barcode();
+            client.get(session, "/api/tracking/barcode/{barcode}",
+                    "/api/tracking/barcode/" + URLEncoder.encode(barcode, StandardCharsets.UTF_8));
+        }
+        List<String> barcodes = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            barcodes.add(sample.get(random.nextInt(sample.size())).barcode());
+        }
+        client.post(session, "/api/tracking/barcodes", "/api/tracking/barcodes", Map.of("barcodes", barcodes));
+    }
+
+    private Session session(long officeId) throws IOException, InterruptedException {
+        Session session = sessions.get(officeId);
+        if (session == null) {
+            // Two virtual users may both log in here; either token is fine
+            session = client.login(userPrefix + officeId, password);
+            sessions.put(officeId, session);
+        }
+        return session;
+    }
+
+    private List<Instance> instances(Session session) throws IOException, InterruptedException {
+        List<Instance> sample = instances.get(session.officeId());
+        if (sample == null) {
+            sample = new ArrayList<>();
+            Response response = client.get(session, "/api/inventories/my-office", "/api/inventories/my-office");
+            for (JsonNode instance : ApiClient.json(response)) {
+                sample.add(new Instance(instance.path("id").asLong(), instance.path("barcode").asText()));
+                if (sample.size() == INSTANCE_SAMPLE) {
+                    break;
+                }
+            }
+            instances.put(session.officeId(), sample);
+        }
+        return sample;
+    }
+}
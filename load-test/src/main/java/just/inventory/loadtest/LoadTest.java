@@ -0,0 +1,147 @@
+package just.inventory.loadtest;
+
+import just.inventory.loadtest.Journeys.Journey;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scenario-based load driver. Every virtual user is a virtual thread that keeps picking
+ * a journey according to the configured mix until the run ends. Latencies are recorded
+ * per endpoint after the warm-up and written as an HdrHistogram log plus a summary table,
+ * so runs against different releases can be compared side by side.
+ *
+ * Meant to run against a local backend loaded with the perf-data generator, whose
+ * {@code perf.<officeId>} users it logs in as.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = get(options, "base-url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(get(options, "concurrency", "50"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(get(options, "warmup", "30")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(get(options, "duration", "120")));
+        Duration thinkTime = Duration.ofMillis(Long.parseLong(get(options, "think-time", "0")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(get(options, "timeout", "30")));
+        long seed = Long.parseLong(get(options, "seed", "42"));
+        String userPrefix = get(options, "user-prefix", "perf.");
+        String password = get(options, "password", "perf-password");
+        String bootstrapUser = get(options, "bootstrap-user", userPrefix + "1");
+        int labelBatch = Integer.parseInt(get(options, "label-batch", "20"));
+        Map<Journey, Integer> mix = parseMix(get(options, "mix", "dashboard=60,scan=20,requisition=10,labels=10"));
+        Path output = Path.of(get(options, "output", "target/load-test"));
+        // Included in the result file name, e.g. the server's execution mode
+        String runName = get(options, "run-name", "run");
+
+        Metrics metrics = new Metrics();
+        ApiClient client = new ApiClient(baseUrl, timeout, metrics);
+        Journeys journeys = new Journeys(client, userPrefix, password, labelBatch);
+        journeys.discover(bootstrapUser);
+        System.out.printf("Target %s, %d offices, %d virtual users, mix %s%n",
+                baseUrl, journeys.officeCount(), concurrency, mix);
+
+        Journey[] wheel = wheel(mix);
+        long deadline = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        AtomicLong failures = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < concurrency; user++) {
+                SplittableRandom random = new SplittableRandom(seed + user);
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            journeys.run(wheel[random.nextInt(wheel.length)], random);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            // Already recorded against its endpoint; keep the virtual user going
+                            failures.incrementAndGet();
+                        }
+                        if (!thinkTime.isZero()) {
+                            try {
+                                Thread.sleep(thinkTime);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                        }
+                    }
+                });
+            }
+
+            System.out.printf("Warming up for %d s%n", warmup.toSeconds());
+            TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+            metrics.startRecording();
+            System.out.printf("Recording for %d s%n", duration.toSeconds());
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, deadline - System.nanoTime()));
+            metrics.stopRecording();
+        }
+
+        Files.createDirectories(output);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path logFile = output.resolve("load-test-" + runName + "-" + stamp + ".hlog");
+        metrics.report(logFile, System.out);
+        System.out.printf("%d journeys aborted by I/O errors%nHistograms written to %s%n", failures.get(), logFile);
+    }
+
+    private static Journey[] wheel(Map<Journey, Integer> mix) {
+        List<Journey> wheel = new ArrayList<>();
+        mix.forEach((journey, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(journey);
+            }
+        });
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("The journey mix is empty");
+        }
+        return wheel.toArray(Journey[]::new);
+    }
+
+    private static Map<Journey, Integer> parseMix(String value) {
+        Map<Journey, Integer> mix = new EnumMap<>(Journey.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split("=");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Expected journey=weight in --mix, got: " + part);
+            }
+            mix.put(Journey.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(entry[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return values;
+    }
+
+    private static String get(Map<String, String> values, String name, String defaultValue) {
+        String value = values.get(name);
+        return value != null ? value : System.getProperty("load." + name, defaultValue);
+    }
+}
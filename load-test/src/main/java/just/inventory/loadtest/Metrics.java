@@ -0,0 +1,107 @@
+package just.inventory.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds) and error counts. Nothing is kept
+ * until {@link #startRecording()}, so the warm-up phase does not skew the results.
+ */
+final class Metrics {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    void startRecording() {
+        // Discard whatever the warm-up collected
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+        startedAt = System.currentTimeMillis();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+        stoppedAt = System.currentTimeMillis();
+    }
+
+    void record(String endpoint, long latencyNanos, int status) {
+        Recorder recorder = recorders.computeIfAbsent(endpoint, k -> new Recorder(MAX_LATENCY_MICROS, 3));
+        LongAdder errorCount = errors.computeIfAbsent(endpoint, k -> new LongAdder());
+        if (!recording) {
+            return;
+        }
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (status < 200 || status >= 300) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Writes one tagged histogram per endpoint to an HdrHistogram log (readable with
+     * HistogramLogProcessor / HistogramLogAnalyzer) and prints a summary table.
+     */
+    void report(Path logFile, PrintStream out) throws FileNotFoundException {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+        double seconds = Math.max(1, stoppedAt - startedAt) / 1000.0;
+
+        try (PrintStream logStream = new PrintStream(logFile.toFile())) {
+            HistogramLogWriter writer = new HistogramLogWriter(logStream);
+            writer.outputComment("inventory load test, latencies in microseconds");
+            writer.outputStartTime(startedAt);
+            writer.setBaseTime(startedAt);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            histograms.forEach((endpoint, histogram) -> {
+                histogram.setTag(endpoint.replace(' ', '_').replace(',', '_'));
+                histogram.setStartTimeStamp(startedAt);
+                histogram.setEndTimeStamp(stoppedAt);
+                writer.outputIntervalHistogram(histogram);
+            });
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-55s %9s %9s %8s %9s %9s %9s %9s",
+                "endpoint", "count", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        long total = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            long errorCount = errors.get(entry.getKey()).sum();
+            total += count;
+            totalErrors += errorCount;
+            lines.add(String.format("%-55s %9d %9.1f %8d %9.1f %9.1f %9.1f %9.1f",
+                    entry.getKey(), count, count / seconds, errorCount,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue())));
+        }
+        lines.add(String.format("%-55s %9d %9.1f %8d", "TOTAL", total, total / seconds, totalErrors));
+        lines.forEach(out::println);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
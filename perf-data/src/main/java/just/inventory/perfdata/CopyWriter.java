@@ -0,0 +1,90 @@
+package just.inventory.perfdata;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams rows into one table with {@code COPY ... FROM STDIN (FORMAT csv)}. Rows are
+ * built in a reusable buffer and shipped to the server in large chunks, so generating
+ * millions of rows needs no more memory than one chunk.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 4096);
+    private boolean firstField = true;
+    private long rows;
+
+    CopyWriter(CopyManager copyManager, String table, String... columns) throws SQLException {
+        this.copyIn = copyManager.copyIn(
+                "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)");
+    }
+
+    CopyWriter value(Object value) {
+        separator();
+        if (value == null) {
+            // Unquoted empty field is NULL in CSV COPY
+            return this;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            buffer.append(TIMESTAMP.format(dateTime));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            buffer.append(value);
+        } else {
+            String text = value.toString();
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstField = true;
+        rows++;
+        if (buffer.length() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        copyIn.endCopy();
+    }
+
+    private void separator() {
+        if (!firstField) {
+            buffer.append(',');
+        }
+        firstField = false;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,508 @@
+package just.inventory.perfdata;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an inventory database with a synthetic, university-scale workload on top of the
+ * Liquibase seeds: item instances, purchases, requisitions and transactions spread over
+ * the real office tree and item catalogue.
+ *
+ * Everything is derived from one seed, so the same options always produce the same
+ * rows. Each table gets its own random stream, so changing the volume of one table does
+ * not reshuffle the others. Rows are streamed with {@code COPY}; ids are assigned here
+ * (continuing after the current maximum) and the identity sequences are moved past them
+ * at the end, so the application keeps inserting normally afterwards.
+ *
+ * One {@code perf.<officeId>} user is created per office, all sharing the password given
+ * by {@code --user-password}, for load tests to log in with. They get the role given by
+ * {@code --user-role} (ADMIN by default, since requisition and distribution workflows
+ * are admin-only).
+ */
+public final class DatasetGenerator {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final long SPAN_SECONDS = 5L * 365 * 24 * 3600;
+
+    private static final String[] INSTANCE_STATUSES = {"AVAILABLE", "IN_USE", "UNDER_REPAIR", "DAMAGED", "LOST", "DISPOSED"};
+    private static final double[] INSTANCE_STATUS_WEIGHTS = {0.45, 0.40, 0.05, 0.05, 0.02, 0.03};
+
+    private static final String[] REQUEST_STATUSES = {"PENDING", "APPROVED", "REJECTED", "PARTIALLY_FULFILLED", "FULFILLED", "CONFIRMED"};
+    private static final double[] REQUEST_STATUS_WEIGHTS = {0.10, 0.10, 0.10, 0.05, 0.15, 0.50};
+
+    private static final String[] TRANSACTION_TYPES = {"PURCHASE", "DISTRIBUTION", "TRANSFER", "RETURN", "DAMAGED", "LOST", "DISPOSED"};
+    private static final double[] TRANSACTION_TYPE_WEIGHTS = {0.15, 0.50, 0.20, 0.10, 0.02, 0.01, 0.02};
+
+    private static final String[] TRANSACTION_STATUSES = {"PENDING", "CONFIRMED", "REJECTED", "CANCELLED"};
+    private static final double[] TRANSACTION_STATUS_WEIGHTS = {0.05, 0.90, 0.03, 0.02};
+
+    private static final String[] SUPPLIERS = {
+            "Dhaka Scientific Supplies", "Jashore Computer House", "Bengal Furniture Mart",
+            "National Lab Equipment", "Khulna Stationery Centre", "Eastern Electronics"
+    };
+
+    private final Options options;
+
+    // Reference data, loaded from the database
+    private long[] officeIds;
+    private int[] officeParent;
+    private long[] officeInventory;
+    private long[] officeUser;
+    private int[] childOffices;
+    private long[] itemIds;
+
+    // Instances generated in this run: owner office index per instance, for realistic transactions
+    private long firstInstanceId;
+    private int[] instanceOwner;
+    private long firstRequestId;
+
+    private DatasetGenerator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new DatasetGenerator(Options.parse(args)).run();
+    }
+
+    private void run() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(options.url, options.username, options.password)) {
+            connection.setAutoCommit(false);
+            execute(connection, "SET synchronous_commit = off");
+            if (options.truncate) {
+                log("Truncating generated tables");
+                execute(connection, "TRUNCATE item_transactions, item_requests, item_instances, purchase_items, purchases");
+                execute(connection, "DELETE FROM users WHERE username LIKE 'perf.%'");
+            }
+
+            loadOffices(connection);
+            ensureInventories(connection);
+            ensureUsers(connection);
+            loadItems(connection);
+            connection.commit();
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            generatePurchases(connection, copyManager);
+            generateInstances(connection, copyManager);
+            generateRequests(connection, copyManager);
+            generateTransactions(connection, copyManager);
+
+            for (String table : List.of("purchases", "purchase_items", "item_instances", "item_requests", "item_transactions", "inventories", "users")) {
+                execute(connection, "SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)");
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            log("Analyzing");
+            execute(connection, "ANALYZE");
+        }
+        log("Done in %d s", (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    private void loadOffices(Connection connection) throws SQLException {
+        List<long[]> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, COALESCE(parent_id, 0) FROM offices ORDER BY id")) {
+            while (rs.next()) {
+                rows.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("No offices found; run the Liquibase migrations first");
+        }
+
+        Map<Long, Integer> indexById = new HashMap<>();
+        officeIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            officeIds[i] = rows.get(i)[0];
+            indexById.put(officeIds[i], i);
+        }
+        officeParent = new int[rows.size()];
+        List<Integer> children = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Integer parent = indexById.get(rows.get(i)[1]);
+            officeParent[i] = parent != null ? parent : -1;
+            if (parent != null) {
+                children.add(i);
+            }
+        }
+        childOffices = children.stream().mapToInt(Integer::intValue).toArray();
+        log("%d offices (%d with a parent)", officeIds.length, childOffices.length);
+    }
+
+    private void ensureInventories(Connection connection) throws SQLException {
+        execute(connection, "INSERT INTO inventories (id, office_id) "
+                + "SELECT (SELECT COALESCE(MAX(id), 0) FROM inventories) + ROW_NUMBER() OVER (ORDER BY o.id), o.id "
+                + "FROM offices o WHERE NOT EXISTS (SELECT 1 FROM inventories i WHERE i.office_id = o.id)");
+        officeInventory = lookupPerOffice(connection, "SELECT office_id, MIN(id) FROM inventories GROUP BY office_id");
+    }
+
+    private void ensureUsers(Connection connection) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(options.userPassword);
+        long roleId;
+        try (PreparedStatement select = connection.prepareStatement("SELECT id FROM roles WHERE name = ?")) {
+            select.setString(1, options.userRole);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Role " + options.userRole + " not found; run the Liquibase migrations first");
+                }
+                roleId = rs.getLong(1);
+            }
+        }
+
+        long nextId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM users")) {
+            rs.next();
+            nextId = rs.getLong(1);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, full_name, username, password, email, role_id, office_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (username) DO NOTHING")) {
+            for (long officeId : officeIds) {
+                insert.setLong(1, nextId++);
+                insert.setString(2, "Perf User " + officeId);
+                insert.setString(3, "perf." + officeId);
+                insert.setString(4, hash);
+                insert.setString(5, "perf." + officeId + "@perf.local");
+                insert.setLong(6, roleId);
+                insert.setLong(7, officeId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        officeUser = lookupPerOffice(connection, "SELECT office_id, MIN(id) FROM users WHERE username LIKE 'perf.%' GROUP BY office_id");
+    }
+
+    private void loadItems(Connection connection) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM items ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No items found; run the Liquibase migrations first");
+        }
+        itemIds = ids.stream().mapToLong(Long::longValue).toArray();
+        log("%d catalogue items", itemIds.length);
+    }
+
+    private void generatePurchases(Connection connection, CopyManager copyManager) throws SQLException {
+        long count = options.scaled(options.purchases);
+        long firstPurchaseId = nextId(connection, "purchases");
+        SplittableRandom random = new SplittableRandom(options.seed * 31 + 1);
+
+        try (CopyWriter purchases = new CopyWriter(copyManager, "purchases",
+                "id", "purchased_by_user_id", "office_id", "supplier", "invoice_number", "remarks", "purchased_date")) {
+            for (long i = 0; i < count; i++) {
+                long id = firstPurchaseId + i;
+                int office = random.nextInt(officeIds.length);
+                purchases.value(id)
+                        .value(officeUser[office])
+                        .value(officeIds[office])
+                        .value(SUPPLIERS[random.nextInt(SUPPLIERS.length)])
+                        .value("PERF-INV-" + id)
+                        .value(null)
+                        .value(randomDate(random));
+                purchases.endRow();
+            }
+        }
+
+        // Line items use their own stream: 1-5 lines per purchase
+        long firstLineId = nextId(connection, "purchase_items");
+        SplittableRandom lineRandom = new SplittableRandom(options.seed * 31 + 2);
+        long lines;
+        try (CopyWriter purchaseItems = new CopyWriter(copyManager, "purchase_items",
+                "id", "purchase_id", "item_id", "quantity", "unit_price")) {
+            long lineId = firstLineId;
+            for (long i = 0; i < count; i++) {
+                int lineCount = 1 + lineRandom.nextInt(5);
+                for (int line = 0; line < lineCount; line++) {
+                    purchaseItems.value(lineId++)
+                            .value(firstPurchaseId + i)
+                            .value(itemIds[lineRandom.nextInt(itemIds.length)])
+                            .value((double) (1 + lineRandom.nextInt(20)))
+                            .value(price(lineRandom));
+                    purchaseItems.endRow();
+                }
+            }
+            lines = purchaseItems.getRows();
+        }
+        connection.commit();
+        log("%d purchases, %d purchase lines", count, lines);
+    }
+
+    private void generateInstances(Connection connection, CopyManager copyManager) throws SQLException {
+        int count = Math.toIntExact(options.scaled(options.instances));
+        firstInstanceId = nextId(connection, "item_instances");
+        instanceOwner = new int[count];
+        SplittableRandom random = new SplittableRandom(options.seed * 31 + 3);
+
+        try (CopyWriter instances = new CopyWriter(copyManager, "item_instances",
+                "id", "item_id", "barcode", "inventory_id", "owner_office_id", "status", "serial_number",
+                "purchase_date", "warranty_expiry", "remarks", "purchase_price", "created_at")) {
+            for (int i = 0; i < count; i++) {
+                long id = firstInstanceId + i;
+                int office = random.nextInt(officeIds.length);
+                instanceOwner[i] = office;
+                LocalDateTime purchased = randomDate(random);
+                instances.value(id)
+                        .value(itemIds[random.nextInt(itemIds.length)])
+                        .value(String.format("PERF-%010d", id))
+                        .value(officeInventory[office])
+                        .value(officeIds[office])
+                        .value(INSTANCE_STATUSES[pick(random, INSTANCE_STATUS_WEIGHTS)])
+                        .value(random.nextBoolean() ? "SN-" + Long.toString(id, 36).toUpperCase() : null)
+                        .value(purchased)
+                        .value(purchased.plusYears(2))
+                        .value(null)
+                        .value(price(random))
+                        .value(purchased);
+                instances.endRow();
+            }
+        }
+        connection.commit();
+        log("%d item instances", count);
+    }
+
+    private void generateRequests(Connection connection, CopyManager copyManager) throws SQLException {
+        long count = childOffices.length == 0 ? 0 : options.scaled(options.requests);
+        firstRequestId = nextId(connection, "item_requests");
+        SplittableRandom random = new SplittableRandom(options.seed * 31 + 4);
+
+        try (CopyWriter requests = new CopyWriter(copyManager, "item_requests",
+                "id", "item_id", "fulfilled_item_instance_id", "requesting_office_id", "parent_office_id",
+                "requested_by_user_id", "approved_by_user_id", "requested_quantity", "approved_quantity", "status",
+                "reason", "remarks", "requested_date", "approved_date", "rejected_date", "fulfilled_date",
+                "fulfilled_quantity", "confirmed_by_user_id", "confirmed_date", "confirmation_remarks")) {
+            for (long i = 0; i < count; i++) {
+                int office = childOffices[random.nextInt(childOffices.length)];
+                int parent = officeParent[office];
+                String status = REQUEST_STATUSES[pick(random, REQUEST_STATUS_WEIGHTS)];
+                boolean decided = !status.equals("PENDING");
+                boolean rejected = status.equals("REJECTED");
+                boolean fulfilled = status.equals("PARTIALLY_FULFILLED") || status.equals("FULFILLED") || status.equals("CONFIRMED");
+                boolean confirmed = status.equals("CONFIRMED");
+
+                double requested = 1 + random.nextInt(10);
+                double approved = decided && !rejected ? Math.max(1, requested - random.nextInt(3)) : 0;
+                LocalDateTime requestedDate = randomDate(random);
+                LocalDateTime decidedDate = requestedDate.plusHours(1 + random.nextInt(72));
+                LocalDateTime fulfilledDate = decidedDate.plusHours(1 + random.nextInt(72));
+                Long fulfilledInstance = fulfilled && instanceOwner.length > 0
+                        ? firstInstanceId + random.nextInt(instanceOwner.length) : null;
+
+                requests.value(firstRequestId + i)
+                        .value(itemIds[random.nextInt(itemIds.length)])
+                        .value(fulfilledInstance)
+                        .value(officeIds[office])
+                        .value(officeIds[parent])
+                        .value(officeUser[office])
+                        .value(decided && !rejected ? officeUser[parent] : null)
+                        .value(requested)
+                        .value(decided && !rejected ? approved : null)
+                        .value(status)
+                        .value("Requisition for academic use")
+                        .value(null)
+                        .value(requestedDate)
+                        .value(decided && !rejected ? decidedDate : null)
+                        .value(rejected ? decidedDate : null)
+                        .value(fulfilled ? fulfilledDate : null)
+                        .value(fulfilled ? (status.equals("PARTIALLY_FULFILLED") ? Math.max(1, approved - 1) : approved) : null)
+                        .value(confirmed ? officeUser[office] : null)
+                        .value(confirmed ? fulfilledDate.plusHours(1 + random.nextInt(48)) : null)
+                        .value(null);
+                requests.endRow();
+            }
+        }
+        connection.commit();
+        log("%d item requests", count);
+    }
+
+    private void generateTransactions(Connection connection, CopyManager copyManager) throws SQLException {
+        long count = instanceOwner.length == 0 ? 0 : options.scaled(options.transactions);
+        long requestCount = childOffices.length == 0 ? 0 : options.scaled(options.requests);
+        long firstTransactionId = nextId(connection, "item_transactions");
+        SplittableRandom random = new SplittableRandom(options.seed * 31 + 5);
+
+        try (CopyWriter transactions = new CopyWriter(copyManager, "item_transactions",
+                "id", "item_instance_id", "from_office_id", "to_office_id", "user_id", "transaction_type",
+                "quantity", "remarks", "transaction_date", "status", "confirmed_by_user_id", "confirmed_date",
+                "item_request_id")) {
+            for (long i = 0; i < count; i++) {
+                int instance = random.nextInt(instanceOwner.length);
+                int owner = instanceOwner[instance];
+                String type = TRANSACTION_TYPES[pick(random, TRANSACTION_TYPE_WEIGHTS)];
+
+                int from;
+                int to;
+                switch (type) {
+                    case "PURCHASE" -> { from = -1; to = owner; }
+                    case "DISTRIBUTION" -> { from = officeParent[owner]; to = owner; }
+                    case "TRANSFER" -> { from = random.nextInt(officeIds.length); to = owner; }
+                    case "RETURN" -> { from = owner; to = officeParent[owner]; }
+                    default -> { from = owner; to = -1; }
+                }
+                int actor = from >= 0 ? from : owner;
+                String status = TRANSACTION_STATUSES[pick(random, TRANSACTION_STATUS_WEIGHTS)];
+                boolean confirmed = status.equals("CONFIRMED");
+                LocalDateTime date = randomDate(random);
+                Long requestId = type.equals("DISTRIBUTION") && requestCount > 0 && random.nextInt(10) < 3
+                        ? firstRequestId + random.nextLong(requestCount) : null;
+
+                transactions.value(firstTransactionId + i)
+                        .value(firstInstanceId + instance)
+                        .value(from >= 0 ? officeIds[from] : null)
+                        .value(to >= 0 ? officeIds[to] : null)
+                        .value(officeUser[actor])
+                        .value(type)
+                        .value(1.0)
+                        .value(null)
+                        .value(date)
+                        .value(status)
+                        .value(confirmed ? officeUser[to >= 0 ? to : actor] : null)
+                        .value(confirmed ? date.plusHours(1 + random.nextInt(48)) : null)
+                        .value(requestId);
+                transactions.endRow();
+                if (transactions.getRows() % 1_000_000 == 0) {
+                    log("  %d transactions", transactions.getRows());
+                }
+            }
+        }
+        connection.commit();
+        log("%d item transactions", count);
+    }
+
+    private long[] lookupPerOffice(Connection connection, String sql) throws SQLException {
+        Map<Long, Long> byOffice = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                byOffice.put(rs.getLong(1), rs.getLong(2));
+            }
+        }
+        long[] values = new long[officeIds.length];
+        for (int i = 0; i < officeIds.length; i++) {
+            Long value = byOffice.get(officeIds[i]);
+            if (value == null) {
+                throw new IllegalStateException("Office " + officeIds[i] + " has no row for: " + sql);
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int pick(SplittableRandom random, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static LocalDateTime randomDate(SplittableRandom random) {
+        return EPOCH.plusSeconds(random.nextLong(SPAN_SECONDS));
+    }
+
+    private static double price(SplittableRandom random) {
+        // Whole taka, mostly small consumables with a long tail of equipment
+        return Math.round(Math.exp(4 + random.nextDouble() * 8));
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[perf-data] " + format + "%n", args);
+    }
+
+    /**
+     * {@code --name=value} arguments; every option falls back to a {@code perf.<name>}
+     * system property, then to its default.
+     */
+    static final class Options {
+
+        String url;
+        String username;
+        String password;
+        long seed;
+        double scale;
+        long instances;
+        long transactions;
+        long requests;
+        long purchases;
+        String userPassword;
+        String userRole;
+        boolean truncate;
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                int equals = arg.indexOf('=');
+                if (equals < 0) {
+                    values.put(arg.substring(2), "true");
+                } else {
+                    values.put(arg.substring(2, equals), arg.substring(equals + 1));
+                }
+            }
+
+            Options options = new Options();
+            options.url = get(values, "url", "jdbc:postgresql://localhost:5432/inventory");
+            options.username = get(values, "username", "postgres");
+            options.password = get(values, "password", "postgres");
+            options.seed = Long.parseLong(get(values, "seed", "42"));
+            options.scale = Double.parseDouble(get(values, "scale", "1"));
+            options.instances = Long.parseLong(get(values, "instances", "1000000"));
+            options.transactions = Long.parseLong(get(values, "transactions", "5000000"));
+            options.requests = Long.parseLong(get(values, "requests", "200000"));
+            options.purchases = Long.parseLong(get(values, "purchases", "50000"));
+            options.userPassword = get(values, "user-password", "perf-password");
+            options.userRole = get(values, "user-role", "ADMIN");
+            options.truncate = Boolean.parseBoolean(get(values, "truncate", "false"));
+            return options;
+        }
+
+        long scaled(long volume) {
+            return Math.round(volume * scale);
+        }
+
+        private static String get(Map<String, String> values, String name, String defaultValue) {
+            String value = values.get(name);
+            return value != null ? value : System.getProperty("perf." + name, defaultValue);
+        }
+    }
+}